@@ -0,0 +1,24 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Part of the resource's first address. The address is written, with all its annotated parts,
+ * only when the {@link Part#LINE} field is set.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirAddress {
+
+    Part value();
+
+    enum Part {
+        LINE,
+        CITY,
+        STATE,
+        POSTAL_CODE
+    }
+}
@@ -0,0 +1,26 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A code element bound to one of HAPI's enums, held in the DTO as its code string.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirCode {
+
+    /** Element name, e.g. {@code "gender"}. */
+    String value();
+
+    /** The element's enum, e.g. {@code Enumerations.AdministrativeGender.class}. */
+    Class<? extends Enum<?>> type();
+
+    /**
+     * Constant written for a code the enum does not know. By default an unknown code fails
+     * the mapping.
+     */
+    String fallback() default "";
+}
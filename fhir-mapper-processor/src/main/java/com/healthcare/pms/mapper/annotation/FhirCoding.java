@@ -0,0 +1,35 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A CodeableConcept element holding one coding. The field's value is written as the display and,
+ * case-adjusted, as the code.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirCoding {
+
+    /** Element name, e.g. {@code "maritalStatus"}. */
+    String value();
+
+    String system();
+
+    CodeCase code() default CodeCase.UPPER;
+
+    /** Whether reading takes the code rather than the display. */
+    boolean readCode() default false;
+
+    /** Whether the element repeats; the first repetition is read. */
+    boolean repeating() default false;
+
+    enum CodeCase {
+        // "married" -> "MARRIED"
+        UPPER,
+        // "Eye Hospital" -> "eye-hospital"
+        LOWER_HYPHENATED
+    }
+}
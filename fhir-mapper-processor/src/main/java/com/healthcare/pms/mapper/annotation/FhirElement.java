@@ -0,0 +1,21 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A primitive element of the resource: a String, Boolean, Integer or LocalDate field.
+ * A LocalDate is written as a date and read back from a date, year or year-month.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirElement {
+
+    /** Element name, e.g. {@code "birthDate"}. */
+    String value();
+
+    /** Java expression written when the field is null, e.g. {@code "true"}; by default nothing is written. */
+    String ifNull() default "";
+}
@@ -0,0 +1,16 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A String or Integer field carried as an extension with this exact URL.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirExtension {
+
+    String value();
+}
@@ -0,0 +1,20 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The identifier of one system; reading takes the last identifier of the system.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirIdentifier {
+
+    /** Identifier system URI. */
+    String value();
+
+    /** The backbone element holding the identifier; empty for the resource itself. */
+    String component() default "";
+}
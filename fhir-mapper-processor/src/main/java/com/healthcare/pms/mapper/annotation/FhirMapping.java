@@ -0,0 +1,34 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO as mapped to a FHIR R4 resource. The processor generates the named mapper from the
+ * mapping annotations on the DTO's fields; fields without one are not mapped.
+ *
+ * A full DTO gets {@code toFhirResource} and {@code toDTO}. A summary DTO gets {@code toSummary}
+ * for the resource and for its JSON form, and {@code SUMMARY_ELEMENTS}. One full and one summary
+ * DTO may share a mapper.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface FhirMapping {
+
+    /** The R4 resource class, e.g. {@code Patient.class}. */
+    Class<?> resource();
+
+    /** Fully qualified name of the generated mapper. */
+    String mapper();
+
+    boolean summary() default false;
+
+    /**
+     * Class holding the part of the mapping no annotation describes, as static
+     * {@code write(dto, resource)} and {@code read(resource, dto)} methods; either may be left out.
+     * Both run after the generated code.
+     */
+    Class<?> hooks() default Void.class;
+}
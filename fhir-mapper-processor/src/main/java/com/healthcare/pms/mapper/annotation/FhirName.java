@@ -0,0 +1,31 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Part of the resource's first name. The resource always gets one name, written from all its
+ * annotated parts together. Inside a component only the text is mapped, as the component's single name.
+ *
+ * {@link Part#TEXT} may annotate a getter, such as a computed full name; it is then only written.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface FhirName {
+
+    Part value();
+
+    /** A fixed prefix written with the name, e.g. a title. */
+    String prefix() default "";
+
+    /** The backbone element holding the name, e.g. {@code "contact"}; empty for the resource itself. */
+    String component() default "";
+
+    enum Part {
+        GIVEN,
+        FAMILY,
+        TEXT
+    }
+}
@@ -0,0 +1,24 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A contact point of one system. An empty value is not written; reading takes the last contact
+ * point of the system.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirTelecom {
+
+    /** ContactPoint system code, e.g. {@code "phone"}. */
+    String value();
+
+    /** ContactPoint use code written with the value, e.g. {@code "mobile"}. */
+    String use() default "";
+
+    /** The backbone element holding the contact point; empty for the resource itself. */
+    String component() default "";
+}
@@ -0,0 +1,23 @@
+package com.healthcare.pms.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A CodeableConcept element holding only text.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface FhirText {
+
+    /** Element name, e.g. {@code "reasonCode"}. */
+    String value();
+
+    /** Whether the element repeats; the first repetition is read. */
+    boolean repeating() default false;
+
+    /** The backbone element holding the concept; empty for the resource itself. */
+    String component() default "";
+}
@@ -0,0 +1,330 @@
+package com.healthcare.pms.mapper.processor;
+
+import com.healthcare.pms.mapper.annotation.FhirAddress;
+import com.healthcare.pms.mapper.annotation.FhirCode;
+import com.healthcare.pms.mapper.annotation.FhirCoding;
+import com.healthcare.pms.mapper.annotation.FhirElement;
+import com.healthcare.pms.mapper.annotation.FhirExtension;
+import com.healthcare.pms.mapper.annotation.FhirId;
+import com.healthcare.pms.mapper.annotation.FhirIdentifier;
+import com.healthcare.pms.mapper.annotation.FhirMapping;
+import com.healthcare.pms.mapper.annotation.FhirName;
+import com.healthcare.pms.mapper.annotation.FhirTelecom;
+import com.healthcare.pms.mapper.annotation.FhirText;
+import com.healthcare.pms.mapper.annotation.FhirVersion;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Generates a mapper for every {@code @FhirMapping} DTO, from the mapping annotations on its fields.
+ *
+ * The DTOs sharing a mapper are collected first, so a full DTO and its summary end up in one class.
+ * Mistakes in the annotations are reported against the field they are on, and no mapper is
+ * generated from a DTO that has any.
+ */
+@SupportedAnnotationTypes("com.healthcare.pms.mapper.annotation.FhirMapping")
+public class FhirMappingProcessor extends AbstractProcessor {
+
+    static final String MODEL_PACKAGE = "org.hl7.fhir.r4.model";
+
+    private static final Set<String> TELECOM_SYSTEMS = Set.of("phone", "fax", "email", "pager", "url", "sms", "other");
+    private static final Set<String> TELECOM_USES = Set.of("home", "work", "temp", "old", "mobile");
+    private static final Set<String> ELEMENT_TYPES = Set.of(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Integer", "java.time.LocalDate");
+    private static final Set<String> EXTENSION_TYPES = Set.of("java.lang.String", "java.lang.Integer");
+
+    private static final List<Class<? extends Annotation>> MAPPING_ANNOTATIONS = List.of(
+            FhirId.class, FhirVersion.class, FhirName.class, FhirTelecom.class, FhirAddress.class,
+            FhirExtension.class, FhirCoding.class, FhirText.class, FhirIdentifier.class,
+            FhirElement.class, FhirCode.class);
+
+    private boolean failed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<String, MappedDto[]> mappers = new LinkedHashMap<>();
+        Set<String> broken = new HashSet<>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(FhirMapping.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@FhirMapping applies to classes only");
+                continue;
+            }
+            failed = false;
+            MappedDto dto = readDto((TypeElement) element);
+            if (failed) {
+                // Half a mapper would only add errors about its missing methods
+                broken.add(dto.mapper);
+                continue;
+            }
+
+            // Slot 0 holds the full DTO, slot 1 the summary
+            MappedDto[] pair = mappers.computeIfAbsent(dto.mapper, name -> new MappedDto[2]);
+            int slot = dto.summary ? 1 : 0;
+            MappedDto other = pair[1 - slot];
+            if (pair[slot] != null) {
+                error(element, dto.mapper + " is already generated from " + pair[slot].qualifiedName()
+                        + "; a mapper takes one full and one summary DTO");
+            } else if (other != null && !other.resource.equals(dto.resource)) {
+                error(element, dto.mapper + " maps " + other.resource + " for " + other.qualifiedName()
+                        + ", not " + dto.resource);
+            } else {
+                pair[slot] = dto;
+            }
+        }
+
+        mappers.forEach((name, pair) -> {
+            if (!broken.contains(name)) {
+                write(name, pair[0], pair[1]);
+            }
+        });
+        return true;
+    }
+
+    private MappedDto readDto(TypeElement type) {
+        FhirMapping mapping = type.getAnnotation(FhirMapping.class);
+
+        String resource = "";
+        TypeElement resourceType = typeElement(classValue(mapping::resource));
+        if (resourceType == null || !packageOf(resourceType).equals(MODEL_PACKAGE)) {
+            error(type, "resource must be a class in " + MODEL_PACKAGE);
+        } else {
+            resource = relativeName(resourceType);
+        }
+
+        String hooks = null;
+        boolean writeHook = false;
+        boolean readHook = false;
+        TypeElement hooksType = typeElement(classValue(mapping::hooks));
+        if (hooksType != null && !hooksType.getQualifiedName().contentEquals("java.lang.Void")) {
+            hooks = hooksType.getQualifiedName().toString();
+            writeHook = hasStaticMethod(hooksType, "write");
+            readHook = hasStaticMethod(hooksType, "read");
+            if (!writeHook && !readHook) {
+                error(type, hooks + " has neither a static write(dto, resource) nor a static read(resource, dto)");
+            }
+        }
+
+        MappedDto dto = new MappedDto(type, mapping.mapper(), mapping.summary(), resource, hooks, writeHook, readHook);
+        for (Element member : type.getEnclosedElements()) {
+            MappedProperty property = readProperty(member);
+            if (property != null) {
+                dto.properties.add(property);
+            }
+        }
+        return dto;
+    }
+
+    private MappedProperty readProperty(Element member) {
+        List<Annotation> found = new ArrayList<>();
+        for (Class<? extends Annotation> annotationType : MAPPING_ANNOTATIONS) {
+            Annotation annotation = member.getAnnotation(annotationType);
+            if (annotation != null) {
+                found.add(annotation);
+            }
+        }
+        if (found.isEmpty()) {
+            return null;
+        }
+        if (found.size() > 1) {
+            error(member, "a property takes one FHIR mapping annotation");
+            return null;
+        }
+        Annotation annotation = found.get(0);
+
+        String getter;
+        String setter;
+        String type;
+        if (member.getKind() == ElementKind.FIELD) {
+            String name = member.getSimpleName().toString();
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            type = typeName(member.asType());
+            getter = (member.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get") + capitalized;
+            setter = "set" + capitalized;
+        } else {
+            // Only a computed name text may sit on a getter
+            ExecutableElement method = (ExecutableElement) member;
+            if (!(annotation instanceof FhirName name) || name.value() != FhirName.Part.TEXT
+                    || !method.getParameters().isEmpty()) {
+                error(member, "only @FhirName(TEXT) may annotate a method, and only a getter");
+                return null;
+            }
+            type = typeName(method.getReturnType());
+            getter = method.getSimpleName().toString();
+            setter = null;
+        }
+
+        MappedProperty property;
+        if (annotation instanceof FhirId) {
+            property = new MappedProperty(MappedProperty.Kind.ID, getter, setter, type);
+        } else if (annotation instanceof FhirVersion) {
+            property = new MappedProperty(MappedProperty.Kind.VERSION, getter, setter, type);
+        } else if (annotation instanceof FhirName name) {
+            property = new MappedProperty(MappedProperty.Kind.NAME, getter, setter, type);
+            property.part = name.value().name();
+            property.prefix = name.prefix();
+            property.component = name.component();
+            if (property.inComponent() && name.value() != FhirName.Part.TEXT) {
+                error(member, "a component's name maps its text only");
+            }
+        } else if (annotation instanceof FhirTelecom telecom) {
+            property = new MappedProperty(MappedProperty.Kind.TELECOM, getter, setter, type);
+            property.system = telecom.value();
+            property.use = telecom.use();
+            property.component = telecom.component();
+            if (!TELECOM_SYSTEMS.contains(telecom.value())) {
+                error(member, "unknown contact point system '" + telecom.value() + "'");
+            }
+            if (!telecom.use().isEmpty() && !TELECOM_USES.contains(telecom.use())) {
+                error(member, "unknown contact point use '" + telecom.use() + "'");
+            }
+        } else if (annotation instanceof FhirAddress address) {
+            property = new MappedProperty(MappedProperty.Kind.ADDRESS, getter, setter, type);
+            property.part = address.value().name();
+        } else if (annotation instanceof FhirExtension extension) {
+            property = new MappedProperty(MappedProperty.Kind.EXTENSION, getter, setter, type);
+            property.system = extension.value();
+            requireType(member, type, EXTENSION_TYPES);
+        } else if (annotation instanceof FhirCoding coding) {
+            property = new MappedProperty(MappedProperty.Kind.CODING, getter, setter, type);
+            property.element = coding.value();
+            property.system = coding.system();
+            property.codeCase = coding.code().name();
+            property.readCode = coding.readCode();
+            property.repeating = coding.repeating();
+        } else if (annotation instanceof FhirText text) {
+            property = new MappedProperty(MappedProperty.Kind.TEXT, getter, setter, type);
+            property.element = text.value();
+            property.repeating = text.repeating();
+            property.component = text.component();
+        } else if (annotation instanceof FhirIdentifier identifier) {
+            property = new MappedProperty(MappedProperty.Kind.IDENTIFIER, getter, setter, type);
+            property.system = identifier.value();
+            property.component = identifier.component();
+        } else if (annotation instanceof FhirElement element) {
+            property = new MappedProperty(MappedProperty.Kind.ELEMENT, getter, setter, type);
+            property.element = element.value();
+            property.ifNull = element.ifNull();
+            requireType(member, type, ELEMENT_TYPES);
+        } else {
+            FhirCode code = (FhirCode) annotation;
+            property = new MappedProperty(MappedProperty.Kind.CODE, getter, setter, type);
+            property.element = code.value();
+            property.fallback = code.fallback();
+            TypeElement enumType = typeElement(classValue(code::type));
+            if (enumType == null || enumType.getKind() != ElementKind.ENUM) {
+                error(member, "type must be an enum");
+            } else {
+                property.enumType = packageOf(enumType).equals(MODEL_PACKAGE)
+                        ? relativeName(enumType) : enumType.getQualifiedName().toString();
+                if (!code.fallback().isEmpty() && enumType.getEnclosedElements().stream()
+                        .noneMatch(constant -> constant.getKind() == ElementKind.ENUM_CONSTANT
+                                && constant.getSimpleName().contentEquals(code.fallback()))) {
+                    error(member, enumType.getSimpleName() + " has no constant " + code.fallback());
+                }
+            }
+        }
+
+        if (property.kind != MappedProperty.Kind.EXTENSION && property.kind != MappedProperty.Kind.ELEMENT) {
+            requireType(member, type, Set.of("java.lang.String"));
+        }
+        return property;
+    }
+
+    private void write(String mapper, MappedDto full, MappedDto summary) {
+        List<Element> origins = new ArrayList<>();
+        if (full != null) {
+            origins.add(full.type);
+        }
+        if (summary != null) {
+            origins.add(summary.type);
+        }
+
+        String source = new MapperWriter(mapper, full, summary).write();
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(mapper, origins.toArray(new Element[0]));
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            error(origins.get(0), "could not write " + mapper + ": " + e.getMessage());
+        }
+    }
+
+    private void requireType(Element member, String type, Set<String> allowed) {
+        if (!allowed.contains(type)) {
+            error(member, "cannot map a " + type + " here; expected one of " + String.join(", ", allowed));
+        }
+    }
+
+    private boolean hasStaticMethod(TypeElement type, String name) {
+        return type.getEnclosedElements().stream()
+                .anyMatch(member -> member.getKind() == ElementKind.METHOD
+                        && member.getSimpleName().contentEquals(name)
+                        && member.getModifiers().contains(Modifier.STATIC)
+                        && ((ExecutableElement) member).getParameters().size() == 2);
+    }
+
+    // Class-valued attributes are only available as mirrors during compilation
+    private TypeMirror classValue(Supplier<Class<?>> attribute) {
+        try {
+            attribute.get();
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+        throw new IllegalStateException("Class attribute was not mirrored");
+    }
+
+    // Qualified name without any type-use annotations, which toString() would include
+    private String typeName(TypeMirror type) {
+        TypeElement element = typeElement(type);
+        return element != null ? element.getQualifiedName().toString() : type.toString();
+    }
+
+    private TypeElement typeElement(TypeMirror type) {
+        return type instanceof DeclaredType declared ? (TypeElement) declared.asElement() : null;
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    // Patient, Enumerations.AdministrativeGender
+    private String relativeName(TypeElement type) {
+        return type.getQualifiedName().toString().substring(packageOf(type).length() + 1);
+    }
+
+    private void error(Element element, String message) {
+        failed = true;
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,41 @@
+package com.healthcare.pms.mapper.processor;
+
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO annotated with {@code @FhirMapping} and its mapped properties in declaration order.
+ */
+final class MappedDto {
+
+    final TypeElement type;
+    final String mapper;
+    final boolean summary;
+    // Resource class name relative to the R4 model package, e.g. Patient
+    final String resource;
+    // Qualified hooks class name, null when there is none
+    final String hooks;
+    final boolean writeHook;
+    final boolean readHook;
+    final List<MappedProperty> properties = new ArrayList<>();
+
+    MappedDto(TypeElement type, String mapper, boolean summary, String resource,
+              String hooks, boolean writeHook, boolean readHook) {
+        this.type = type;
+        this.mapper = mapper;
+        this.summary = summary;
+        this.resource = resource;
+        this.hooks = hooks;
+        this.writeHook = writeHook;
+        this.readHook = readHook;
+    }
+
+    String qualifiedName() {
+        return type.getQualifiedName().toString();
+    }
+
+    String simpleName() {
+        return type.getSimpleName().toString();
+    }
+}
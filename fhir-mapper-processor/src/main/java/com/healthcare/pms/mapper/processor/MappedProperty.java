@@ -0,0 +1,85 @@
+package com.healthcare.pms.mapper.processor;
+
+/**
+ * One annotated DTO field or getter, with everything its mapping annotation said about it.
+ */
+final class MappedProperty {
+
+    enum Kind {
+        ID,
+        VERSION,
+        NAME,
+        TELECOM,
+        ADDRESS,
+        EXTENSION,
+        CODING,
+        TEXT,
+        IDENTIFIER,
+        ELEMENT,
+        CODE
+    }
+
+    final Kind kind;
+    final String getter;
+    // Null for a getter-only property, which is written but never read
+    final String setter;
+    // Qualified Java type, e.g. java.lang.String
+    final String type;
+
+    // Element name for codings, texts, elements and codes
+    String element = "";
+    // Coding or identifier system, telecom system code, or extension URL
+    String system = "";
+    // Name or address part
+    String part = "";
+    String prefix = "";
+    String use = "";
+    String component = "";
+    String codeCase = "";
+    String ifNull = "";
+    String enumType = "";
+    String fallback = "";
+    boolean readCode;
+    boolean repeating;
+
+    MappedProperty(Kind kind, String getter, String setter, String type) {
+        this.kind = kind;
+        this.getter = getter;
+        this.setter = setter;
+        this.type = type;
+    }
+
+    boolean inComponent() {
+        return !component.isEmpty();
+    }
+
+    // What the generated code groups this property with: one name, one address, one extension
+    // table and one instance of each component per resource
+    String group() {
+        if (inComponent()) {
+            return "component:" + component;
+        }
+        return switch (kind) {
+            case NAME -> "name";
+            case ADDRESS -> "address";
+            case EXTENSION -> "extension";
+            default -> null;
+        };
+    }
+
+    // The resource element this property reads, for the summary's _elements list
+    String topLevelElement() {
+        if (inComponent()) {
+            return component;
+        }
+        return switch (kind) {
+            case ID, VERSION -> null;
+            case NAME -> "name";
+            case TELECOM -> "telecom";
+            case ADDRESS -> "address";
+            case EXTENSION -> "extension";
+            case IDENTIFIER -> "identifier";
+            default -> element;
+        };
+    }
+}
@@ -0,0 +1,685 @@
+package com.healthcare.pms.mapper.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the Java source of one mapper from its full DTO, its summary DTO, or both.
+ *
+ * The generated code reads like a hand-written mapper: the DTO's properties in declaration order,
+ * with the parts of one name, one address, the extensions and each component kept together.
+ * Datatype conversions go through FhirElements and extensions through an ExtensionCodec table.
+ */
+final class MapperWriter {
+
+    // Where FhirElements and ExtensionCodec live
+    private static final String RUNTIME_PACKAGE = "com.healthcare.pms.mapper";
+
+    private final String packageName;
+    private final String simpleName;
+    private final MappedDto full;
+    private final MappedDto summary;
+    private final String resource;
+    private final String resourceVar;
+
+    private final StringBuilder out = new StringBuilder();
+    private int indent;
+    // Whether the next statement block needs a blank line before it
+    private boolean separate;
+
+    MapperWriter(String mapper, MappedDto full, MappedDto summary) {
+        int dot = mapper.lastIndexOf('.');
+        this.packageName = dot < 0 ? "" : mapper.substring(0, dot);
+        this.simpleName = mapper.substring(dot + 1);
+        this.full = full;
+        this.summary = summary;
+        this.resource = full != null ? full.resource : summary.resource;
+        String shortName = resource.substring(resource.lastIndexOf('.') + 1);
+        this.resourceVar = Character.toLowerCase(shortName.charAt(0)) + shortName.substring(1);
+    }
+
+    String write() {
+        writeHeader();
+
+        open("public class " + simpleName);
+
+        if (summary != null) {
+            line("// Elements the summary reads; list searches ask the server for only these");
+            line("public static final String[] SUMMARY_ELEMENTS = {" + summaryElements() + "};");
+            blank();
+        }
+        if (full != null && hasExtensions(full)) {
+            writeCodec("EXTENSIONS", full);
+        }
+        if (summary != null && hasExtensions(summary)) {
+            writeCodec("SUMMARY_EXTENSIONS", summary);
+        }
+
+        if (full != null) {
+            writeToFhirResource();
+            blank();
+            writeRead("toDTO", full, "dto", "EXTENSIONS");
+        }
+        if (summary != null) {
+            if (full != null) {
+                blank();
+            }
+            writeRead("toSummary", summary, "summary", "SUMMARY_EXTENSIONS");
+            blank();
+            writeReadJson();
+        }
+
+        close();
+        return out.toString();
+    }
+
+    private void writeHeader() {
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            blank();
+        }
+
+        Set<String> imports = new TreeSet<>();
+        if (summary != null) {
+            imports.add("com.fasterxml.jackson.databind.JsonNode");
+        }
+        for (MappedDto dto : dtos()) {
+            imports.add(dto.qualifiedName());
+            if (dto.hooks != null) {
+                imports.add(dto.hooks);
+            }
+        }
+        if (!packageName.equals(RUNTIME_PACKAGE)) {
+            imports.add(RUNTIME_PACKAGE + ".ExtensionCodec");
+            imports.add(RUNTIME_PACKAGE + ".FhirElements");
+        }
+        imports.add(FhirMappingProcessor.MODEL_PACKAGE + ".*");
+        imports.add("org.springframework.stereotype.Component");
+        imports.removeIf(name -> name.substring(0, name.lastIndexOf('.')).equals(packageName));
+        for (String name : imports) {
+            line("import " + name + ";");
+        }
+        blank();
+
+        if (summary != null && hasJoinedGiven(summary)) {
+            line("import java.util.StringJoiner;");
+        }
+        line("import javax.annotation.processing.Generated;");
+        blank();
+
+        String dtoLinks = dtos().stream()
+                .map(dto -> "{@link " + dto.simpleName() + "}")
+                .collect(Collectors.joining(" and "));
+        line("/**");
+        line(" * Maps " + dtoLinks + " to and from {@link " + resource + "}.");
+        line(" *");
+        line(" * Generated from the FHIR mapping annotations on " + (dtos().size() > 1 ? "those DTOs" : "that DTO")
+                + "; change them rather than this class.");
+        line(" */");
+        line("@Generated(\"" + FhirMappingProcessor.class.getName() + "\")");
+        line("@Component");
+    }
+
+    private void writeCodec(String name, MappedDto dto) {
+        String type = dto.simpleName();
+        line("private static final ExtensionCodec<" + type + "> " + name + " = ExtensionCodec.<" + type + ">builder()");
+        indent += 2;
+        for (MappedProperty property : dto.properties) {
+            if (property.kind == MappedProperty.Kind.EXTENSION) {
+                String method = property.type.equals("java.lang.Integer") ? "integer" : "string";
+                line("." + method + "(" + literal(property.system) + ", " + type + "::" + property.getter
+                        + ", " + type + "::" + property.setter + ")");
+            }
+        }
+        line(".build();");
+        indent -= 2;
+        blank();
+    }
+
+    // --- DTO to resource ---
+
+    private void writeToFhirResource() {
+        open("public " + resource + " toFhirResource(" + full.simpleName() + " dto)");
+        line(resource + " " + resourceVar + " = new " + resource + "();");
+        separate = true;
+
+        for (List<MappedProperty> group : groups(full)) {
+            MappedProperty first = group.get(0);
+            if (first.inComponent()) {
+                writeComponent(group);
+            } else if (first.kind == MappedProperty.Kind.NAME) {
+                writeName(group);
+            } else if (first.kind == MappedProperty.Kind.ADDRESS) {
+                writeAddress(group);
+            } else if (first.kind == MappedProperty.Kind.EXTENSION) {
+                block();
+                line("EXTENSIONS.write(dto, " + resourceVar + ");");
+            } else {
+                writeProperty(first, resourceVar);
+            }
+        }
+
+        if (full.writeHook) {
+            block();
+            line(simple(full.hooks) + ".write(dto, " + resourceVar + ");");
+        }
+
+        blank();
+        line("return " + resourceVar + ";");
+        close();
+    }
+
+    private void writeName(List<MappedProperty> parts) {
+        block();
+        line("HumanName name = FhirElements.name(" + valueOf(parts, "GIVEN") + ", " + valueOf(parts, "FAMILY") + ");");
+        for (MappedProperty part : parts) {
+            if (!part.prefix.isEmpty()) {
+                line("name.addPrefix(" + literal(part.prefix) + ");");
+                break;
+            }
+        }
+        String text = valueOf(parts, "TEXT");
+        if (!text.equals("null")) {
+            line("name.setText(" + text + ");");
+        }
+        line(resourceVar + ".addName(name);");
+    }
+
+    private void writeAddress(List<MappedProperty> parts) {
+        String line = valueOf(parts, "LINE");
+        String condition = !line.equals("null") ? line + " != null"
+                : parts.stream().map(part -> value(part) + " != null").collect(Collectors.joining(" || "));
+        block();
+        open("if (" + condition + ")");
+        line(resourceVar + ".addAddress(FhirElements.address(" + line + ", " + valueOf(parts, "CITY") + ", "
+                + valueOf(parts, "STATE") + ", " + valueOf(parts, "POSTAL_CODE") + "));");
+        close();
+    }
+
+    private void writeComponent(List<MappedProperty> members) {
+        String component = members.get(0).component;
+        block();
+        open("if (" + members.stream().map(member -> value(member) + " != null").collect(Collectors.joining(" || ")) + ")");
+        line("var " + component + " = " + resourceVar + ".add" + capitalize(component) + "();");
+        for (MappedProperty member : members) {
+            separate = false;
+            if (member.kind == MappedProperty.Kind.NAME) {
+                open("if (" + value(member) + " != null)");
+                line(component + ".setName(new HumanName().setText(" + value(member) + "));");
+                close();
+            } else {
+                writeProperty(member, component);
+            }
+        }
+        close();
+    }
+
+    private void writeProperty(MappedProperty property, String target) {
+        String value = value(property);
+        switch (property.kind) {
+            case ID -> {
+                block();
+                open("if (" + value + " != null && !" + value + ".isEmpty())");
+                line(target + ".setId(" + value + ");");
+                close();
+            }
+            case VERSION -> {
+                // The server assigns versions
+            }
+            case TELECOM -> {
+                block();
+                open("if (" + value + " != null && !" + value + ".isEmpty())");
+                String contactPoint = "FhirElements.contactPoint(ContactPoint.ContactPointSystem."
+                        + property.system.toUpperCase() + ", " + value + ")";
+                if (property.use.isEmpty()) {
+                    line(target + ".addTelecom(" + contactPoint + ");");
+                } else {
+                    line(target + ".addTelecom(" + contactPoint);
+                    line("        .setUse(ContactPoint.ContactPointUse." + property.use.toUpperCase() + "));");
+                }
+                close();
+            }
+            case CODING -> {
+                String code = property.codeCase.equals("UPPER")
+                        ? value + ".toUpperCase()"
+                        : value + ".toLowerCase().replace(\" \", \"-\")";
+                block();
+                open("if (" + value + " != null)");
+                line(target + "." + (property.repeating ? "add" : "set") + capitalize(property.element)
+                        + "(FhirElements.coding(" + literal(property.system) + ", " + code + ", " + value + "));");
+                close();
+            }
+            case TEXT -> {
+                block();
+                open("if (" + value + " != null)");
+                line(target + "." + (property.repeating ? "add" : "set") + capitalize(property.element)
+                        + "(FhirElements.text(" + value + "));");
+                close();
+            }
+            case IDENTIFIER -> {
+                block();
+                open("if (" + value + " != null)");
+                line(target + ".addIdentifier().setSystem(" + literal(property.system) + ").setValue(" + value + ");");
+                close();
+            }
+            case ELEMENT -> {
+                String setter = target + ".set" + capitalize(property.element);
+                block();
+                if (!property.ifNull.isEmpty()) {
+                    line(setter + "(" + value + " != null ? " + value + " : " + property.ifNull + ");");
+                } else {
+                    String converted = property.type.equals("java.time.LocalDate")
+                            ? "FhirElements.toDate(" + value + ")" : value;
+                    open("if (" + value + " != null)");
+                    line(setter + "(" + converted + ");");
+                    close();
+                }
+            }
+            case CODE -> {
+                String code = value + ".toLowerCase()";
+                String converted = property.fallback.isEmpty()
+                        ? property.enumType + ".fromCode(" + code + ")"
+                        : "FhirElements.code(" + property.enumType + "::fromCode, " + code + ", "
+                                + property.enumType + "." + property.fallback + ")";
+                block();
+                open("if (" + value + " != null)");
+                line(target + ".set" + capitalize(property.element) + "(" + converted + ");");
+                close();
+            }
+            default -> throw new IllegalStateException("Grouped property written alone: " + property.kind);
+        }
+    }
+
+    // --- Resource to DTO ---
+
+    private void writeRead(String method, MappedDto dto, String dtoVar, String codec) {
+        open("public " + dto.simpleName() + " " + method + "(" + resource + " " + resourceVar + ")");
+        line(dto.simpleName() + " " + dtoVar + " = new " + dto.simpleName() + "();");
+        separate = true;
+
+        for (List<MappedProperty> group : groups(dto)) {
+            MappedProperty first = group.get(0);
+            if (first.inComponent()) {
+                readComponent(group, dtoVar);
+            } else if (first.kind == MappedProperty.Kind.NAME) {
+                readName(group, dtoVar);
+            } else if (first.kind == MappedProperty.Kind.ADDRESS) {
+                readAddress(group, dtoVar);
+            } else if (first.kind == MappedProperty.Kind.EXTENSION) {
+                block();
+                line(codec + ".read(" + resourceVar + ", " + dtoVar + ");");
+            } else if (first.setter != null) {
+                readProperty(first, resourceVar, dtoVar);
+            }
+        }
+
+        if (dto.readHook) {
+            block();
+            line(simple(dto.hooks) + ".read(" + resourceVar + ", " + dtoVar + ");");
+        }
+
+        blank();
+        line("return " + dtoVar + ";");
+        close();
+    }
+
+    private void readName(List<MappedProperty> parts, String dtoVar) {
+        List<MappedProperty> readable = readable(parts);
+        if (readable.isEmpty()) {
+            return;
+        }
+        block();
+        open("if (" + resourceVar + ".hasName())");
+        line("HumanName name = " + resourceVar + ".getNameFirstRep();");
+        for (MappedProperty part : readable) {
+            switch (part.part) {
+                case "FAMILY" -> line(set(dtoVar, part, "name.getFamily()"));
+                case "TEXT" -> line(set(dtoVar, part, "name.getText()"));
+                default -> {
+                    open("if (name.hasGiven())");
+                    line(set(dtoVar, part, "name.getGivenAsSingleString()"));
+                    close();
+                }
+            }
+        }
+        close();
+    }
+
+    private void readAddress(List<MappedProperty> parts, String dtoVar) {
+        block();
+        open("if (" + resourceVar + ".hasAddress())");
+        line("Address address = " + resourceVar + ".getAddressFirstRep();");
+        for (MappedProperty part : readable(parts)) {
+            String value = switch (part.part) {
+                case "LINE" -> "FhirElements.firstLine(address)";
+                case "CITY" -> "address.getCity()";
+                case "STATE" -> "address.getState()";
+                default -> "address.getPostalCode()";
+            };
+            line(set(dtoVar, part, value));
+        }
+        close();
+    }
+
+    private void readComponent(List<MappedProperty> members, String dtoVar) {
+        List<MappedProperty> readable = readable(members);
+        if (readable.isEmpty()) {
+            return;
+        }
+        String component = members.get(0).component;
+        block();
+        open("if (" + resourceVar + ".has" + capitalize(component) + "())");
+        line("var " + component + " = " + resourceVar + ".get" + capitalize(component) + "FirstRep();");
+        for (MappedProperty member : readable) {
+            separate = false;
+            if (member.kind == MappedProperty.Kind.NAME) {
+                open("if (" + component + ".hasName())");
+                line(set(dtoVar, member, component + ".getName().getText()"));
+                close();
+            } else {
+                readProperty(member, component, dtoVar);
+            }
+        }
+        close();
+    }
+
+    private void readProperty(MappedProperty property, String source, String dtoVar) {
+        switch (property.kind) {
+            case ID -> {
+                block();
+                line(set(dtoVar, property, source + ".getIdElement().getIdPart()"));
+            }
+            case VERSION -> {
+                // Set in the id when read from the server, otherwise only in meta
+                block();
+                line(dtoVar + "." + property.setter + "(" + source + ".getIdElement().hasVersionIdPart()");
+                line("        ? " + source + ".getIdElement().getVersionIdPart()");
+                line("        : " + source + ".getMeta().getVersionId());");
+            }
+            case TELECOM -> {
+                block();
+                line(set(dtoVar, property, "FhirElements.telecom(" + source + ".getTelecom(), ContactPoint.ContactPointSystem."
+                        + property.system.toUpperCase() + ")"));
+            }
+            case CODING -> {
+                String element = capitalize(property.element);
+                block();
+                open("if (" + source + ".has" + element + "())");
+                line(set(dtoVar, property, source + ".get" + element + (property.repeating ? "FirstRep" : "")
+                        + "().getCodingFirstRep().get" + (property.readCode ? "Code" : "Display") + "()"));
+                close();
+            }
+            case TEXT -> {
+                String element = capitalize(property.element);
+                block();
+                open("if (" + source + ".has" + element + "())");
+                line(set(dtoVar, property, source + ".get" + element + (property.repeating ? "FirstRep" : "") + "().getText()"));
+                close();
+            }
+            case IDENTIFIER -> {
+                block();
+                open("for (Identifier identifier : " + source + ".getIdentifier())");
+                open("if (" + literal(property.system) + ".equals(identifier.getSystem()))");
+                line(set(dtoVar, property, "identifier.getValue()"));
+                close();
+                close();
+            }
+            case ELEMENT -> {
+                String element = capitalize(property.element);
+                block();
+                if (property.type.equals("java.lang.Boolean")) {
+                    // HAPI reads an absent boolean as false
+                    line(set(dtoVar, property, source + ".get" + element + "()"));
+                } else {
+                    String value = source + ".get" + element + "()";
+                    if (property.type.equals("java.time.LocalDate")) {
+                        value = "FhirElements.toLocalDate(" + value + ")";
+                    }
+                    open("if (" + source + ".has" + element + "())");
+                    line(set(dtoVar, property, value));
+                    close();
+                }
+            }
+            case CODE -> {
+                String element = capitalize(property.element);
+                block();
+                open("if (" + source + ".has" + element + "())");
+                line(set(dtoVar, property, source + ".get" + element + "().toCode()"));
+                close();
+            }
+            default -> throw new IllegalStateException("Grouped property read alone: " + property.kind);
+        }
+    }
+
+    // --- Search JSON to summary ---
+
+    private void writeReadJson() {
+        line("/**");
+        line(" * Same as {@link #toSummary(" + resource + ")} for a search entry read straight from the response JSON.");
+        line(" */");
+        open("public " + summary.simpleName() + " toSummary(JsonNode " + resourceVar + ")");
+        line(summary.simpleName() + " summary = new " + summary.simpleName() + "();");
+        separate = true;
+
+        for (List<MappedProperty> group : groups(summary)) {
+            List<MappedProperty> readable = readable(group);
+            if (readable.isEmpty()) {
+                continue;
+            }
+            MappedProperty first = group.get(0);
+            if (first.inComponent()) {
+                String component = first.component;
+                block();
+                line("JsonNode " + component + " = " + resourceVar + ".path(" + literal(component) + ").path(0);");
+                for (MappedProperty member : readable) {
+                    if (member.kind == MappedProperty.Kind.NAME) {
+                        line(set("summary", member, component + ".path(\"name\").path(\"text\").asText(null)"));
+                    } else {
+                        readJsonProperty(member, component);
+                    }
+                }
+            } else if (first.kind == MappedProperty.Kind.NAME) {
+                readJsonName(readable);
+            } else if (first.kind == MappedProperty.Kind.ADDRESS) {
+                block();
+                line("JsonNode address = " + resourceVar + ".path(\"address\").path(0);");
+                for (MappedProperty part : readable) {
+                    String value = switch (part.part) {
+                        case "LINE" -> "address.path(\"line\").path(0)";
+                        case "CITY" -> "address.path(\"city\")";
+                        case "STATE" -> "address.path(\"state\")";
+                        default -> "address.path(\"postalCode\")";
+                    };
+                    line(set("summary", part, value + ".asText(null)"));
+                }
+            } else if (first.kind == MappedProperty.Kind.EXTENSION) {
+                block();
+                line("SUMMARY_EXTENSIONS.readJson(" + resourceVar + ", summary);");
+            } else {
+                block();
+                readJsonProperty(first, resourceVar);
+            }
+        }
+
+        blank();
+        line("return summary;");
+        close();
+    }
+
+    private void readJsonName(List<MappedProperty> parts) {
+        block();
+        line("JsonNode name = " + resourceVar + ".path(\"name\").path(0);");
+        for (MappedProperty part : parts) {
+            switch (part.part) {
+                case "FAMILY" -> line(set("summary", part, "name.path(\"family\").asText(null)"));
+                case "TEXT" -> line(set("summary", part, "name.path(\"text\").asText(null)"));
+                default -> {
+                    open("if (name.has(\"given\"))");
+                    line("StringJoiner given = new StringJoiner(\" \");");
+                    line("name.get(\"given\").forEach(part -> given.add(part.asText()));");
+                    line(set("summary", part, "given.toString()"));
+                    close();
+                }
+            }
+        }
+    }
+
+    private void readJsonProperty(MappedProperty property, String node) {
+        String element = literal(property.element);
+        switch (property.kind) {
+            case ID -> line(set("summary", property, node + ".path(\"id\").asText(null)"));
+            case VERSION -> line(set("summary", property, node + ".path(\"meta\").path(\"versionId\").asText(null)"));
+            case TELECOM -> {
+                open("for (JsonNode telecom : " + node + ".path(\"telecom\"))");
+                open("if (" + literal(property.system) + ".equals(telecom.path(\"system\").asText()))");
+                line(set("summary", property, "telecom.path(\"value\").asText(null)"));
+                close();
+                close();
+            }
+            case CODING -> line(set("summary", property, node + ".path(" + element + ")"
+                    + (property.repeating ? ".path(0)" : "") + ".path(\"coding\").path(0).path("
+                    + (property.readCode ? "\"code\"" : "\"display\"") + ").asText(null)"));
+            case TEXT -> line(set("summary", property, node + ".path(" + element + ")"
+                    + (property.repeating ? ".path(0)" : "") + ".path(\"text\").asText(null)"));
+            case IDENTIFIER -> {
+                open("for (JsonNode identifier : " + node + ".path(\"identifier\"))");
+                open("if (" + literal(property.system) + ".equals(identifier.path(\"system\").asText()))");
+                line(set("summary", property, "identifier.path(\"value\").asText(null)"));
+                close();
+                close();
+            }
+            case ELEMENT -> {
+                String path = node + ".path(" + element + ")";
+                switch (property.type) {
+                    case "java.lang.Boolean" -> line(set("summary", property, path + ".asBoolean(false)"));
+                    case "java.time.LocalDate" -> line(set("summary", property,
+                            "FhirElements.parseDate(" + path + ".asText(null))"));
+                    case "java.lang.Integer" -> {
+                        open("if (" + path + ".isInt())");
+                        line(set("summary", property, path + ".intValue()"));
+                        close();
+                    }
+                    default -> line(set("summary", property, path + ".asText(null)"));
+                }
+            }
+            case CODE -> line(set("summary", property, node + ".path(" + element + ").asText(null)"));
+            default -> throw new IllegalStateException("Grouped property read alone: " + property.kind);
+        }
+    }
+
+    // --- Helpers ---
+
+    private List<MappedDto> dtos() {
+        List<MappedDto> dtos = new ArrayList<>();
+        if (full != null) {
+            dtos.add(full);
+        }
+        if (summary != null) {
+            dtos.add(summary);
+        }
+        return dtos;
+    }
+
+    // Properties in declaration order, those sharing a group gathered at the first one's place
+    private List<List<MappedProperty>> groups(MappedDto dto) {
+        Map<Object, List<MappedProperty>> groups = new LinkedHashMap<>();
+        for (MappedProperty property : dto.properties) {
+            Object key = property.group() != null ? property.group() : property;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(property);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private String summaryElements() {
+        Set<String> elements = new LinkedHashSet<>();
+        for (MappedProperty property : summary.properties) {
+            if (property.setter != null && property.topLevelElement() != null) {
+                elements.add(property.topLevelElement());
+            }
+        }
+        return elements.stream().map(this::literal).collect(Collectors.joining(", "));
+    }
+
+    private static boolean hasExtensions(MappedDto dto) {
+        return dto.properties.stream().anyMatch(property -> property.kind == MappedProperty.Kind.EXTENSION);
+    }
+
+    private static boolean hasJoinedGiven(MappedDto dto) {
+        return dto.properties.stream().anyMatch(property -> property.kind == MappedProperty.Kind.NAME
+                && !property.inComponent() && property.part.equals("GIVEN") && property.setter != null);
+    }
+
+    private static List<MappedProperty> readable(List<MappedProperty> properties) {
+        return properties.stream().filter(property -> property.setter != null).toList();
+    }
+
+    // The DTO value of the named part, or null when no property maps it
+    private static String valueOf(List<MappedProperty> parts, String part) {
+        return parts.stream()
+                .filter(property -> property.part.equals(part))
+                .map(MapperWriter::value)
+                .findFirst()
+                .orElse("null");
+    }
+
+    private static String value(MappedProperty property) {
+        return "dto." + property.getter + "()";
+    }
+
+    private static String set(String dtoVar, MappedProperty property, String value) {
+        return dtoVar + "." + property.setter + "(" + value + ");";
+    }
+
+    private String simple(String qualifiedName) {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                default -> literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    // Starts a statement block, a blank line after the one before it
+    private void block() {
+        if (separate) {
+            blank();
+        }
+        separate = true;
+    }
+
+    private void open(String statement) {
+        line(statement + " {");
+        indent++;
+    }
+
+    private void close() {
+        indent--;
+        line("}");
+    }
+
+    private void line(String text) {
+        out.append("    ".repeat(indent)).append(text).append('\n');
+    }
+
+    private void blank() {
+        out.append('\n');
+    }
+}
@@ -0,0 +1,195 @@
+package com.healthcare.pms.mapper.processor;
+
+import com.healthcare.pms.mapper.annotation.FhirMapping;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FhirMappingProcessorTest {
+
+    // Just enough of the R4 model for the annotations to resolve
+    private static final Map<String, String> MODEL = Map.of(
+            "org/hl7/fhir/r4/model/Patient.java",
+            "package org.hl7.fhir.r4.model; public class Patient {}",
+            "org/hl7/fhir/r4/model/Enumerations.java",
+            "package org.hl7.fhir.r4.model; public class Enumerations {"
+                    + " public enum AdministrativeGender { MALE, FEMALE, OTHER, UNKNOWN } }");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void generatesOneMapperForAFullAndASummaryDto() throws IOException {
+        Result result = compile(Map.of(
+                "demo/PatientDTO.java", """
+                        package demo;
+                        import com.healthcare.pms.mapper.annotation.*;
+                        import org.hl7.fhir.r4.model.*;
+                        @FhirMapping(resource = Patient.class, mapper = "demo.PatientMapper")
+                        public class PatientDTO {
+                            @FhirId private String id;
+                            @FhirVersion private String version;
+                            @FhirName(FhirName.Part.GIVEN) private String firstName;
+                            @FhirName(FhirName.Part.FAMILY) private String lastName;
+                            @FhirCode(value = "gender", type = Enumerations.AdministrativeGender.class, fallback = "UNKNOWN")
+                            private String gender;
+                            @FhirTelecom(value = "phone", use = "mobile") private String phone;
+                            @FhirExtension("http://example.org/blood-group") private String bloodGroup;
+                            @FhirElement(value = "active", ifNull = "true") private Boolean active;
+                        }
+                        """,
+                "demo/PatientSummaryDTO.java", """
+                        package demo;
+                        import com.healthcare.pms.mapper.annotation.*;
+                        import org.hl7.fhir.r4.model.*;
+                        @FhirMapping(resource = Patient.class, mapper = "demo.PatientMapper", summary = true)
+                        public class PatientSummaryDTO {
+                            @FhirId private String id;
+                            @FhirName(FhirName.Part.FAMILY) private String lastName;
+                            @FhirTelecom("phone") private String phone;
+                            @FhirElement("active") private Boolean active;
+                        }
+                        """));
+
+        assertThat(result.errors()).isEmpty();
+        String mapper = result.generated("demo/PatientMapper.java");
+        assertThat(mapper)
+                .contains("public class PatientMapper {")
+                .contains("public static final String[] SUMMARY_ELEMENTS = {\"name\", \"telecom\", \"active\"};")
+                .contains(".string(\"http://example.org/blood-group\", PatientDTO::getBloodGroup, PatientDTO::setBloodGroup)")
+                .contains("HumanName name = FhirElements.name(dto.getFirstName(), dto.getLastName());")
+                .contains("patient.setGender(FhirElements.code(Enumerations.AdministrativeGender::fromCode, "
+                        + "dto.getGender().toLowerCase(), Enumerations.AdministrativeGender.UNKNOWN));")
+                .contains(".setUse(ContactPoint.ContactPointUse.MOBILE)")
+                .contains("patient.setActive(dto.getActive() != null ? dto.getActive() : true);")
+                .contains(": patient.getMeta().getVersionId());")
+                .contains("public PatientDTO toDTO(Patient patient) {")
+                .contains("public PatientSummaryDTO toSummary(Patient patient) {")
+                .contains("public PatientSummaryDTO toSummary(JsonNode patient) {");
+    }
+
+    @Test
+    void callsTheHooksAfterTheGeneratedMapping() throws IOException {
+        Result result = compile(Map.of(
+                "demo/PatientDTO.java", """
+                        package demo;
+                        import com.healthcare.pms.mapper.annotation.*;
+                        import org.hl7.fhir.r4.model.*;
+                        @FhirMapping(resource = Patient.class, mapper = "demo.PatientMapper", hooks = PatientHooks.class)
+                        public class PatientDTO {
+                            @FhirId private String id;
+                        }
+                        """,
+                "demo/PatientHooks.java", """
+                        package demo;
+                        import org.hl7.fhir.r4.model.Patient;
+                        public final class PatientHooks {
+                            public static void write(PatientDTO dto, Patient patient) {
+                            }
+                        }
+                        """));
+
+        assertThat(result.errors()).isEmpty();
+        String mapper = result.generated("demo/PatientMapper.java");
+        assertThat(mapper).contains("PatientHooks.write(dto, patient);");
+        assertThat(mapper).doesNotContain("PatientHooks.read");
+    }
+
+    @Test
+    void reportsMisusedAnnotationsAgainstTheirFieldsAndGeneratesNothing() throws IOException {
+        Result result = compile(Map.of(
+                "demo/PatientDTO.java", """
+                        package demo;
+                        import com.healthcare.pms.mapper.annotation.*;
+                        import org.hl7.fhir.r4.model.*;
+                        @FhirMapping(resource = Patient.class, mapper = "demo.PatientMapper")
+                        public class PatientDTO {
+                            @FhirTelecom("beeper") private String pager;
+                            @FhirId @FhirVersion private String id;
+                            @FhirExtension("http://example.org/visits") private java.time.LocalDate visits;
+                            @FhirCode(value = "gender", type = Enumerations.AdministrativeGender.class, fallback = "NONE")
+                            private String gender;
+                        }
+                        """));
+
+        assertThat(result.errors()).containsExactlyInAnyOrder(
+                "unknown contact point system 'beeper'",
+                "a property takes one FHIR mapping annotation",
+                "cannot map a java.time.LocalDate here; expected one of java.lang.String, java.lang.Integer",
+                "AdministrativeGender has no constant NONE");
+        assertThat(Files.exists(dir.resolve("generated/demo/PatientMapper.java"))).isFalse();
+    }
+
+    @Test
+    void rejectsHooksWithoutAWriteOrRead() throws IOException {
+        Result result = compile(Map.of(
+                "demo/PatientDTO.java", """
+                        package demo;
+                        import com.healthcare.pms.mapper.annotation.*;
+                        import org.hl7.fhir.r4.model.*;
+                        @FhirMapping(resource = Patient.class, mapper = "demo.PatientMapper", hooks = PatientDTO.class)
+                        public class PatientDTO {
+                            @FhirId private String id;
+                        }
+                        """));
+
+        assertThat(result.errors())
+                .containsExactly("demo.PatientDTO has neither a static write(dto, resource) nor a static read(resource, dto)");
+    }
+
+    // Runs only the processor over the sources, against the annotations on the test classpath
+    private Result compile(Map<String, String> sources) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Map<String, String> all = new HashMap<>(MODEL);
+        all.putAll(sources);
+        for (Map.Entry<String, String> source : all.entrySet()) {
+            Path file = dir.resolve("src").resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            files.add(file);
+        }
+        Path generated = Files.createDirectories(dir.resolve("generated"));
+        String annotations = Path.of(FhirMapping.class.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-proc:only", "-classpath", annotations, "-s", generated.toString()),
+                    null, fileManager.getJavaFileObjectsFromPaths(files));
+            task.setProcessors(List.of(new FhirMappingProcessor()));
+            task.call();
+        }
+
+        // The generated mapper's own references to the app's classes don't resolve here; only the
+        // processor's errors matter
+        List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .filter(diagnostic -> "compiler.err.proc.messager".equals(diagnostic.getCode()))
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toList();
+        return new Result(generated, errors);
+    }
+
+    private record Result(Path generatedDir, List<String> errors) {
+
+        String generated(String path) throws IOException {
+            return Files.readString(generatedDir.resolve(path));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.healthcare.pms.config;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.LenientErrorHandler;
+import ca.uhn.fhir.parser.StrictErrorHandler;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.AuditEvent;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.hl7.fhir.r4.model.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+@Slf4j
+public class FhirClientConfig {
+
+    // Resource types the application reads and writes; their models are scanned at startup
+    private static final List<Class<? extends Resource>> RESOURCE_TYPES = List.of(
+            Patient.class, Practitioner.class, Organization.class, Appointment.class, AuditEvent.class, Bundle.class);
+
+    @Value("${fhir.server.base-url}")
+    private String fhirServerBaseUrl;
+
+    @Value("${fhir.server.timeout:60000}")
+    private int timeout;
+
+    @Value("${fhir.client.server-validation:NEVER}")
+    private ServerValidationModeEnum serverValidation;
+
+    @Value("${fhir.parser.strict:false}")
+    private boolean strictParsing;
+
+    @Value("${fhir.context.prewarm:true}")
+    private boolean prewarm;
+
+    @Value("${fhir.client.pool-max-total:20}")
+    private int poolMaxTotal;
+
+    @Value("${fhir.client.pool-max-per-route:5}")
+    private int poolMaxPerRoute;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public FhirContext fhirContext() {
+        long started = System.currentTimeMillis();
+        FhirContext fhirContext = FhirContext.forR4();
+        long created = System.currentTimeMillis();
+
+        // Lenient parsing without a log line per unknown element, unless strict parsing is asked for
+        fhirContext.setParserErrorHandler(strictParsing ? new StrictErrorHandler() : new LenientErrorHandler(false));
+
+        long warmed = created;
+        if (prewarm) {
+            // Scan the models and run the parser once so the first request doesn't pay for it
+            IParser parser = fhirContext.newJsonParser();
+            for (Class<? extends Resource> type : RESOURCE_TYPES) {
+                fhirContext.getResourceDefinition(type);
+            }
+            parser.parseResource(Patient.class, parser.encodeResourceToString(new Patient().setActive(true)));
+            warmed = System.currentTimeMillis();
+        }
+
+        log.info("FHIR context ready: created in {} ms, pre-warmed in {} ms", created - started, warmed - created);
+        return fhirContext;
+    }
+
+    @Bean
+    public IGenericClient fhirClient(FhirContext fhirContext) {
+        fhirContext.getRestfulClientFactory().setSocketTimeout(timeout);
+        // NEVER skips the CapabilityStatement fetch before the first request; ONCE caches it per base URL
+        fhirContext.getRestfulClientFactory().setServerValidationMode(serverValidation);
+        // Bounds how many requests reach the server at once, however many threads are waiting
+        fhirContext.getRestfulClientFactory().setPoolMaxTotal(poolMaxTotal);
+        fhirContext.getRestfulClientFactory().setPoolMaxPerRoute(poolMaxPerRoute);
+        if (virtualThreads) {
+            log.info("Serving requests on virtual threads with up to {} FHIR connections; "
+                    + "run with -Djdk.tracePinnedThreads=short to report pinning", Math.min(poolMaxTotal, poolMaxPerRoute));
+        }
+
+        IGenericClient client = fhirContext.newRestfulGenericClient(fhirServerBaseUrl);
+        client.setEncoding(EncodingEnum.JSON);
+        client.setPrettyPrint(false);
+
+        // Add logging interceptor for debugging
+        LoggingInterceptor loggingInterceptor = new LoggingInterceptor();
+        loggingInterceptor.setLogRequestSummary(true);
+        loggingInterceptor.setLogResponseSummary(true);
+        client.registerInterceptor(loggingInterceptor);
+        client.registerInterceptor(new FirstRequestTimer());
+
+        return client;
+    }
+
+    // Logs how long the first request took, which includes any lazy setup left in the client
+    private static class FirstRequestTimer implements IClientInterceptor {
+
+        private final AtomicBoolean logged = new AtomicBoolean();
+
+        @Override
+        public void interceptRequest(IHttpRequest request) {
+        }
+
+        @Override
+        public void interceptResponse(IHttpResponse response) {
+            if (logged.compareAndSet(false, true)) {
+                log.info("First FHIR request took {} ms", response.getRequestStopWatch().getMillis());
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.healthcare.pms.controller;
 
 import com.healthcare.pms.dto.AppointmentDTO;
 import com.healthcare.pms.service.AppointmentService;
+import com.healthcare.pms.service.IdempotencyService;
 import com.healthcare.pms.service.PatientService;
 import com.healthcare.pms.service.PractitionerService;
 import jakarta.validation.Valid;
@@ -26,6 +27,7 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
     private final PatientService patientService;
     private final PractitionerService practitionerService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     public String listAppointments(@RequestParam(required = false) String patientId,
@@ -83,6 +85,7 @@ public class AppointmentController {
         
         model.addAttribute("appointment", appointment);
         model.addAttribute("mode", "create");
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
         
         // Load patients and practitioners for dropdowns
         try {
@@ -99,9 +102,12 @@ public class AppointmentController {
     public String createAppointment(@Valid @ModelAttribute("appointment") AppointmentDTO appointmentDTO,
                                    BindingResult bindingResult,
                                    RedirectAttributes redirectAttributes,
+                                   @RequestParam(required = false) String idempotencyKey,
+                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
                                    Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             try {
                 model.addAttribute("patients", patientService.getAllPatients());
                 model.addAttribute("practitioners", practitionerService.getAllPractitioners());
@@ -112,14 +118,25 @@ public class AppointmentController {
         }
 
         try {
-            AppointmentDTO created = appointmentService.createAppointment(appointmentDTO);
-            redirectAttributes.addFlashAttribute("successMessage", 
-                    "Appointment created successfully with ID: " + created.getId());
+            List<AppointmentDTO> createdList = idempotencyService.execute("appointment:create",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> appointmentDTO.isRecurring()
+                            ? appointmentService.createAppointmentSeries(appointmentDTO)
+                            : List.of(appointmentService.createAppointment(appointmentDTO)));
+            AppointmentDTO created = createdList.get(0);
+            if (createdList.size() > 1) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Appointment series created with " + createdList.size() + " appointments, first ID: " + created.getId());
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Appointment created successfully with ID: " + created.getId());
+            }
             return "redirect:/appointments/" + created.getId();
         } catch (Exception e) {
             log.error("Error creating appointment", e);
             model.addAttribute("errorMessage", "Error creating appointment: " + e.getMessage());
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             try {
                 model.addAttribute("patients", patientService.getAllPatients());
                 model.addAttribute("practitioners", practitionerService.getAllPractitioners());
@@ -202,13 +219,29 @@ public class AppointmentController {
     @PostMapping("/{id}/cancel")
     public String cancelAppointment(@PathVariable String id,
                                    @RequestParam(required = false) String reason,
+                                   @RequestParam(required = false) String version,
                                    RedirectAttributes redirectAttributes) {
         try {
-            appointmentService.cancelAppointment(id, reason);
+            appointmentService.cancelAppointment(id, reason, version);
             redirectAttributes.addFlashAttribute("successMessage", "Appointment cancelled successfully");
         } catch (Exception e) {
             log.error("Error cancelling appointment", e);
-            redirectAttributes.addFlashAttribute("errorMessage", "Error cancelling appointment");
+            redirectAttributes.addFlashAttribute("errorMessage", "Error cancelling appointment: " + e.getMessage());
+        }
+        return "redirect:/appointments/" + id;
+    }
+
+    @PostMapping("/{id}/status")
+    public String updateAppointmentStatus(@PathVariable String id,
+                                          @RequestParam String status,
+                                          @RequestParam(required = false) String version,
+                                          RedirectAttributes redirectAttributes) {
+        try {
+            appointmentService.updateStatus(id, status, version);
+            redirectAttributes.addFlashAttribute("successMessage", "Appointment status updated to " + status);
+        } catch (Exception e) {
+            log.error("Error updating appointment status", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error updating appointment status: " + e.getMessage());
         }
         return "redirect:/appointments/" + id;
     }
@@ -0,0 +1,105 @@
+package com.healthcare.pms.controller;
+
+import com.healthcare.pms.dto.AuditEventDTO;
+import com.healthcare.pms.dto.AuditRollupDTO;
+import com.healthcare.pms.service.AuditAnalyticsService;
+import com.healthcare.pms.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Controller
+@RequestMapping("/audit")
+@RequiredArgsConstructor
+@Slf4j
+public class AuditController {
+
+    private final AuditService auditService;
+    private final AuditAnalyticsService auditAnalyticsService;
+
+    @GetMapping
+    public String listAuditEvents(@RequestParam(required = false) String resourceType,
+                                  @RequestParam(required = false) String action,
+                                  Model model) {
+        List<AuditEventDTO> auditEvents;
+        
+        if (resourceType != null && !resourceType.isEmpty()) {
+            auditEvents = auditService.searchByResourceType(resourceType);
+            model.addAttribute("resourceType", resourceType);
+        } else if (action != null && !action.isEmpty()) {
+            auditEvents = auditService.searchByAction(action);
+            model.addAttribute("action", action);
+        } else {
+            auditEvents = auditService.getAllAuditEvents();
+        }
+        
+        model.addAttribute("auditEvents", auditEvents);
+        return "audit/list";
+    }
+
+    @GetMapping("/analytics")
+    public String auditAnalytics(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 @RequestParam(required = false) String action,
+                                 @RequestParam(required = false) String resourceType,
+                                 @RequestParam(required = false) String agent,
+                                 Model model, RedirectAttributes redirectAttributes) {
+        LocalDate today = LocalDate.now();
+        if (from == null) {
+            from = today.minusDays(auditAnalyticsService.getRetentionDays());
+        }
+        if (to == null) {
+            to = today;
+        }
+        if (from.isAfter(to)) {
+            redirectAttributes.addFlashAttribute("errorMessage", "The start date must not be after the end date");
+            return "redirect:/audit/analytics";
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
+
+        List<AuditRollupDTO> rollups = auditAnalyticsService.getHourlyCounts(start, end,
+                blankToNull(action), blankToNull(resourceType), blankToNull(agent));
+
+        model.addAttribute("rollups", rollups);
+        model.addAttribute("actionTotals", auditAnalyticsService.getTotals(start, end, "action"));
+        model.addAttribute("resourceTypeTotals", auditAnalyticsService.getTotals(start, end, "resourceType"));
+        model.addAttribute("agentTotals", auditAnalyticsService.getTotals(start, end, "agent"));
+        // The rollup store only knows about events since it was created; say so when the range starts earlier
+        LocalDateTime coveredSince = auditAnalyticsService.getCoveredSince();
+        model.addAttribute("coveredSince", coveredSince);
+        model.addAttribute("partialRange", start.isBefore(coveredSince));
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("action", action);
+        model.addAttribute("resourceType", resourceType);
+        model.addAttribute("agent", agent);
+        return "audit/analytics";
+    }
+
+    @GetMapping("/{id}")
+    public String viewAuditEvent(@PathVariable String id, Model model) {
+        try {
+            AuditEventDTO auditEvent = auditService.getAuditEventById(id);
+            model.addAttribute("auditEvent", auditEvent);
+            return "audit/view";
+        } catch (Exception e) {
+            log.error("Error fetching audit event", e);
+            model.addAttribute("errorMessage", "Audit event not found");
+            return "redirect:/audit";
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthcare.pms.controller;
+
+import com.healthcare.pms.dto.BulkOperationResultDTO;
+import com.healthcare.pms.service.BulkOperationService;
+import com.healthcare.pms.service.IdempotencyService;
+import com.healthcare.pms.service.PractitionerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@RequestMapping("/bulk")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOperationController {
+
+    private final BulkOperationService bulkOperationService;
+    private final PractitionerService practitionerService;
+    private final IdempotencyService idempotencyService;
+
+    @GetMapping
+    public String showBulkOperations(Model model) {
+        model.addAttribute("deletableTypes", BulkOperationService.DELETABLE_TYPES);
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
+        try {
+            model.addAttribute("practitioners", practitionerService.getAllPractitioners());
+        } catch (Exception e) {
+            log.warn("Could not load practitioners: {}", e.getMessage());
+        }
+        return "bulk/operations";
+    }
+
+    @PostMapping("/appointments/cancel")
+    public String cancelAppointments(@RequestParam(required = false) String ids,
+                                     @RequestParam(required = false) String practitionerId,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(required = false) String reason,
+                                     @RequestParam(required = false) String idempotencyKey,
+                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
+                                     RedirectAttributes redirectAttributes) {
+        try {
+            BulkOperationResultDTO result = idempotencyService.execute("bulk:cancel-appointments",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey), () -> {
+                        // Explicit ids win; otherwise select by practitioner and date range
+                        List<String> selected = BulkOperationService.parseIds(ids);
+                        if (selected.isEmpty() && practitionerId != null && !practitionerId.isEmpty() && from != null) {
+                            selected = bulkOperationService.findActiveAppointmentIds(practitionerId, from, to != null ? to : from);
+                        }
+                        return bulkOperationService.cancelAppointments(selected, reason);
+                    });
+            addResult(result, redirectAttributes);
+        } catch (Exception e) {
+            log.error("Error cancelling appointments in bulk", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error cancelling appointments: " + e.getMessage());
+        }
+        return "redirect:/bulk";
+    }
+
+    @PostMapping("/practitioners/deactivate")
+    public String deactivatePractitioners(@RequestParam(required = false) String ids,
+                                          @RequestParam(required = false) String specialization,
+                                          @RequestParam(required = false) String idempotencyKey,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
+                                          RedirectAttributes redirectAttributes) {
+        try {
+            BulkOperationResultDTO result = idempotencyService.execute("bulk:deactivate-practitioners",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey), () -> {
+                        List<String> selected = BulkOperationService.parseIds(ids);
+                        if (selected.isEmpty() && specialization != null && !specialization.isEmpty()) {
+                            selected = bulkOperationService.findPractitionerIdsBySpecialization(specialization);
+                        }
+                        return bulkOperationService.deactivatePractitioners(selected);
+                    });
+            addResult(result, redirectAttributes);
+        } catch (Exception e) {
+            log.error("Error deactivating practitioners in bulk", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error deactivating practitioners: " + e.getMessage());
+        }
+        return "redirect:/bulk";
+    }
+
+    @PostMapping("/delete")
+    public String deleteResources(@RequestParam String resourceType,
+                                  @RequestParam String ids,
+                                  @RequestParam(required = false) String idempotencyKey,
+                                  @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            BulkOperationResultDTO result = idempotencyService.execute("bulk:delete",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> bulkOperationService.deleteResources(resourceType, BulkOperationService.parseIds(ids)));
+            addResult(result, redirectAttributes);
+        } catch (Exception e) {
+            log.error("Error deleting resources in bulk", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error deleting " + resourceType + ": " + e.getMessage());
+        }
+        return "redirect:/bulk";
+    }
+
+    private void addResult(BulkOperationResultDTO result, RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("result", result);
+        if (result.getFailed() == 0) {
+            redirectAttributes.addFlashAttribute("successMessage",
+                    result.getOperation() + ": " + result.getSucceeded() + " succeeded");
+        } else {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    result.getOperation() + ": " + result.getSucceeded() + " succeeded, " + result.getFailed() + " failed");
+        }
+    }
+}
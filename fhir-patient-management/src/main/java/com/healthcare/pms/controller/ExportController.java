@@ -0,0 +1,107 @@
+package com.healthcare.pms.controller;
+
+import com.healthcare.pms.dto.BulkExportStatusDTO;
+import com.healthcare.pms.service.AuditService;
+import com.healthcare.pms.service.BulkExportService;
+import com.healthcare.pms.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+@Controller
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private final BulkExportService bulkExportService;
+    private final IdempotencyService idempotencyService;
+    private final AuditService auditService;
+
+    @GetMapping
+    public String listExports(Model model) {
+        model.addAttribute("jobs", bulkExportService.getJobs());
+        model.addAttribute("exportTypes", BulkExportService.EXPORT_TYPES);
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
+        return "export/list";
+    }
+
+    @PostMapping
+    public String startExport(@RequestParam(required = false) String idempotencyKey,
+                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
+                              RedirectAttributes redirectAttributes) {
+        try {
+            String jobId = idempotencyService.execute("export:start",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    bulkExportService::startExport);
+            redirectAttributes.addFlashAttribute("successMessage", "Export started: " + jobId);
+        } catch (Exception e) {
+            log.error("Error starting export", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error starting export: " + e.getMessage());
+        }
+        return "redirect:/export";
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public String resumeExport(@PathVariable String jobId, RedirectAttributes redirectAttributes) {
+        try {
+            bulkExportService.resumeExport(jobId);
+            redirectAttributes.addFlashAttribute("successMessage", "Export resumed: " + jobId);
+        } catch (Exception e) {
+            log.error("Error resuming export", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error resuming export: " + e.getMessage());
+        }
+        return "redirect:/export";
+    }
+
+    @GetMapping("/{jobId}/status")
+    @ResponseBody
+    public BulkExportStatusDTO exportStatus(@PathVariable String jobId) {
+        try {
+            return bulkExportService.getStatus(jobId);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @GetMapping("/{jobId}/files/{resourceType}")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String jobId, @PathVariable String resourceType) {
+        Path file;
+        long count;
+        try {
+            file = bulkExportService.getExportFile(jobId, resourceType);
+            count = bulkExportService.getStatus(jobId).getResourceCounts().get(resourceType);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+
+        // Every download is audited before it is served, and none is served unaudited
+        try {
+            auditService.createExportAuditEvent(resourceType,
+                    "Bulk export " + jobId + ": " + count + " " + resourceType + " resources downloaded");
+        } catch (Exception e) {
+            log.error("Could not audit download of {} export {}", resourceType, jobId, e);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The download could not be audited", e);
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(new FileSystemResource(file));
+    }
+}
@@ -1,15 +1,21 @@
 package com.healthcare.pms.controller;
 
+import com.healthcare.pms.service.DashboardStatsService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@RequiredArgsConstructor
 public class HomeController {
 
+    private final DashboardStatsService dashboardStatsService;
+
     @GetMapping("/")
     public String home(Model model) {
         model.addAttribute("pageTitle", "Dashboard");
+        model.addAttribute("stats", dashboardStatsService.getStats());
         return "index";
     }
 }
@@ -1,6 +1,8 @@
 package com.healthcare.pms.controller;
 
 import com.healthcare.pms.dto.OrganizationDTO;
+import com.healthcare.pms.dto.OrganizationSummaryDTO;
+import com.healthcare.pms.service.IdempotencyService;
 import com.healthcare.pms.service.OrganizationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,12 +22,13 @@ import java.util.List;
 public class OrganizationController {
 
     private final OrganizationService organizationService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     public String listOrganizations(@RequestParam(required = false) String search,
                                    @RequestParam(required = false) String type,
                                    Model model) {
-        List<OrganizationDTO> organizations;
+        List<OrganizationSummaryDTO> organizations;
         
         if (type != null && !type.isEmpty()) {
             organizations = organizationService.searchByType(type);
@@ -45,6 +48,7 @@ public class OrganizationController {
     public String showCreateForm(Model model) {
         model.addAttribute("organization", new OrganizationDTO());
         model.addAttribute("mode", "create");
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
         return "organizations/form";
     }
 
@@ -52,14 +56,19 @@ public class OrganizationController {
     public String createOrganization(@Valid @ModelAttribute("organization") OrganizationDTO organizationDTO,
                                     BindingResult bindingResult,
                                     RedirectAttributes redirectAttributes,
+                                    @RequestParam(required = false) String idempotencyKey,
+                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
                                     Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "organizations/form";
         }
 
         try {
-            OrganizationDTO created = organizationService.createOrganization(organizationDTO);
+            OrganizationDTO created = idempotencyService.execute("organization:create",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> organizationService.createOrganization(organizationDTO));
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Organization/Department created successfully with ID: " + created.getId());
             return "redirect:/organizations/" + created.getId();
@@ -67,6 +76,7 @@ public class OrganizationController {
             log.error("Error creating organization", e);
             model.addAttribute("errorMessage", "Error creating organization: " + e.getMessage());
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "organizations/form";
         }
     }
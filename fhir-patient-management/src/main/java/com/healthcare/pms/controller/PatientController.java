@@ -1,6 +1,9 @@
 package com.healthcare.pms.controller;
 
 import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PatientSummaryDTO;
+import com.healthcare.pms.service.DetailPageLoader;
+import com.healthcare.pms.service.IdempotencyService;
 import com.healthcare.pms.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,10 +23,12 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final IdempotencyService idempotencyService;
+    private final DetailPageLoader detailPageLoader;
 
     @GetMapping
     public String listPatients(@RequestParam(required = false) String search, Model model) {
-        List<PatientDTO> patients;
+        List<PatientSummaryDTO> patients;
         
         if (search != null && !search.isEmpty()) {
             patients = patientService.searchPatientsByName(search);
@@ -40,6 +45,7 @@ public class PatientController {
     public String showCreateForm(Model model) {
         model.addAttribute("patient", new PatientDTO());
         model.addAttribute("mode", "create");
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
         return "patients/form";
     }
 
@@ -47,21 +53,32 @@ public class PatientController {
     public String createPatient(@Valid @ModelAttribute("patient") PatientDTO patientDTO,
                                 BindingResult bindingResult,
                                 RedirectAttributes redirectAttributes,
+                                @RequestParam(required = false) String idempotencyKey,
+                                @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
                                 Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "patients/form";
         }
 
         try {
-            PatientDTO created = patientService.createPatient(patientDTO);
-            redirectAttributes.addFlashAttribute("successMessage", 
-                    "Patient created successfully with ID: " + created.getId());
+            PatientDTO created = idempotencyService.execute("patient:create",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> patientService.createPatient(patientDTO));
+            if (Boolean.TRUE.equals(created.getMatchedExisting())) {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Patient is already registered with ID: " + created.getId());
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage", 
+                        "Patient created successfully with ID: " + created.getId());
+            }
             return "redirect:/patients/" + created.getId();
         } catch (Exception e) {
             log.error("Error creating patient", e);
             model.addAttribute("errorMessage", "Error creating patient: " + e.getMessage());
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "patients/form";
         }
     }
@@ -69,8 +86,7 @@ public class PatientController {
     @GetMapping("/{id}")
     public String viewPatient(@PathVariable String id, Model model) {
         try {
-            PatientDTO patient = patientService.getPatientById(id);
-            model.addAttribute("patient", patient);
+            model.addAllAttributes(detailPageLoader.loadPatientPage(id));
             return "patients/view";
         } catch (Exception e) {
             log.error("Error fetching patient", e);
@@ -0,0 +1,71 @@
+package com.healthcare.pms.controller;
+
+import com.healthcare.pms.dto.PatientImportStatusDTO;
+import com.healthcare.pms.service.IdempotencyService;
+import com.healthcare.pms.service.PatientImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+@Controller
+@RequestMapping("/patients/import")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientImportController {
+
+    private final PatientImportService patientImportService;
+    private final IdempotencyService idempotencyService;
+
+    @GetMapping
+    public String showImportForm(Model model) {
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
+        return "patients/import";
+    }
+
+    @PostMapping
+    public String startImport(@RequestParam("file") MultipartFile file,
+                              @RequestParam(required = false) String format,
+                              @RequestParam(required = false) String idempotencyKey,
+                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
+                              RedirectAttributes redirectAttributes) {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Please choose a CSV or NDJSON file to import");
+            return "redirect:/patients/import";
+        }
+
+        try {
+            // A resubmitted upload returns the job already started for it
+            String jobId = idempotencyService.execute("patient:import",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> patientImportService.startImport(file, format));
+            redirectAttributes.addFlashAttribute("successMessage", "Import started for " + file.getOriginalFilename());
+            return "redirect:/patients/import/" + jobId;
+        } catch (Exception e) {
+            log.error("Error starting patient import", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Error starting import: " + e.getMessage());
+            return "redirect:/patients/import";
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public String viewImport(@PathVariable String jobId, Model model, RedirectAttributes redirectAttributes) {
+        try {
+            model.addAttribute("job", patientImportService.getStatus(jobId));
+            return "patients/import";
+        } catch (Exception e) {
+            log.error("Error fetching import job", e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Import job not found");
+            return "redirect:/patients/import";
+        }
+    }
+
+    @GetMapping("/{jobId}/status")
+    @ResponseBody
+    public PatientImportStatusDTO importStatus(@PathVariable String jobId) {
+        return patientImportService.getStatus(jobId);
+    }
+}
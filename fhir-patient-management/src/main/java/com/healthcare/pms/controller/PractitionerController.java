@@ -1,6 +1,9 @@
 package com.healthcare.pms.controller;
 
 import com.healthcare.pms.dto.PractitionerDTO;
+import com.healthcare.pms.dto.PractitionerSummaryDTO;
+import com.healthcare.pms.service.DetailPageLoader;
+import com.healthcare.pms.service.IdempotencyService;
 import com.healthcare.pms.service.OrganizationService;
 import com.healthcare.pms.service.PractitionerService;
 import jakarta.validation.Valid;
@@ -22,12 +25,14 @@ public class PractitionerController {
 
     private final PractitionerService practitionerService;
     private final OrganizationService organizationService;
+    private final IdempotencyService idempotencyService;
+    private final DetailPageLoader detailPageLoader;
 
     @GetMapping
     public String listPractitioners(@RequestParam(required = false) String search,
                                     @RequestParam(required = false) String specialization,
                                     Model model) {
-        List<PractitionerDTO> practitioners;
+        List<PractitionerSummaryDTO> practitioners;
         
         if (specialization != null && !specialization.isEmpty()) {
             practitioners = practitionerService.searchBySpecialization(specialization);
@@ -47,6 +52,7 @@ public class PractitionerController {
     public String showCreateForm(Model model) {
         model.addAttribute("practitioner", new PractitionerDTO());
         model.addAttribute("mode", "create");
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
         
         // Load organizations/departments for selection
         try {
@@ -62,9 +68,12 @@ public class PractitionerController {
     public String createPractitioner(@Valid @ModelAttribute("practitioner") PractitionerDTO practitionerDTO,
                                     BindingResult bindingResult,
                                     RedirectAttributes redirectAttributes,
+                                    @RequestParam(required = false) String idempotencyKey,
+                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyHeader,
                                     Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             try {
                 model.addAttribute("organizations", organizationService.getAllOrganizations());
             } catch (Exception e) {
@@ -74,7 +83,9 @@ public class PractitionerController {
         }
 
         try {
-            PractitionerDTO created = practitionerService.createPractitioner(practitionerDTO);
+            PractitionerDTO created = idempotencyService.execute("practitioner:create",
+                    IdempotencyService.resolveKey(idempotencyHeader, idempotencyKey),
+                    () -> practitionerService.createPractitioner(practitionerDTO));
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Practitioner created successfully with ID: " + created.getId());
             return "redirect:/practitioners/" + created.getId();
@@ -82,6 +93,7 @@ public class PractitionerController {
             log.error("Error creating practitioner", e);
             model.addAttribute("errorMessage", "Error creating practitioner: " + e.getMessage());
             model.addAttribute("mode", "create");
+            model.addAttribute("idempotencyKey", idempotencyKey);
             try {
                 model.addAttribute("organizations", organizationService.getAllOrganizations());
             } catch (Exception ex) {
@@ -94,8 +106,7 @@ public class PractitionerController {
     @GetMapping("/{id}")
     public String viewPractitioner(@PathVariable String id, Model model) {
         try {
-            PractitionerDTO practitioner = practitionerService.getPractitionerById(id);
-            model.addAttribute("practitioner", practitioner);
+            model.addAllAttributes(detailPageLoader.loadPractitionerPage(id));
             return "practitioners/view";
         } catch (Exception e) {
             log.error("Error fetching practitioner", e);
@@ -0,0 +1,81 @@
+package com.healthcare.pms.controller;
+
+import com.healthcare.pms.dto.CoalescingStatsDTO;
+import com.healthcare.pms.dto.PractitionerUtilisationDTO;
+import com.healthcare.pms.dto.ResourceCacheStatsDTO;
+import com.healthcare.pms.service.AppointmentUtilisationService;
+import com.healthcare.pms.service.OffHeapResourceCache;
+import com.healthcare.pms.service.RequestCoalescer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportController {
+
+    private final AppointmentUtilisationService utilisationService;
+    private final RequestCoalescer requestCoalescer;
+    private final OffHeapResourceCache offHeapCache;
+
+    @GetMapping("/utilisation")
+    public String utilisationReport(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(required = false) String practitionerId,
+                                    Model model, RedirectAttributes redirectAttributes) {
+        LocalDate today = LocalDate.now();
+        if (from == null) {
+            from = today.minusDays(30);
+        }
+        if (to == null) {
+            to = today.plusDays(30);
+        }
+        if (from.isAfter(to)) {
+            redirectAttributes.addFlashAttribute("errorMessage", "The start date must not be after the end date");
+            return "redirect:/reports/utilisation";
+        }
+
+        List<PractitionerUtilisationDTO> rows;
+        if (practitionerId != null && !practitionerId.isEmpty()) {
+            rows = utilisationService.getDailyUtilisation(practitionerId, from, to);
+            model.addAttribute("practitionerId", practitionerId);
+        } else {
+            rows = utilisationService.getUtilisation(from, to);
+        }
+
+        model.addAttribute("rows", rows);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("lastBackfill", utilisationService.getLastBackfill());
+        model.addAttribute("backfillRunning", utilisationService.isBackfillRunning());
+        return "reports/utilisation";
+    }
+
+    @PostMapping("/utilisation/backfill")
+    public String backfillUtilisation(RedirectAttributes redirectAttributes) {
+        utilisationService.startBackfill();
+        redirectAttributes.addFlashAttribute("successMessage", "Utilisation backfill started");
+        return "redirect:/reports/utilisation";
+    }
+
+    @GetMapping("/coalescing")
+    @ResponseBody
+    public List<CoalescingStatsDTO> coalescingStats() {
+        return requestCoalescer.getStats();
+    }
+
+    @GetMapping("/offheap-cache")
+    @ResponseBody
+    public ResourceCacheStatsDTO offHeapCacheStats() {
+        return offHeapCache.getStats();
+    }
+}
@@ -1,9 +1,13 @@
 package com.healthcare.pms.dto;
 
+import com.healthcare.pms.mapper.AppointmentMapping;
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Appointment;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
@@ -12,10 +16,16 @@ import java.time.LocalTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@FhirMapping(resource = Appointment.class, mapper = "com.healthcare.pms.mapper.AppointmentMapper",
+        hooks = AppointmentMapping.class)
 public class AppointmentDTO {
 
+    @FhirId
     private String id; // FHIR resource ID
 
+    @FhirVersion
+    private String version; // FHIR version ID, sent as If-Match on updates
+
     @NotBlank(message = "Patient is required")
     private String patientId; // Reference to Patient FHIR resource
 
@@ -32,19 +42,26 @@ public class AppointmentDTO {
     private LocalTime appointmentTime;
 
     @NotBlank(message = "Appointment type is required")
+    @FhirCoding(value = "appointmentType", system = FhirSystems.APPOINTMENT_TYPE)
     private String appointmentType; // Consultation, Follow-up, Emergency
 
     @NotBlank(message = "Status is required")
+    @FhirCode(value = "status", type = Appointment.AppointmentStatus.class)
     private String status; // proposed, pending, booked, arrived, fulfilled, cancelled, noshow
 
+    @FhirText(value = "reasonCode", repeating = true)
     private String reasonCode; // General consultation, Follow-up, etc.
 
+    @FhirElement("description")
     private String reasonDescription;
 
+    @FhirText(value = "specialty", repeating = true)
     private String specialty; // Cardiology, General Medicine, etc.
 
+    @FhirElement("minutesDuration")
     private Integer durationMinutes = 30;
 
+    @FhirElement("comment")
     private String comment;
 
     // For display purposes
@@ -52,12 +69,31 @@ public class AppointmentDTO {
     private String practitionerName;
 
     // Cancellation info
+    @FhirText("cancelationReason")
     private String cancellationReason;
 
+    // Recurrence: repeat every recurrenceInterval days/weeks/months, recurrenceCount appointments in total
+    private String recurrenceFrequency; // daily, weekly, monthly
+
+    @Min(value = 1, message = "Recurrence interval must be at least 1")
+    private Integer recurrenceInterval = 1;
+
+    @Min(value = 1, message = "Recurrence count must be at least 1")
+    @Max(value = 104, message = "Recurrence count cannot exceed 104")
+    private Integer recurrenceCount;
+
+    @FhirIdentifier(FhirSystems.APPOINTMENT_SERIES)
+    private String seriesId; // shared by every appointment created from one recurrence rule
+
     public String getAppointmentDateTime() {
         if (appointmentDate != null && appointmentTime != null) {
             return appointmentDate + " " + appointmentTime;
         }
         return "";
     }
+
+    public boolean isRecurring() {
+        return recurrenceFrequency != null && !recurrenceFrequency.isBlank()
+                && recurrenceCount != null && recurrenceCount > 1;
+    }
 }
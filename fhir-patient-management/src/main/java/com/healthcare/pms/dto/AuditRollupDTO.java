@@ -0,0 +1,19 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRollupDTO {
+
+    private LocalDateTime bucketStart; // start of the hour
+    private String action; // create, update, delete, ...
+    private String resourceType;
+    private String agentName; // null when aggregated across agents
+    private long count;
+}
@@ -0,0 +1,35 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExportStatusDTO {
+
+    private String jobId;
+    private String status; // QUEUED, RUNNING, INTERRUPTED, COMPLETED, FAILED
+    private String currentType;
+    private Map<String, String> typeStates; // resource type -> PENDING, RUNNING, DONE
+    private Map<String, Long> resourceCounts; // resource type -> resources written so far
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+
+    public boolean isResumable() {
+        return "INTERRUPTED".equals(status) || "FAILED".equals(status);
+    }
+
+    public boolean isActive() {
+        return "QUEUED".equals(status) || "RUNNING".equals(status);
+    }
+
+    public long getTotalResources() {
+        return resourceCounts == null ? 0 : resourceCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
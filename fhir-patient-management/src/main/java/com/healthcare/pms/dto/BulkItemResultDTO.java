@@ -0,0 +1,15 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+
+    private String resourceId;
+    private boolean success;
+    private String message; // server outcome or error for this item
+}
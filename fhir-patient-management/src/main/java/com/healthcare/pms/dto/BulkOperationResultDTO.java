@@ -0,0 +1,26 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResultDTO {
+
+    private String operation; // e.g. "Cancel appointments"
+    private String resourceType;
+    private List<BulkItemResultDTO> items;
+    private long durationMillis;
+
+    public long getSucceeded() {
+        return items == null ? 0 : items.stream().filter(BulkItemResultDTO::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return items == null ? 0 : items.size() - getSucceeded();
+    }
+}
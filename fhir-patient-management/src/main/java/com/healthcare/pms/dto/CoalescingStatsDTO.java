@@ -0,0 +1,16 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoalescingStatsDTO {
+
+    private String operation; // e.g. "Appointment search"
+    private long executed; // calls that went to the server
+    private long coalesced; // calls that shared another caller's in-flight request
+    private double coalesceRate;
+}
@@ -0,0 +1,19 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsDTO {
+
+    private long totalPatients;
+    private long totalPractitioners;
+    private long totalOrganizations;
+    private long totalAuditEvents;
+    private LocalDateTime lastRefreshed; // null until the first _summary=count refresh completes
+}
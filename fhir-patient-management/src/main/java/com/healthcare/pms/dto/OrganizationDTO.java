@@ -1,48 +1,66 @@
 package com.healthcare.pms.dto;
 
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Organization;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@FhirMapping(resource = Organization.class, mapper = "com.healthcare.pms.mapper.OrganizationMapper")
 public class OrganizationDTO {
 
+    @FhirId
     private String id; // FHIR resource ID
 
     @NotBlank(message = "Organization name is required")
     @Size(max = 200)
+    @FhirElement("name")
     private String name;
 
     @NotBlank(message = "Type is required")
+    @FhirCoding(value = "type", system = FhirSystems.ORGANIZATION_TYPE,
+            code = FhirCoding.CodeCase.LOWER_HYPHENATED, repeating = true)
     private String type; // Hospital, Clinic, Pharmacy, Laboratory
 
     @NotBlank(message = "Phone number is required")
     @Pattern(regexp = "^[0-9]{10}$", message = "Phone must be 10 digits")
+    @FhirTelecom("phone")
     private String phone;
 
     @Email
+    @FhirTelecom("email")
     private String email;
 
     @NotBlank(message = "Address is required")
+    @FhirAddress(FhirAddress.Part.LINE)
     private String address;
 
     @NotBlank(message = "City is required")
+    @FhirAddress(FhirAddress.Part.CITY)
     private String city;
 
     @NotBlank(message = "State is required")
+    @FhirAddress(FhirAddress.Part.STATE)
     private String state;
 
     @Pattern(regexp = "^[0-9]{6}$", message = "Postal code must be 6 digits")
+    @FhirAddress(FhirAddress.Part.POSTAL_CODE)
     private String postalCode;
 
+    @FhirIdentifier(FhirSystems.ORGANIZATION_REGISTRATION)
     private String registrationNumber; // Hospital/Clinic registration
 
+    @FhirExtension(FhirSystems.EXT_WEBSITE)
     private String website;
 
+    @FhirElement(value = "active", ifNull = "true")
     private Boolean active = true;
 
+    @FhirExtension(FhirSystems.EXT_DESCRIPTION)
     private String description;
 }
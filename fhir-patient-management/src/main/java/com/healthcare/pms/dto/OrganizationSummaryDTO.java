@@ -0,0 +1,35 @@
+package com.healthcare.pms.dto;
+
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Organization;
+
+// One row of the department list, mapped from a search that returns only these elements
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FhirMapping(resource = Organization.class, mapper = "com.healthcare.pms.mapper.OrganizationMapper", summary = true)
+public class OrganizationSummaryDTO {
+
+    @FhirId
+    private String id;
+
+    @FhirElement("name")
+    private String name;
+
+    @FhirCoding(value = "type", system = FhirSystems.ORGANIZATION_TYPE,
+            code = FhirCoding.CodeCase.LOWER_HYPHENATED, repeating = true)
+    private String type;
+
+    @FhirTelecom("phone")
+    private String phone;
+
+    @FhirAddress(FhirAddress.Part.CITY)
+    private String city;
+
+    @FhirElement("active")
+    private Boolean active;
+}
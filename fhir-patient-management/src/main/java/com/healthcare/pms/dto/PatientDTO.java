@@ -1,9 +1,14 @@
 package com.healthcare.pms.dto;
 
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.PatientMapping;
+import com.healthcare.pms.mapper.annotation.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Patient;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
@@ -11,57 +16,87 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@FhirMapping(resource = Patient.class, mapper = "com.healthcare.pms.mapper.PatientMapper", hooks = PatientMapping.class)
 public class PatientDTO {
 
+    @FhirId
     private String id; // FHIR resource ID
 
+    @FhirVersion
+    private String version; // FHIR version ID the edit form was loaded from
+
     @NotBlank(message = "First name is required")
     @Size(max = 100)
+    @FhirName(FhirName.Part.GIVEN)
     private String firstName;
 
     @NotBlank(message = "Last name is required")
     @Size(max = 100)
+    @FhirName(FhirName.Part.FAMILY)
     private String lastName;
 
     @NotNull(message = "Date of birth is required")
     @Past(message = "Date of birth must be in the past")
     @DateTimeFormat(pattern = "yyyy-MM-dd")
+    @FhirElement("birthDate")
     private LocalDate dateOfBirth;
 
     @NotBlank(message = "Gender is required")
+    @FhirCode(value = "gender", type = Enumerations.AdministrativeGender.class, fallback = "UNKNOWN")
     private String gender; // male, female, other
 
     @NotBlank(message = "Phone number is required")
     @Pattern(regexp = "^[0-9]{10}$", message = "Phone number must be 10 digits")
+    @FhirTelecom(value = "phone", use = "mobile")
     private String phone;
 
     @Email(message = "Invalid email format")
+    @FhirTelecom("email")
     private String email;
 
+    @FhirAddress(FhirAddress.Part.LINE)
     private String address;
+
+    @FhirAddress(FhirAddress.Part.CITY)
     private String city;
+
+    @FhirAddress(FhirAddress.Part.STATE)
     private String state;
     
     @Pattern(regexp = "^[0-9]{6}$", message = "Postal code must be 6 digits")
+    @FhirAddress(FhirAddress.Part.POSTAL_CODE)
     private String postalCode;
 
+    @FhirCoding(value = "maritalStatus", system = FhirSystems.MARITAL_STATUS, readCode = true)
     private String maritalStatus; // never_married, married, divorced, widowed
 
+    @FhirExtension(FhirSystems.EXT_BLOOD_GROUP)
     private String bloodGroup; // A+, A-, B+, B-, O+, O-, AB+, AB-
 
     @Pattern(regexp = "^[A-Z]{5}[0-9]{4}[A-Z]{1}$", message = "Invalid PAN format")
+    @FhirExtension(FhirSystems.EXT_PAN_CARD)
     private String panCard;
 
     @Pattern(regexp = "^[0-9]{12}$", message = "Aadhaar must be 12 digits")
+    @FhirExtension(FhirSystems.EXT_AADHAAR)
     private String aadhaarNumber;
 
     // Emergency Contact
+    @FhirName(value = FhirName.Part.TEXT, component = "contact")
     private String emergencyContactName;
+
+    @FhirTelecom(value = "phone", component = "contact")
     private String emergencyContactPhone;
+
+    @FhirText(value = "relationship", repeating = true, component = "contact")
     private String emergencyContactRelation;
 
+    @FhirElement(value = "active", ifNull = "true")
     private Boolean active = true;
 
+    // Set when a registration matched an already registered patient instead of creating a new one
+    private Boolean matchedExisting;
+
     // Computed field
     public Integer getAge() {
         if (dateOfBirth != null) {
@@ -70,6 +105,7 @@ public class PatientDTO {
         return null;
     }
 
+    @FhirName(FhirName.Part.TEXT)
     public String getFullName() {
         return firstName + " " + lastName;
     }
@@ -0,0 +1,33 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientImportStatusDTO {
+
+    private String jobId;
+    private String fileName;
+    private String format; // csv, ndjson
+    private String status; // QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+    private long rowsRead;
+    private long imported;
+    private long existing; // rows matching a patient already registered under the same identifier
+    private long failed;
+    private int bundlesInFlight;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private double rowsPerSecond;
+    private String message;
+    private List<ImportRowErrorDTO> errors;
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
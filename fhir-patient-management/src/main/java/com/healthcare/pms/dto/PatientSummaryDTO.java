@@ -0,0 +1,54 @@
+package com.healthcare.pms.dto;
+
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Patient;
+
+import java.time.LocalDate;
+
+// One row of the patient list, mapped from a search that returns only these elements
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FhirMapping(resource = Patient.class, mapper = "com.healthcare.pms.mapper.PatientMapper", summary = true)
+public class PatientSummaryDTO {
+
+    @FhirId
+    private String id;
+
+    @FhirName(FhirName.Part.GIVEN)
+    private String firstName;
+
+    @FhirName(FhirName.Part.FAMILY)
+    private String lastName;
+
+    @FhirElement("birthDate")
+    private LocalDate dateOfBirth;
+
+    @FhirCode(value = "gender", type = Enumerations.AdministrativeGender.class)
+    private String gender;
+
+    @FhirTelecom("phone")
+    private String phone;
+
+    @FhirExtension(FhirSystems.EXT_BLOOD_GROUP)
+    private String bloodGroup;
+
+    @FhirElement("active")
+    private Boolean active;
+
+    public Integer getAge() {
+        if (dateOfBirth != null) {
+            return java.time.Period.between(dateOfBirth, LocalDate.now()).getYears();
+        }
+        return null;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
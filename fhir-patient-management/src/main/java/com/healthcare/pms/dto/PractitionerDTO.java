@@ -1,9 +1,13 @@
 package com.healthcare.pms.dto;
 
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Practitioner;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
@@ -11,50 +15,68 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@FhirMapping(resource = Practitioner.class, mapper = "com.healthcare.pms.mapper.PractitionerMapper")
 public class PractitionerDTO {
 
+    @FhirId
     private String id; // FHIR resource ID
 
+    @FhirVersion
+    private String version; // FHIR version ID the edit form was loaded from
+
     @NotBlank(message = "First name is required")
     @Size(max = 100)
+    @FhirName(FhirName.Part.GIVEN)
     private String firstName;
 
     @NotBlank(message = "Last name is required")
     @Size(max = 100)
+    @FhirName(FhirName.Part.FAMILY)
     private String lastName;
 
     @NotBlank(message = "Gender is required")
+    @FhirCode(value = "gender", type = Enumerations.AdministrativeGender.class)
     private String gender;
 
     @NotNull(message = "Date of birth is required")
     @Past
     @DateTimeFormat(pattern = "yyyy-MM-dd")
+    @FhirElement("birthDate")
     private LocalDate dateOfBirth;
 
     @NotBlank(message = "Specialization is required")
+    @FhirExtension(FhirSystems.EXT_SPECIALIZATION)
     private String specialization; // General Practitioner, Cardiologist, etc.
 
     @NotBlank(message = "Registration number is required")
+    @FhirIdentifier(value = FhirSystems.MEDICAL_COUNCIL, component = "qualification")
     private String registrationNumber; // Medical Council Registration
 
     @NotBlank(message = "Phone number is required")
     @Pattern(regexp = "^[0-9]{10}$", message = "Phone must be 10 digits")
+    @FhirTelecom("phone")
     private String phone;
 
     @Email
+    @FhirTelecom("email")
     private String email;
 
+    @FhirText(value = "code", component = "qualification")
     private String qualifications; // MBBS, MD, etc.
 
+    @FhirExtension(FhirSystems.EXT_YEARS_EXPERIENCE)
     private Integer yearsOfExperience;
 
     @NotBlank(message = "Department is required")
+    @FhirExtension(FhirSystems.EXT_DEPARTMENT)
     private String department;
 
     private String organizationId; // Link to Organization FHIR resource
 
+    @FhirElement(value = "active", ifNull = "true")
     private Boolean active = true;
 
+    @FhirName(value = FhirName.Part.TEXT, prefix = "Dr.")
     public String getFullName() {
         return "Dr. " + firstName + " " + lastName;
     }
@@ -0,0 +1,41 @@
+package com.healthcare.pms.dto;
+
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hl7.fhir.r4.model.Practitioner;
+
+// One row of the practitioner list, mapped from a search that returns only these elements
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FhirMapping(resource = Practitioner.class, mapper = "com.healthcare.pms.mapper.PractitionerMapper", summary = true)
+public class PractitionerSummaryDTO {
+
+    @FhirId
+    private String id;
+
+    @FhirName(FhirName.Part.GIVEN)
+    private String firstName;
+
+    @FhirName(FhirName.Part.FAMILY)
+    private String lastName;
+
+    @FhirExtension(FhirSystems.EXT_SPECIALIZATION)
+    private String specialization;
+
+    @FhirIdentifier(value = FhirSystems.MEDICAL_COUNCIL, component = "qualification")
+    private String registrationNumber;
+
+    @FhirTelecom("phone")
+    private String phone;
+
+    @FhirElement("active")
+    private Boolean active;
+
+    public String getFullName() {
+        return "Dr. " + firstName + " " + lastName;
+    }
+}
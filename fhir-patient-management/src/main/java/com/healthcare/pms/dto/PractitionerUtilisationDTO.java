@@ -0,0 +1,29 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PractitionerUtilisationDTO {
+
+    private String practitionerId;
+    private String practitionerName;
+    private LocalDate date; // null when the row is a total over a date range
+    private int appointments;
+    private int bookedMinutes;
+    private int capacityMinutes;
+    private int noShows;
+    private int cancellations;
+
+    public int getUtilisationPercent() {
+        if (capacityMinutes <= 0) {
+            return 0;
+        }
+        return Math.round(bookedMinutes * 100f / capacityMinutes);
+    }
+}
@@ -0,0 +1,20 @@
+package com.healthcare.pms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceCacheStatsDTO {
+
+    private long entries;
+    private long usedBytes;
+    private long capacityBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+    private long averageDecodeMicros; // time to parse a hit back into a resource
+}
@@ -0,0 +1,75 @@
+package com.healthcare.pms.mapper;
+
+import com.healthcare.pms.dto.AppointmentDTO;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.Reference;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of the appointment mapping the annotations on {@link AppointmentDTO} don't describe:
+ * the patient and practitioner participants, and start and end from date, time and duration.
+ * Called by the generated AppointmentMapper.
+ */
+public final class AppointmentMapping {
+
+    private AppointmentMapping() {
+    }
+
+    public static void write(AppointmentDTO dto, Appointment appointment) {
+        // Patient participant
+        if (dto.getPatientId() != null) {
+            appointment.addParticipant(participant("Patient/" + dto.getPatientId(), dto.getPatientName()));
+        }
+
+        // Practitioner participant
+        if (dto.getPractitionerId() != null) {
+            appointment.addParticipant(participant("Practitioner/" + dto.getPractitionerId(), dto.getPractitionerName()));
+        }
+
+        // Start time
+        if (dto.getAppointmentDate() != null && dto.getAppointmentTime() != null) {
+            LocalDateTime startDateTime = LocalDateTime.of(dto.getAppointmentDate(), dto.getAppointmentTime());
+            appointment.setStart(FhirElements.toDate(startDateTime));
+
+            // End time
+            if (dto.getDurationMinutes() != null) {
+                LocalDateTime endDateTime = startDateTime.plusMinutes(dto.getDurationMinutes());
+                appointment.setEnd(FhirElements.toDate(endDateTime));
+            }
+        }
+    }
+
+    public static void read(Appointment appointment, AppointmentDTO dto) {
+        // Extract patient and practitioner from participants
+        for (Appointment.AppointmentParticipantComponent participant : appointment.getParticipant()) {
+            if (participant.hasActor()) {
+                Reference actor = participant.getActor();
+                String reference = actor.getReference();
+
+                if (reference.startsWith("Patient/")) {
+                    dto.setPatientId(reference.replace("Patient/", ""));
+                    dto.setPatientName(actor.getDisplay());
+                } else if (reference.startsWith("Practitioner/")) {
+                    dto.setPractitionerId(reference.replace("Practitioner/", ""));
+                    dto.setPractitionerName(actor.getDisplay());
+                }
+            }
+        }
+
+        // Start date/time
+        if (appointment.hasStart()) {
+            LocalDateTime startDateTime = FhirElements.toLocalDateTime(appointment.getStart());
+            dto.setAppointmentDate(startDateTime.toLocalDate());
+            dto.setAppointmentTime(startDateTime.toLocalTime());
+        }
+    }
+
+    private static Appointment.AppointmentParticipantComponent participant(String reference, String display) {
+        Appointment.AppointmentParticipantComponent participant = new Appointment.AppointmentParticipantComponent();
+        participant.setActor(new Reference(reference).setDisplay(display));
+        participant.setRequired(Appointment.ParticipantRequired.REQUIRED);
+        participant.setStatus(Appointment.ParticipationStatus.ACCEPTED);
+        return participant;
+    }
+}
@@ -0,0 +1,127 @@
+package com.healthcare.pms.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hl7.fhir.r4.model.DomainResource;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Table of the extensions a mapper owns, keyed by exact URL.
+ *
+ * Reading is one map lookup per extension; a value of an unexpected type is skipped rather
+ * than failing the whole resource. Extensions with unknown URLs are ignored.
+ */
+public final class ExtensionCodec<D> {
+
+    private record Field<T, V>(String url, Class<? extends Type> valueType,
+                               Function<T, V> getter, BiConsumer<T, V> setter,
+                               Function<V, Type> encoder, Function<Type, V> decoder,
+                               String jsonKey, Function<JsonNode, V> jsonDecoder) {
+
+        void write(T dto, DomainResource resource) {
+            V value = getter.apply(dto);
+            if (value != null) {
+                resource.addExtension().setUrl(url).setValue(encoder.apply(value));
+            }
+        }
+
+        void read(Extension extension, T dto) {
+            if (valueType.isInstance(extension.getValue())) {
+                setter.accept(dto, decoder.apply(extension.getValue()));
+            }
+        }
+
+        void readJson(JsonNode extension, T dto) {
+            JsonNode value = extension.get(jsonKey);
+            if (value != null) {
+                V decoded = jsonDecoder.apply(value);
+                if (decoded != null) {
+                    setter.accept(dto, decoded);
+                }
+            }
+        }
+    }
+
+    // Array for writing in declaration order, map for reading by URL
+    private final Field<D, ?>[] fields;
+    private final Map<String, Field<D, ?>> fieldsByUrl;
+
+    @SuppressWarnings("unchecked")
+    private ExtensionCodec(List<Field<D, ?>> fields) {
+        this.fields = fields.toArray(new Field[0]);
+        this.fieldsByUrl = new HashMap<>(fields.size() * 2);
+        for (Field<D, ?> field : fields) {
+            fieldsByUrl.put(field.url(), field);
+        }
+    }
+
+    public static <D> Builder<D> builder() {
+        return new Builder<>();
+    }
+
+    public void write(D dto, DomainResource resource) {
+        for (Field<D, ?> field : fields) {
+            field.write(dto, resource);
+        }
+    }
+
+    public void read(DomainResource resource, D dto) {
+        if (!resource.hasExtension()) {
+            return;
+        }
+        for (Extension extension : resource.getExtension()) {
+            Field<D, ?> field = fieldsByUrl.get(extension.getUrl());
+            if (field != null) {
+                field.read(extension, dto);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #read(DomainResource, Object)} for a resource still in its JSON form.
+     */
+    public void readJson(JsonNode resource, D dto) {
+        JsonNode extensions = resource.get("extension");
+        if (extensions == null || !extensions.isArray()) {
+            return;
+        }
+        for (JsonNode extension : extensions) {
+            Field<D, ?> field = fieldsByUrl.get(extension.path("url").asText());
+            if (field != null) {
+                field.readJson(extension, dto);
+            }
+        }
+    }
+
+    public static final class Builder<D> {
+
+        private final List<Field<D, ?>> fields = new ArrayList<>();
+
+        public Builder<D> string(String url, Function<D, String> getter, BiConsumer<D, String> setter) {
+            fields.add(new Field<>(url, StringType.class, getter, setter,
+                    StringType::new, value -> ((StringType) value).getValue(),
+                    "valueString", value -> value.isTextual() ? value.asText() : null));
+            return this;
+        }
+
+        public Builder<D> integer(String url, Function<D, Integer> getter, BiConsumer<D, Integer> setter) {
+            fields.add(new Field<>(url, IntegerType.class, getter, setter,
+                    value -> new IntegerType(value), value -> ((IntegerType) value).getValue(),
+                    "valueInteger", value -> value.isInt() ? value.intValue() : null));
+            return this;
+        }
+
+        public ExtensionCodec<D> build() {
+            return new ExtensionCodec<>(List.copyOf(fields));
+        }
+    }
+}
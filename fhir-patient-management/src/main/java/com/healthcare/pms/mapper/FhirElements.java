@@ -0,0 +1,110 @@
+package com.healthcare.pms.mapper;
+
+import org.hl7.fhir.exceptions.FHIRException;
+import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.HumanName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Conversions for the datatypes every mapper reads and writes, so each is done one way only.
+ */
+public final class FhirElements {
+
+    private FhirElements() {
+    }
+
+    public static HumanName name(String given, String family) {
+        HumanName name = new HumanName();
+        name.setFamily(family);
+        name.addGiven(given);
+        return name;
+    }
+
+    public static ContactPoint contactPoint(ContactPoint.ContactPointSystem system, String value) {
+        return new ContactPoint().setSystem(system).setValue(value);
+    }
+
+    // Last value of the given system, as the mappers have always read it
+    public static String telecom(List<ContactPoint> telecoms, ContactPoint.ContactPointSystem system) {
+        String value = null;
+        for (ContactPoint telecom : telecoms) {
+            if (telecom.getSystem() == system) {
+                value = telecom.getValue();
+            }
+        }
+        return value;
+    }
+
+    public static Address address(String line, String city, String state, String postalCode) {
+        Address address = new Address();
+        address.addLine(line);
+        address.setCity(city);
+        address.setState(state);
+        address.setPostalCode(postalCode);
+        address.setCountry("IN");
+        return address;
+    }
+
+    public static String firstLine(Address address) {
+        return address.hasLine() ? address.getLine().get(0).getValue() : null;
+    }
+
+    public static CodeableConcept coding(String system, String code, String display) {
+        CodeableConcept concept = new CodeableConcept();
+        concept.addCoding()
+                .setSystem(system)
+                .setCode(code)
+                .setDisplay(display);
+        return concept;
+    }
+
+    public static CodeableConcept text(String text) {
+        return new CodeableConcept().setText(text);
+    }
+
+    // HAPI's fromCode throws for an unknown code and returns null for an empty one
+    public static <E extends Enum<E>> E code(Function<String, E> fromCode, String code, E fallback) {
+        try {
+            E value = fromCode.apply(code);
+            return value != null ? value : fallback;
+        } catch (FHIRException e) {
+            return fallback;
+        }
+    }
+
+    public static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static LocalDateTime toLocalDateTime(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // FHIR dates may be just a year or a year and month
+    public static LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        return switch (date.length()) {
+            case 4 -> LocalDate.of(Integer.parseInt(date), 1, 1);
+            case 7 -> LocalDate.parse(date + "-01");
+            default -> LocalDate.parse(date.substring(0, 10));
+        };
+    }
+}
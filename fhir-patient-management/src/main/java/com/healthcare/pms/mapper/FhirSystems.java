@@ -0,0 +1,34 @@
+package com.healthcare.pms.mapper;
+
+/**
+ * Code system, identifier system and extension URLs shared by the mappers.
+ */
+public final class FhirSystems {
+
+    public static final String MARITAL_STATUS = "http://terminology.hl7.org/CodeSystem/v3-MaritalStatus";
+    public static final String ORGANIZATION_TYPE = "http://terminology.hl7.org/CodeSystem/organization-type";
+    public static final String APPOINTMENT_TYPE = "http://terminology.hl7.org/CodeSystem/v2-0276";
+
+    public static final String MEDICAL_COUNCIL = "http://healthcare.com/fhir/medical-council";
+    public static final String ORGANIZATION_REGISTRATION = "http://healthcare.com/fhir/organization-registration";
+
+    // Registration identifiers used to detect duplicate patients
+    public static final String PATIENT_AADHAAR = "http://healthcare.com/fhir/identifier/aadhaar";
+    public static final String PATIENT_PHONE_DOB = "http://healthcare.com/fhir/identifier/phone-dob";
+
+    public static final String APPOINTMENT_SERIES = "http://healthcare.com/fhir/identifier/appointment-series";
+
+    private static final String EXTENSION_BASE = "http://healthcare.com/fhir/StructureDefinition/";
+
+    public static final String EXT_BLOOD_GROUP = EXTENSION_BASE + "blood-group";
+    public static final String EXT_PAN_CARD = EXTENSION_BASE + "pan-card";
+    public static final String EXT_AADHAAR = EXTENSION_BASE + "aadhaar";
+    public static final String EXT_SPECIALIZATION = EXTENSION_BASE + "specialization";
+    public static final String EXT_DEPARTMENT = EXTENSION_BASE + "department";
+    public static final String EXT_YEARS_EXPERIENCE = EXTENSION_BASE + "years-experience";
+    public static final String EXT_WEBSITE = EXTENSION_BASE + "website";
+    public static final String EXT_DESCRIPTION = EXTENSION_BASE + "description";
+
+    private FhirSystems() {
+    }
+}
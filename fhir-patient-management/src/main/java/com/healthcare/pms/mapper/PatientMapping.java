@@ -0,0 +1,46 @@
+package com.healthcare.pms.mapper;
+
+import com.healthcare.pms.dto.PatientDTO;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+
+/**
+ * The part of the patient mapping the annotations on {@link PatientDTO} don't describe:
+ * the registration identifier, derived from several fields. Called by the generated PatientMapper.
+ */
+public final class PatientMapping {
+
+    private PatientMapping() {
+    }
+
+    public static void write(PatientDTO dto, Patient patient) {
+        // Registration identifier used to detect duplicate registrations
+        Identifier registration = registrationIdentifier(dto);
+        if (registration != null) {
+            patient.addIdentifier(registration);
+        }
+    }
+
+    public static Identifier registrationIdentifier(PatientDTO dto) {
+        // Aadhaar is unique per person; otherwise fall back to mobile number plus date of birth
+        if (dto.getAadhaarNumber() != null && !dto.getAadhaarNumber().isBlank()) {
+            return new Identifier()
+                    .setSystem(FhirSystems.PATIENT_AADHAAR)
+                    .setValue(dto.getAadhaarNumber().replaceAll("[^0-9]", ""));
+        }
+
+        if (dto.getPhone() != null && dto.getDateOfBirth() != null) {
+            String digits = dto.getPhone().replaceAll("[^0-9]", "");
+            if (digits.length() > 10) {
+                digits = digits.substring(digits.length() - 10);
+            }
+            if (!digits.isEmpty()) {
+                return new Identifier()
+                        .setSystem(FhirSystems.PATIENT_PHONE_DOB)
+                        .setValue(digits + "-" + dto.getDateOfBirth());
+            }
+        }
+
+        return null;
+    }
+}
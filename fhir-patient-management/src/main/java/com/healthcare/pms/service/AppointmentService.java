@@ -0,0 +1,502 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.healthcare.pms.dto.AppointmentDTO;
+import com.healthcare.pms.mapper.AppointmentMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.Bundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentService {
+
+    // Statuses an appointment never leaves once reached
+    static final Set<String> FINAL_STATUSES = Set.of("cancelled", "fulfilled", "noshow", "entered-in-error");
+
+    // Statuses that leave the practitioner's slot free
+    private static final Set<String> NON_BLOCKING_STATUSES = Set.of("cancelled", "noshow", "entered-in-error");
+
+    private final IGenericClient fhirClient;
+    private final AppointmentMapper appointmentMapper;
+    private final AuditService auditService;
+    private final PatientService patientService;
+    private final PractitionerService practitionerService;
+    private final AppointmentUtilisationService utilisationService;
+    private final ObjectMapper objectMapper;
+    private final AsyncFhirExecutor asyncExecutor;
+    private final RequestCoalescer coalescer;
+    private final SearchResultCache searchCache;
+
+    @Value("${appointments.status-change.max-attempts:3}")
+    private int statusChangeMaxAttempts;
+
+    @Value("${cache.search.appointment-date-ttl-seconds:30}")
+    private long dateSearchTtlSeconds;
+
+    public AppointmentDTO createAppointment(AppointmentDTO appointmentDTO) {
+        log.info("Creating appointment for patient: {}", appointmentDTO.getPatientId());
+        
+        // Fetch patient and practitioner names for display
+        resolveNames(appointmentDTO);
+        
+        Appointment appointment = appointmentMapper.toFhirResource(appointmentDTO);
+        
+        Appointment createdAppointment = auditService.createWithAudit(appointment, "Appointment created successfully");
+        AppointmentDTO result = appointmentMapper.toDTO(createdAppointment);
+        
+        utilisationService.recordAppointment(result);
+        
+        log.info("Appointment created with ID: {}", result.getId());
+        return result;
+    }
+
+    /**
+     * Expands the recurrence rule and creates the whole series in one transaction, after checking
+     * every occurrence against the practitioner's existing appointments.
+     */
+    public List<AppointmentDTO> createAppointmentSeries(AppointmentDTO appointmentDTO) {
+        List<LocalDate> dates = expandRecurrence(appointmentDTO);
+        log.info("Creating series of {} appointments for patient: {}", dates.size(), appointmentDTO.getPatientId());
+        
+        // Names are resolved once and shared by every occurrence
+        resolveNames(appointmentDTO);
+        checkSeriesConflicts(appointmentDTO, dates);
+        
+        LocalDate firstDate = appointmentDTO.getAppointmentDate();
+        appointmentDTO.setSeriesId(UUID.randomUUID().toString());
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDate date : dates) {
+            appointmentDTO.setAppointmentDate(date);
+            appointments.add(appointmentMapper.toFhirResource(appointmentDTO));
+        }
+        appointmentDTO.setAppointmentDate(firstDate);
+        
+        List<AppointmentDTO> results = auditService.createAllWithAudit(appointments,
+                        "Appointment created as part of series " + appointmentDTO.getSeriesId()).stream()
+                .map(appointmentMapper::toDTO)
+                .toList();
+        results.forEach(utilisationService::recordAppointment);
+        
+        log.info("Appointment series {} created with {} appointments", appointmentDTO.getSeriesId(), results.size());
+        return results;
+    }
+
+    public AppointmentDTO updateAppointment(String id, AppointmentDTO appointmentDTO) {
+        log.info("Updating appointment ID: {}", id);
+        
+        appointmentDTO.setId(id);
+        
+        // Fetch names if not present
+        if (appointmentDTO.getPatientName() == null) {
+            try {
+                var patient = patientService.getPatientById(appointmentDTO.getPatientId());
+                appointmentDTO.setPatientName(patient.getFullName());
+            } catch (Exception e) {
+                log.warn("Could not fetch patient name");
+            }
+        }
+        
+        if (appointmentDTO.getPractitionerName() == null) {
+            try {
+                var practitioner = practitionerService.getPractitionerById(appointmentDTO.getPractitionerId());
+                appointmentDTO.setPractitionerName(practitioner.getFullName());
+            } catch (Exception e) {
+                log.warn("Could not fetch practitioner name");
+            }
+        }
+        
+        Appointment appointment = appointmentMapper.toFhirResource(appointmentDTO);
+        
+        Appointment updatedAppointment;
+        try {
+            updatedAppointment = auditService.updateWithAudit(appointment, appointmentDTO.getVersion(),
+                    "Appointment updated successfully");
+        } catch (PreconditionFailedException e) {
+            // A full edit can't be replayed over someone else's change
+            log.warn("Appointment {} changed since version {}", id, appointmentDTO.getVersion());
+            throw new RuntimeException("Appointment was modified by another user, please reload and try again");
+        }
+        AppointmentDTO result = appointmentMapper.toDTO(updatedAppointment);
+        
+        utilisationService.recordAppointment(result);
+        
+        log.info("Appointment updated successfully: {}", id);
+        return result;
+    }
+
+    public AppointmentDTO getAppointmentById(String id) {
+        return coalescer.read("Appointment", id, () -> readAppointment(id));
+    }
+
+    private AppointmentDTO readAppointment(String id) {
+        log.info("Fetching appointment ID: {}", id);
+        
+        try {
+            Appointment appointment = fhirClient.read()
+                    .resource(Appointment.class)
+                    .withId(id)
+                    .execute();
+            
+            AppointmentDTO dto = appointmentMapper.toDTO(appointment);
+            
+            // Enrich with names
+            enrichWithNames(dto);
+            
+            return dto;
+        } catch (ResourceNotFoundException e) {
+            log.error("Appointment not found with ID: {}", id);
+            throw new RuntimeException("Appointment not found with ID: " + id);
+        }
+    }
+
+    public List<AppointmentDTO> getAllAppointments() {
+        return coalescer.search("Appointment", Map.of(), this::searchAllAppointments);
+    }
+
+    private List<AppointmentDTO> searchAllAppointments() {
+        log.info("Fetching all appointments");
+        
+        Bundle bundle = fhirClient.search()
+                .forResource(Appointment.class)
+                .returnBundle(Bundle.class)
+                .execute();
+        
+        List<AppointmentDTO> appointments = extractAppointmentsFromBundle(bundle);
+        
+        // Enrich all with names
+        appointments.forEach(this::enrichWithNames);
+        
+        return appointments;
+    }
+
+    public List<AppointmentDTO> getAppointmentsByPatient(String patientId) {
+        return coalescer.search("Appointment", Map.of(Appointment.SP_PATIENT, patientId),
+                () -> searchAppointmentsByPatient(patientId));
+    }
+
+    private List<AppointmentDTO> searchAppointmentsByPatient(String patientId) {
+        log.info("Fetching appointments for patient ID: {}", patientId);
+        
+        Bundle bundle = fhirClient.search()
+                .forResource(Appointment.class)
+                .where(Appointment.PATIENT.hasId(patientId))
+                .returnBundle(Bundle.class)
+                .execute();
+        
+        List<AppointmentDTO> appointments = extractAppointmentsFromBundle(bundle);
+        appointments.forEach(this::enrichWithNames);
+        
+        return appointments;
+    }
+
+    public List<AppointmentDTO> getAppointmentsByPractitioner(String practitionerId) {
+        return coalescer.search("Appointment", Map.of(Appointment.SP_PRACTITIONER, practitionerId),
+                () -> searchAppointmentsByPractitioner(practitionerId));
+    }
+
+    private List<AppointmentDTO> searchAppointmentsByPractitioner(String practitionerId) {
+        log.info("Fetching appointments for practitioner ID: {}", practitionerId);
+        
+        Bundle bundle = fhirClient.search()
+                .forResource(Appointment.class)
+                .where(Appointment.PRACTITIONER.hasId(practitionerId))
+                .returnBundle(Bundle.class)
+                .execute();
+        
+        List<AppointmentDTO> appointments = extractAppointmentsFromBundle(bundle);
+        appointments.forEach(this::enrichWithNames);
+        
+        return appointments;
+    }
+
+    public List<AppointmentDTO> getAppointmentsByDate(LocalDate date) {
+        Map<String, LocalDate> params = Map.of(Appointment.SP_DATE, date);
+        // Rows carry patient and practitioner names, so writes to either also invalidate them
+        return searchCache.get("Appointment", params, Set.of("Patient", "Practitioner"), dateSearchTtlSeconds,
+                () -> coalescer.search("Appointment", params, () -> searchAppointmentsByDate(date)));
+    }
+
+    private List<AppointmentDTO> searchAppointmentsByDate(LocalDate date) {
+        log.info("Fetching appointments for date: {}", date);
+        
+        Date startOfDay = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date endOfDay = Date.from(date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        
+        Bundle bundle = fhirClient.search()
+                .forResource(Appointment.class)
+                .where(Appointment.DATE.afterOrEquals().day(startOfDay))
+                .where(Appointment.DATE.before().day(endOfDay))
+                .returnBundle(Bundle.class)
+                .execute();
+        
+        List<AppointmentDTO> appointments = extractAppointmentsFromBundle(bundle);
+        appointments.forEach(this::enrichWithNames);
+        
+        return appointments;
+    }
+
+    public AppointmentDTO cancelAppointment(String id, String reason) {
+        return cancelAppointment(id, reason, null);
+    }
+
+    public AppointmentDTO cancelAppointment(String id, String reason, String expectedVersion) {
+        log.info("Cancelling appointment ID: {}", id);
+        
+        AppointmentDTO result = changeStatus(id, "cancelled", reason, expectedVersion, "Appointment cancelled: " + reason);
+        
+        log.info("Appointment cancelled successfully: {}", id);
+        return result;
+    }
+
+    public AppointmentDTO updateStatus(String id, String status, String expectedVersion) {
+        log.info("Changing appointment ID: {} to status {}", id, status);
+        
+        // Validates the code before anything is sent
+        String code = Appointment.AppointmentStatus.fromCode(status.toLowerCase()).toCode();
+        return changeStatus(id, code, null, expectedVersion, "Appointment status changed to " + code);
+    }
+
+    /**
+     * Patches only the status (and cancellation reason) in one round trip. With an expected
+     * version the patch is guarded by If-Match; on 412 the current state is re-checked and the
+     * patch retried against the new version.
+     */
+    private AppointmentDTO changeStatus(String id, String status, String reason, String expectedVersion,
+                                        String description) {
+        String patch = statusPatch(status, reason);
+        String version = expectedVersion;
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Appointment patched = auditService.patchWithAudit(Appointment.class, id, patch, version, description);
+                AppointmentDTO result = appointmentMapper.toDTO(patched);
+                utilisationService.recordAppointment(result);
+                return result;
+            } catch (PreconditionFailedException e) {
+                if (attempt >= statusChangeMaxAttempts) {
+                    throw new RuntimeException("Appointment " + id + " kept changing, status not updated");
+                }
+                
+                Appointment current = fhirClient.read()
+                        .resource(Appointment.class)
+                        .withId(id)
+                        .execute();
+                String currentStatus = current.hasStatus() ? current.getStatus().toCode() : null;
+                if (FINAL_STATUSES.contains(currentStatus)) {
+                    throw new RuntimeException("Appointment " + id + " is already " + currentStatus);
+                }
+                
+                version = current.getIdElement().getVersionIdPart();
+                log.info("Appointment {} changed concurrently, retrying status change at version {}", id, version);
+            }
+        }
+    }
+
+    String statusPatch(String status, String reason) {
+        return statusPatch(status, reason, null);
+    }
+
+    /**
+     * As statusPatch(status, reason), but the server rejects the patch unless the appointment is
+     * still at expectedStatus.
+     */
+    String statusPatch(String status, String reason, String expectedStatus) {
+        ArrayNode operations = objectMapper.createArrayNode();
+        if (expectedStatus != null) {
+            operations.addObject()
+                    .put("op", "test")
+                    .put("path", "/status")
+                    .put("value", expectedStatus);
+        }
+        operations.addObject()
+                .put("op", "replace")
+                .put("path", "/status")
+                .put("value", status);
+        
+        if (reason != null && !reason.isEmpty()) {
+            operations.addObject()
+                    .put("op", "add")
+                    .put("path", "/cancelationReason")
+                    .putObject("value")
+                    .put("text", reason);
+        }
+        
+        return operations.toString();
+    }
+
+    // Async counterparts on the bounded FHIR executor, for callers that overlap round trips
+
+    public CompletableFuture<AppointmentDTO> getAppointmentByIdAsync(String id) {
+        return asyncExecutor.submit("Appointment read " + id, () -> getAppointmentById(id));
+    }
+
+    public CompletableFuture<List<AppointmentDTO>> getAllAppointmentsAsync() {
+        return asyncExecutor.submit("Appointment search", this::getAllAppointments);
+    }
+
+    public CompletableFuture<List<AppointmentDTO>> getAppointmentsByPatientAsync(String patientId) {
+        return asyncExecutor.submit("Appointment search by patient " + patientId, () -> getAppointmentsByPatient(patientId));
+    }
+
+    public CompletableFuture<List<AppointmentDTO>> getAppointmentsByPractitionerAsync(String practitionerId) {
+        return asyncExecutor.submit("Appointment search by practitioner " + practitionerId,
+                () -> getAppointmentsByPractitioner(practitionerId));
+    }
+
+    public CompletableFuture<List<AppointmentDTO>> getAppointmentsByDateAsync(LocalDate date) {
+        return asyncExecutor.submit("Appointment search by date " + date, () -> getAppointmentsByDate(date));
+    }
+
+    public void deleteAppointment(String id) {
+        log.info("Deleting appointment ID: {}", id);
+        
+        auditService.deleteWithAudit("Appointment", id, "Appointment deleted");
+        utilisationService.removeAppointment(id);
+        
+        log.info("Appointment deleted successfully: {}", id);
+    }
+
+    private List<AppointmentDTO> extractAppointmentsFromBundle(Bundle bundle) {
+        List<AppointmentDTO> appointments = new ArrayList<>();
+        
+        if (bundle.hasEntry()) {
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof Appointment) {
+                    Appointment appointment = (Appointment) entry.getResource();
+                    appointments.add(appointmentMapper.toDTO(appointment));
+                }
+            }
+        }
+        
+        log.info("Found {} appointments", appointments.size());
+        return appointments;
+    }
+
+    private void resolveNames(AppointmentDTO appointmentDTO) {
+        try {
+            var patient = patientService.getPatientById(appointmentDTO.getPatientId());
+            appointmentDTO.setPatientName(patient.getFullName());
+        } catch (Exception e) {
+            log.warn("Could not fetch patient name for ID: {}", appointmentDTO.getPatientId());
+        }
+        
+        try {
+            var practitioner = practitionerService.getPractitionerById(appointmentDTO.getPractitionerId());
+            appointmentDTO.setPractitionerName(practitioner.getFullName());
+        } catch (Exception e) {
+            log.warn("Could not fetch practitioner name for ID: {}", appointmentDTO.getPractitionerId());
+        }
+    }
+
+    static List<LocalDate> expandRecurrence(AppointmentDTO appointmentDTO) {
+        ChronoUnit unit = switch (appointmentDTO.getRecurrenceFrequency().toLowerCase()) {
+            case "daily" -> ChronoUnit.DAYS;
+            case "weekly" -> ChronoUnit.WEEKS;
+            case "monthly" -> ChronoUnit.MONTHS;
+            default -> throw new RuntimeException("Unsupported recurrence frequency: " + appointmentDTO.getRecurrenceFrequency());
+        };
+        int interval = appointmentDTO.getRecurrenceInterval() != null ? Math.max(1, appointmentDTO.getRecurrenceInterval()) : 1;
+        
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < appointmentDTO.getRecurrenceCount(); i++) {
+            dates.add(appointmentDTO.getAppointmentDate().plus((long) i * interval, unit));
+        }
+        return dates;
+    }
+
+    private void checkSeriesConflicts(AppointmentDTO appointmentDTO, List<LocalDate> dates) {
+        Date rangeStart = Date.from(dates.get(0).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date rangeEnd = Date.from(dates.get(dates.size() - 1).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        
+        // One search over the whole span of the series instead of one per occurrence
+        List<Appointment> booked = new ArrayList<>();
+        Bundle page = fhirClient.search()
+                .forResource(Appointment.class)
+                .where(Appointment.PRACTITIONER.hasId(appointmentDTO.getPractitionerId()))
+                .where(Appointment.DATE.afterOrEquals().day(rangeStart))
+                .where(Appointment.DATE.before().day(rangeEnd))
+                .elementsSubset("status", "start", "end", "minutesDuration")
+                .returnBundle(Bundle.class)
+                .execute();
+        while (page != null) {
+            for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                if (entry.getResource() instanceof Appointment appointment && appointment.hasStart()
+                        && !NON_BLOCKING_STATUSES.contains(appointment.hasStatus() ? appointment.getStatus().toCode() : null)) {
+                    booked.add(appointment);
+                }
+            }
+            page = page.getLink(IBaseBundle.LINK_NEXT) != null
+                    ? fhirClient.loadPage().next(page).execute()
+                    : null;
+        }
+        
+        TreeSet<LocalDate> conflicts = conflictingDates(appointmentDTO, dates, booked);
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Practitioner is already booked at " + appointmentDTO.getAppointmentTime()
+                    + " on " + conflicts);
+        }
+    }
+
+    // Dates of the series whose slot overlaps, or starts with, one of the booked appointments
+    static TreeSet<LocalDate> conflictingDates(AppointmentDTO appointmentDTO, List<LocalDate> dates, List<Appointment> booked) {
+        int duration = appointmentDTO.getDurationMinutes() != null ? appointmentDTO.getDurationMinutes() : 0;
+        TreeSet<LocalDate> conflicts = new TreeSet<>();
+        for (LocalDate date : dates) {
+            LocalDateTime start = LocalDateTime.of(date, appointmentDTO.getAppointmentTime());
+            LocalDateTime end = start.plusMinutes(duration);
+            for (Appointment other : booked) {
+                LocalDateTime otherStart = LocalDateTime.ofInstant(other.getStart().toInstant(), ZoneId.systemDefault());
+                LocalDateTime otherEnd = other.hasEnd()
+                        ? LocalDateTime.ofInstant(other.getEnd().toInstant(), ZoneId.systemDefault())
+                        : otherStart.plusMinutes(other.getMinutesDuration());
+                if ((start.isBefore(otherEnd) && otherStart.isBefore(end)) || start.equals(otherStart)) {
+                    conflicts.add(date);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private void enrichWithNames(AppointmentDTO dto) {
+        if (dto.getPatientName() == null && dto.getPatientId() != null) {
+            try {
+                var patient = patientService.getPatientById(dto.getPatientId());
+                dto.setPatientName(patient.getFullName());
+            } catch (Exception e) {
+                log.debug("Could not fetch patient name for ID: {}", dto.getPatientId());
+            }
+        }
+        
+        if (dto.getPractitionerName() == null && dto.getPractitionerId() != null) {
+            try {
+                var practitioner = practitionerService.getPractitionerById(dto.getPractitionerId());
+                dto.setPractitionerName(practitioner.getFullName());
+            } catch (Exception e) {
+                log.debug("Could not fetch practitioner name for ID: {}", dto.getPractitionerId());
+            }
+        }
+    }
+}
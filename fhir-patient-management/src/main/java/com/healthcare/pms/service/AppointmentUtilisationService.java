@@ -0,0 +1,311 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.healthcare.pms.dto.AppointmentDTO;
+import com.healthcare.pms.dto.PractitionerUtilisationDTO;
+import com.healthcare.pms.mapper.AppointmentMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.Bundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentUtilisationService {
+
+    private static final Set<String> BOOKED_STATUSES = Set.of("booked", "arrived", "checked-in", "fulfilled");
+
+    // Rough heap cost of one appointment's contribution and of one practitioner-day of totals
+    private static final long ESTIMATED_CONTRIBUTION_BYTES = 200;
+    private static final long ESTIMATED_DAY_BYTES = 150;
+
+    private final IGenericClient fhirClient;
+    private final AppointmentMapper appointmentMapper;
+    private final MemoryBudgetService memoryBudget;
+
+    @Value("${reports.utilisation.capacity-minutes-per-day:480}")
+    private int capacityMinutesPerDay;
+
+    @Value("${reports.utilisation.backfill-page-size:200}")
+    private int backfillPageSize;
+
+    // practitionerId -> day -> totals; the sorted inner map makes a date range a subMap view
+    private final Map<String, NavigableMap<LocalDate, DayTotals>> totalsByPractitioner = new ConcurrentHashMap<>();
+    // appointmentId -> what that appointment currently adds, so updates and cancellations can be reversed
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private final Map<String, String> practitionerNames = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "utilisation-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile LocalDateTime lastBackfill;
+
+    // Set when the memory budget dropped the oldest days; appointments on or before it are no longer counted
+    private volatile LocalDate droppedThrough;
+
+    private record Contribution(String practitionerId, LocalDate date, DayTotals totals) {
+    }
+
+    private record DayTotals(int appointments, int bookedMinutes, int noShows, int cancellations) {
+
+        DayTotals plus(DayTotals other) {
+            return new DayTotals(appointments + other.appointments, bookedMinutes + other.bookedMinutes,
+                    noShows + other.noShows, cancellations + other.cancellations);
+        }
+
+        DayTotals minus(DayTotals other) {
+            return new DayTotals(appointments - other.appointments, bookedMinutes - other.bookedMinutes,
+                    noShows - other.noShows, cancellations - other.cancellations);
+        }
+
+        boolean isEmpty() {
+            return appointments <= 0;
+        }
+    }
+
+    @PostConstruct
+    public void registerWithBudget() {
+        memoryBudget.register("utilisation totals", new MemoryBudgetService.BudgetedCache() {
+            @Override
+            public long estimatedBytes() {
+                long days = totalsByPractitioner.values().stream().mapToLong(Map::size).sum();
+                return contributions.size() * ESTIMATED_CONTRIBUTION_BYTES + days * ESTIMATED_DAY_BYTES;
+            }
+
+            @Override
+            public void shrink(long bytes) {
+                dropOldestDays(bytes);
+            }
+        });
+    }
+
+    public synchronized void recordAppointment(AppointmentDTO appointment) {
+        if (appointment == null || appointment.getId() == null) {
+            return;
+        }
+
+        removeContribution(appointment.getId());
+
+        if (appointment.getPractitionerId() == null || appointment.getAppointmentDate() == null) {
+            return;
+        }
+        // A day already dropped would otherwise come back holding only this appointment
+        LocalDate dropped = droppedThrough;
+        if (dropped != null && !appointment.getAppointmentDate().isAfter(dropped)) {
+            return;
+        }
+
+        String status = appointment.getStatus() != null ? appointment.getStatus().toLowerCase() : "";
+        int minutes = appointment.getDurationMinutes() != null ? appointment.getDurationMinutes() : 0;
+        DayTotals totals = new DayTotals(1,
+                BOOKED_STATUSES.contains(status) ? minutes : 0,
+                "noshow".equals(status) ? 1 : 0,
+                "cancelled".equals(status) ? 1 : 0);
+
+        addContribution(appointment.getId(),
+                new Contribution(appointment.getPractitionerId(), appointment.getAppointmentDate(), totals));
+
+        if (appointment.getPractitionerName() != null) {
+            practitionerNames.put(appointment.getPractitionerId(), appointment.getPractitionerName());
+        }
+    }
+
+    /**
+     * Counts a known appointment as cancelled when the write was confirmed without returning the
+     * updated resource; it stays on its day, with no booked minutes.
+     */
+    public synchronized void recordCancellation(String appointmentId) {
+        Contribution previous = contributions.get(appointmentId);
+        if (previous == null) {
+            return;
+        }
+        removeContribution(appointmentId);
+        addContribution(appointmentId, new Contribution(previous.practitionerId(), previous.date(), new DayTotals(1, 0, 0, 1)));
+    }
+
+    public synchronized void removeAppointment(String appointmentId) {
+        removeContribution(appointmentId);
+    }
+
+    public List<PractitionerUtilisationDTO> getUtilisation(LocalDate from, LocalDate to) {
+        List<PractitionerUtilisationDTO> rows = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return rows;
+        }
+
+        totalsByPractitioner.forEach((practitionerId, days) -> {
+            NavigableMap<LocalDate, DayTotals> range = days.subMap(from, true, to, true);
+            if (range.isEmpty()) {
+                return;
+            }
+            DayTotals sum = range.values().stream().reduce(new DayTotals(0, 0, 0, 0), DayTotals::plus);
+            rows.add(toDTO(practitionerId, null, sum, range.size()));
+        });
+
+        rows.sort(Comparator.comparing(PractitionerUtilisationDTO::getUtilisationPercent).reversed());
+        return rows;
+    }
+
+    public List<PractitionerUtilisationDTO> getDailyUtilisation(String practitionerId, LocalDate from, LocalDate to) {
+        List<PractitionerUtilisationDTO> rows = new ArrayList<>();
+
+        NavigableMap<LocalDate, DayTotals> days = totalsByPractitioner.get(practitionerId);
+        if (days != null && !from.isAfter(to)) {
+            days.subMap(from, true, to, true)
+                    .forEach((date, totals) -> rows.add(toDTO(practitionerId, date, totals, 1)));
+        }
+
+        return rows;
+    }
+
+    public LocalDateTime getLastBackfill() {
+        return lastBackfill;
+    }
+
+    public boolean isBackfillRunning() {
+        return backfillRunning.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            log.info("Utilisation backfill already running");
+            return;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                backfill();
+            } catch (Exception e) {
+                log.error("Utilisation backfill failed", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+    }
+
+    private void backfill() {
+        log.info("Starting appointment utilisation backfill");
+
+        Set<String> staleIds = new HashSet<>(contributions.keySet());
+        int processed = 0;
+
+        Bundle page = fhirClient.search()
+                .forResource(Appointment.class)
+                .count(backfillPageSize)
+                .returnBundle(Bundle.class)
+                .execute();
+
+        while (page != null) {
+            for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof Appointment) {
+                    AppointmentDTO dto = appointmentMapper.toDTO((Appointment) entry.getResource());
+                    recordAppointment(dto);
+                    staleIds.remove(dto.getId());
+                    processed++;
+                }
+            }
+
+            page = page.getLink(IBaseBundle.LINK_NEXT) != null
+                    ? fhirClient.loadPage().next(page).execute()
+                    : null;
+        }
+
+        // Anything we knew about before the walk but did not see on the server has been deleted
+        staleIds.forEach(this::removeAppointment);
+
+        lastBackfill = LocalDateTime.now();
+        log.info("Utilisation backfill complete: {} appointments, {} removed", processed, staleIds.size());
+    }
+
+    // Oldest days first, across all practitioners, whole days at a time
+    private synchronized void dropOldestDays(long bytes) {
+        NavigableMap<LocalDate, Integer> appointmentsPerDay = new TreeMap<>();
+        contributions.values().forEach(contribution -> appointmentsPerDay.merge(contribution.date(), 1, Integer::sum));
+
+        long freed = 0;
+        LocalDate cutoff = null;
+        for (Map.Entry<LocalDate, Integer> day : appointmentsPerDay.entrySet()) {
+            if (freed >= bytes) {
+                break;
+            }
+            freed += day.getValue() * ESTIMATED_CONTRIBUTION_BYTES + ESTIMATED_DAY_BYTES;
+            cutoff = day.getKey();
+        }
+        if (cutoff == null) {
+            return;
+        }
+
+        LocalDate through = cutoff;
+        contributions.values().removeIf(contribution -> !contribution.date().isAfter(through));
+        totalsByPractitioner.values().forEach(days -> days.headMap(through, true).clear());
+        droppedThrough = droppedThrough == null || through.isAfter(droppedThrough) ? through : droppedThrough;
+        log.warn("Utilisation totals up to {} dropped to stay within the memory budget", through);
+    }
+
+    private void addContribution(String appointmentId, Contribution contribution) {
+        contributions.put(appointmentId, contribution);
+        totalsByPractitioner
+                .computeIfAbsent(contribution.practitionerId(), id -> new ConcurrentSkipListMap<>())
+                .merge(contribution.date(), contribution.totals(), DayTotals::plus);
+    }
+
+    private void removeContribution(String appointmentId) {
+        Contribution previous = contributions.remove(appointmentId);
+        if (previous == null) {
+            return;
+        }
+
+        NavigableMap<LocalDate, DayTotals> days = totalsByPractitioner.get(previous.practitionerId());
+        if (days != null) {
+            days.computeIfPresent(previous.date(), (date, totals) -> {
+                DayTotals remaining = totals.minus(previous.totals());
+                return remaining.isEmpty() ? null : remaining;
+            });
+        }
+    }
+
+    private PractitionerUtilisationDTO toDTO(String practitionerId, LocalDate date, DayTotals totals, int workingDays) {
+        return new PractitionerUtilisationDTO(
+                practitionerId,
+                practitionerNames.getOrDefault(practitionerId, practitionerId),
+                date,
+                totals.appointments(),
+                totals.bookedMinutes(),
+                workingDays * capacityMinutesPerDay,
+                totals.noShows(),
+                totals.cancellations());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+}
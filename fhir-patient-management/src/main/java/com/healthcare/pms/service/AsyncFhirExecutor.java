@@ -0,0 +1,92 @@
+package com.healthcare.pms.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool behind the services' async read and search methods.
+ *
+ * Every call gets a timeout. Cancelling the returned future, or letting it time out, also cancels
+ * the underlying task: a queued call never starts. A running one is not interrupted, because
+ * through the request coalescer it may be serving other callers too; it finishes within the client
+ * timeout and its result is dropped.
+ */
+@Service
+@Slf4j
+public class AsyncFhirExecutor {
+
+    @Value("${async.max-threads:16}")
+    private int maxThreads;
+
+    @Value("${async.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${async.timeout-ms:10000}")
+    private long defaultTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fhir-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> submit(String description, Supplier<T> call) {
+        return submit(description, call, defaultTimeoutMs);
+    }
+
+    public <T> CompletableFuture<T> submit(String description, Supplier<T> call, long timeoutMs) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full: fail fast rather than pile up more waiting work
+            result.completeExceptionally(new RuntimeException("Too many concurrent FHIR requests, rejected: " + description));
+            return result;
+        }
+
+        result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                if (error instanceof TimeoutException) {
+                    log.warn("{} timed out after {} ms", description, timeoutMs);
+                }
+                task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,412 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.AuditRollupDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hourly rollup of audit events kept in the application, so range aggregations
+ * never have to page through AuditEvent resources on the FHIR server.
+ *
+ * Each bucket is a single long key: hour since epoch (32 bits) | action (8) | resource type (12) | agent (12).
+ * Keys therefore sort by hour first and a time range is one subMap scan.
+ *
+ * New counts are appended to a local journal every flush interval and replayed at startup, so a
+ * restart keeps the retention window; the journal is rewritten from the rollups at startup and
+ * whenever it has grown well past them. The store only knows about events recorded since it was
+ * first created, which getCoveredSince reports. It stays out of the memory budget: it is a few MB
+ * at most, and dropping hours inside the retention window would quietly falsify the report.
+ */
+@Service
+@Slf4j
+public class AuditAnalyticsService {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final int ACTION_BITS = 8;
+    private static final int RESOURCE_TYPE_BITS = 12;
+    private static final int AGENT_BITS = 12;
+
+    private static final String SINCE = "since";
+
+    private final NavigableMap<Long, LongAdder> rollups = new ConcurrentSkipListMap<>();
+    private final Dictionary actions = new Dictionary(1 << ACTION_BITS);
+    private final Dictionary resourceTypes = new Dictionary(1 << RESOURCE_TYPE_BITS);
+    private final Dictionary agents = new Dictionary(1 << AGENT_BITS);
+
+    @Value("${audit.analytics.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${audit.analytics.journal-file:${user.home}/.pms/audit/rollups.journal}")
+    private String journalFile;
+
+    @Value("${audit.analytics.flush-seconds:60}")
+    private int flushSeconds;
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-rollup-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Held across a whole flush, so an append never lands after a rewrite that already counted it
+    private final Object journalLock = new Object();
+
+    // Counts recorded since the last flush, guarded by this; null until the journal is loaded
+    private Map<Long, Long> unflushed;
+    private long journalLines;
+    private volatile long coveredFromHour;
+
+    private volatile long lastPrunedHour;
+
+    @PostConstruct
+    public void init() {
+        Path journal = Paths.get(journalFile);
+        try {
+            load(journal);
+        } catch (IOException e) {
+            // Counting still works, it just won't survive a restart
+            log.warn("Could not load audit rollup journal {}; rollups will not be persisted: {}", journal, e.getMessage());
+            return;
+        }
+        flushExecutor.scheduleWithFixedDelay(() -> flush(journal), flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        if (unflushed != null) {
+            flush(Paths.get(journalFile));
+        }
+    }
+
+    public void record(String action, String resourceType, String agentName, Instant recorded) {
+        long hour = recorded.toEpochMilli() / MILLIS_PER_HOUR;
+        long key = encode(hour, actions.idOf(normalise(action)), resourceTypes.idOf(resourceType), agents.idOf(agentName));
+
+        synchronized (this) {
+            rollups.computeIfAbsent(key, k -> new LongAdder()).increment();
+            if (unflushed != null) {
+                unflushed.merge(key, 1L, Long::sum);
+            }
+        }
+
+        if (hour != lastPrunedHour) {
+            lastPrunedHour = hour;
+            long cutoffHour = hour - retentionDays * 24L;
+            rollups.headMap(cutoffHour << 32).clear();
+        }
+    }
+
+    public List<AuditRollupDTO> getHourlyCounts(LocalDateTime from, LocalDateTime to,
+                                                String action, String resourceType, String agentName) {
+        int actionId = action == null ? -1 : actions.find(normalise(action));
+        int resourceTypeId = resourceType == null ? -1 : resourceTypes.find(resourceType);
+        int agentId = agentName == null ? -1 : agents.find(agentName);
+
+        List<AuditRollupDTO> rows = new ArrayList<>();
+        if (actionId == 0 || resourceTypeId == 0 || agentId == 0) {
+            return rows; // filter value never recorded
+        }
+
+        // Keys are sorted by hour, then action, resource type and agent; clearing the agent bits
+        // keeps that order, so the grouped map stays in chronological order.
+        Map<Long, Long> grouped = new LinkedHashMap<>();
+        range(from, to).forEach((key, count) -> {
+            if ((actionId > 0 && actionOf(key) != actionId)
+                    || (resourceTypeId > 0 && resourceTypeOf(key) != resourceTypeId)
+                    || (agentId > 0 && agentOf(key) != agentId)) {
+                return;
+            }
+            long groupKey = agentId > 0 ? key : key & ~((1L << AGENT_BITS) - 1);
+            grouped.merge(groupKey, count.sum(), Long::sum);
+        });
+
+        grouped.forEach((key, count) -> rows.add(new AuditRollupDTO(
+                toLocalDateTime(hourOf(key)),
+                actions.valueOf(actionOf(key)),
+                resourceTypes.valueOf(resourceTypeOf(key)),
+                agentId > 0 ? agents.valueOf(agentOf(key)) : null,
+                count)));
+
+        return rows;
+    }
+
+    public Map<String, Long> getTotals(LocalDateTime from, LocalDateTime to, String dimension) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+
+        range(from, to).forEach((key, count) -> {
+            String value = switch (dimension) {
+                case "action" -> actions.valueOf(actionOf(key));
+                case "resourceType" -> resourceTypes.valueOf(resourceTypeOf(key));
+                case "agent" -> agents.valueOf(agentOf(key));
+                default -> throw new IllegalArgumentException("Unknown audit dimension: " + dimension);
+            };
+            totals.merge(value, count.sum(), Long::sum);
+        });
+
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    /**
+     * Start of the earliest hour the rollups cover; counts before it were never recorded here.
+     */
+    public LocalDateTime getCoveredSince() {
+        long cutoffHour = System.currentTimeMillis() / MILLIS_PER_HOUR - retentionDays * 24L;
+        return toLocalDateTime(Math.max(coveredFromHour, cutoffHour));
+    }
+
+    private void load(Path journal) throws IOException {
+        long currentHour = System.currentTimeMillis() / MILLIS_PER_HOUR;
+        long cutoffHour = currentHour - retentionDays * 24L;
+        long from = currentHour;
+        int skipped = 0;
+
+        if (Files.exists(journal)) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    try {
+                        if (fields.length == 2 && SINCE.equals(fields[0])) {
+                            from = Long.parseLong(fields[1]);
+                        } else if (fields.length == 5) {
+                            long hour = Long.parseLong(fields[0]);
+                            if (hour >= cutoffHour) {
+                                long key = encode(hour, actions.idOf(emptyToNull(fields[1])),
+                                        resourceTypes.idOf(emptyToNull(fields[2])), agents.idOf(emptyToNull(fields[3])));
+                                rollups.computeIfAbsent(key, k -> new LongAdder()).add(Long.parseLong(fields[4]));
+                            }
+                        } else {
+                            skipped++;
+                        }
+                    } catch (NumberFormatException e) {
+                        skipped++;
+                    }
+                }
+            }
+        }
+
+        coveredFromHour = from;
+        synchronized (journalLock) {
+            synchronized (this) {
+                unflushed = new HashMap<>();
+            }
+            rewrite(journal, snapshot());
+        }
+        log.info("Audit rollups loaded: {} buckets since {}{}", rollups.size(), toLocalDateTime(from),
+                skipped > 0 ? ", " + skipped + " unreadable journal lines skipped" : "");
+    }
+
+    private void flush(Path journal) {
+        synchronized (journalLock) {
+            Map<Long, Long> batch;
+            Map<Long, Long> compacted = null;
+            synchronized (this) {
+                batch = unflushed;
+                unflushed = new HashMap<>();
+                // Rewritten rather than appended once the journal is mostly superseded lines
+                if (journalLines + batch.size() > 2L * rollups.size() + 1000) {
+                    compacted = snapshot();
+                }
+            }
+
+            try {
+                if (compacted != null) {
+                    rewrite(journal, compacted);
+                } else if (!batch.isEmpty()) {
+                    append(journal, batch);
+                }
+            } catch (IOException e) {
+                // Put the counts back so the next flush tries again
+                synchronized (this) {
+                    batch.forEach((key, count) -> unflushed.merge(key, count, Long::sum));
+                }
+                log.warn("Could not write audit rollup journal {}: {}", journal, e.getMessage());
+            }
+        }
+    }
+
+    // Callers hold this or the journal lock, so no increment is half in the copy and half in unflushed
+    private Map<Long, Long> snapshot() {
+        Map<Long, Long> copy = new LinkedHashMap<>();
+        rollups.forEach((key, count) -> copy.put(key, count.sum()));
+        return copy;
+    }
+
+    private void append(Path journal, Map<Long, Long> counts) throws IOException {
+        try (FileChannel channel = PrivateFiles.open(journal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+            writeLines(writer, counts);
+            writer.flush();
+            channel.force(false);
+        }
+        journalLines += counts.size();
+    }
+
+    private void rewrite(Path journal, Map<Long, Long> counts) throws IOException {
+        PrivateFiles.createDirectories(journal.toAbsolutePath().getParent());
+        // Write then rename, so a crash never leaves a half-written journal
+        Path temp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try (FileChannel channel = PrivateFiles.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(SINCE + "\t" + coveredFromHour + "\n");
+            writeLines(writer, counts);
+            writer.flush();
+            channel.force(false);
+        }
+        Files.move(temp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journalLines = counts.size();
+    }
+
+    // One line per bucket: hour, action, resource type, agent, count; "other" is written empty
+    private void writeLines(Writer writer, Map<Long, Long> counts) throws IOException {
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            long key = entry.getKey();
+            writer.write(hourOf(key) + "\t"
+                    + journalValue(actions, actionOf(key)) + "\t"
+                    + journalValue(resourceTypes, resourceTypeOf(key)) + "\t"
+                    + journalValue(agents, agentOf(key)) + "\t"
+                    + entry.getValue() + "\n");
+        }
+    }
+
+    private static String journalValue(Dictionary dictionary, int id) {
+        return id == 0 ? "" : dictionary.valueOf(id).replaceAll("[\\t\\r\\n]", " ");
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private NavigableMap<Long, LongAdder> range(LocalDateTime from, LocalDateTime to) {
+        long fromHour = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / MILLIS_PER_HOUR;
+        long toHour = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / MILLIS_PER_HOUR;
+        if (fromHour > toHour) {
+            return Collections.emptyNavigableMap();
+        }
+        return rollups.subMap(fromHour << 32, true, (toHour + 1) << 32, false);
+    }
+
+    private static long encode(long hour, int action, int resourceType, int agent) {
+        return (hour << 32)
+                | ((long) action << (RESOURCE_TYPE_BITS + AGENT_BITS))
+                | ((long) resourceType << AGENT_BITS)
+                | agent;
+    }
+
+    private static long hourOf(long key) {
+        return key >>> 32;
+    }
+
+    private static int actionOf(long key) {
+        return (int) (key >>> (RESOURCE_TYPE_BITS + AGENT_BITS)) & ((1 << ACTION_BITS) - 1);
+    }
+
+    private static int resourceTypeOf(long key) {
+        return (int) (key >>> AGENT_BITS) & ((1 << RESOURCE_TYPE_BITS) - 1);
+    }
+
+    private static int agentOf(long key) {
+        return (int) key & ((1 << AGENT_BITS) - 1);
+    }
+
+    private static LocalDateTime toLocalDateTime(long hour) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(hour * MILLIS_PER_HOUR), ZoneId.systemDefault());
+    }
+
+    private static String normalise(String action) {
+        return action == null ? null : action.toLowerCase();
+    }
+
+    /**
+     * Interns dimension values to small ids. Id 0 is reserved for unknown/overflow values.
+     */
+    private static final class Dictionary {
+
+        private static final String OTHER = "other";
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final int capacity;
+
+        Dictionary(int capacity) {
+            this.capacity = capacity;
+            values.add(OTHER);
+        }
+
+        int idOf(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            synchronized (this) {
+                id = ids.get(value);
+                if (id == null) {
+                    if (values.size() >= capacity) {
+                        log.warn("Audit analytics dictionary full, counting '{}' as '{}'", value, OTHER);
+                        return 0;
+                    }
+                    id = values.size();
+                    values.add(value);
+                    ids.put(value, id);
+                }
+                return id;
+            }
+        }
+
+        int find(String value) {
+            return ids.getOrDefault(value, 0);
+        }
+
+        synchronized String valueOf(int id) {
+            return id < values.size() ? values.get(id) : OTHER;
+        }
+    }
+}
@@ -0,0 +1,651 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.PreferReturnEnum;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.gclient.ICreateTyped;
+import ca.uhn.fhir.rest.gclient.IPatchExecutable;
+import ca.uhn.fhir.rest.gclient.IUpdateExecutable;
+import com.healthcare.pms.dto.AuditEventDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditService {
+
+    private static final String SYSTEM_AGENT = "System User";
+
+    public record CreateResult<T extends Resource>(T resource, boolean created) {
+    }
+
+    private final IGenericClient fhirClient;
+    private final DashboardStatsService dashboardStatsService;
+    private final AuditAnalyticsService auditAnalyticsService;
+    private final AsyncFhirExecutor asyncExecutor;
+    private final SearchResultCache searchCache;
+
+    // When enabled, a resource write and its AuditEvent go to the server as one transaction Bundle
+    @Value("${audit.transactional-writes:false}")
+    private boolean transactionalWrites;
+
+    @Value("${cache.search.audit-events-ttl-seconds:10}")
+    private long auditEventsTtlSeconds;
+
+    public void createAuditEvent(String action, String resourceType, String resourceId, String description) {
+        log.info("Creating audit event: {} on {} {}", action, resourceType, resourceId);
+        // The resource itself is already written, so its searches are stale even if auditing fails
+        searchCache.invalidate(resourceType);
+        
+        try {
+            Date recorded = new Date();
+            AuditEvent auditEvent = buildAuditEvent(action, resourceType, resourceType + "/" + resourceId,
+                    description, recorded);
+            
+            // Save to FHIR server
+            fhirClient.create()
+                    .resource(auditEvent)
+                    .execute();
+            
+            recordAudited(action, resourceType, recorded);
+            log.info("Audit event created successfully");
+            
+        } catch (Exception e) {
+            log.error("Failed to create audit event", e);
+            // Don't throw exception - audit failure shouldn't break business logic
+        }
+    }
+
+    public void createAuditEvents(String action, String resourceType, List<String> resourceIds, String description) {
+        if (resourceIds.isEmpty()) {
+            return;
+        }
+        log.info("Creating {} audit events: {} on {}", resourceIds.size(), action, resourceType);
+        searchCache.invalidate(resourceType);
+        
+        try {
+            Date recorded = new Date();
+            
+            // One batch round trip for the whole set instead of one create per resource
+            Bundle bundle = new Bundle();
+            bundle.setType(Bundle.BundleType.BATCH);
+            for (String resourceId : resourceIds) {
+                bundle.addEntry()
+                        .setResource(buildAuditEvent(action, resourceType, resourceType + "/" + resourceId,
+                                description, recorded))
+                        .getRequest()
+                        .setMethod(Bundle.HTTPVerb.POST)
+                        .setUrl("AuditEvent");
+            }
+            
+            fhirClient.transaction()
+                    .withBundle(bundle)
+                    .execute();
+            
+            for (int i = 0; i < resourceIds.size(); i++) {
+                recordAudited(action, resourceType, recorded);
+            }
+            log.info("{} audit events created successfully", resourceIds.size());
+            
+        } catch (Exception e) {
+            log.error("Failed to create audit events", e);
+            // Don't throw exception - audit failure shouldn't break business logic
+        }
+    }
+
+    /**
+     * Audits a bulk export file being served. The entity is the exported resource type rather than
+     * one resource, and unlike other audit events a failure is thrown, so the caller can refuse to
+     * hand out unaudited patient data.
+     */
+    public void createExportAuditEvent(String resourceType, String description) {
+        log.info("Creating audit event: export of {}", resourceType);
+        Date recorded = new Date();
+
+        fhirClient.create()
+                .resource(buildAuditEvent("export", resourceType, null, description, recorded))
+                .execute();
+
+        // Nothing was written, so only the audit searches are stale
+        searchCache.invalidate("AuditEvent");
+        dashboardStatsService.recordCreated("AuditEvent");
+        auditAnalyticsService.record("export", resourceType, SYSTEM_AGENT, recorded.toInstant());
+    }
+
+    public <T extends Resource> T createWithAudit(T resource, String description) {
+        return createWithAudit(resource, null, description).resource();
+    }
+
+    /**
+     * Creates the resource and its audit event. When ifNoneExist is given the create is
+     * conditional, and a match returns the existing resource with created=false; a match is
+     * audited as a read of the existing resource, not as a create.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> CreateResult<T> createWithAudit(T resource, String ifNoneExist, String description) {
+        String resourceType = resource.fhirType();
+        
+        // A transaction would commit its audit entry before knowing whether the conditional create
+        // matched, so conditional creates are always sent alone and audited with the right action
+        if (!transactionalWrites || ifNoneExist != null) {
+            ICreateTyped create = fhirClient.create()
+                    .resource(resource);
+            if (ifNoneExist != null) {
+                create = create.conditionalByUrl(resourceType + "?" + ifNoneExist);
+            }
+            MethodOutcome outcome = create.execute();
+            
+            boolean created = !Boolean.FALSE.equals(outcome.getCreated());
+            T result = (T) outcome.getResource();
+            if (result == null) {
+                result = (T) fhirClient.read()
+                        .resource(resource.getClass())
+                        .withId(outcome.getId().getIdPart())
+                        .execute();
+            }
+            if (created) {
+                createAuditEvent("create", resourceType, result.getIdElement().getIdPart(), description);
+            } else {
+                createAuditEvent("read", resourceType, result.getIdElement().getIdPart(),
+                        "Matched existing " + resourceType + " instead of creating a duplicate");
+            }
+            return new CreateResult<>(result, created);
+        }
+        
+        // The audit entity points at the new resource's urn:uuid fullUrl; the server rewrites it to the assigned id.
+        String fullUrl = "urn:uuid:" + UUID.randomUUID();
+        Date recorded = new Date();
+        
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.TRANSACTION);
+        bundle.addEntry()
+                .setFullUrl(fullUrl)
+                .setResource(resource)
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.POST)
+                .setUrl(resourceType);
+        addAuditEntry(bundle, "create", resourceType, fullUrl, description, recorded);
+        
+        Bundle response = fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+        
+        T result = resultOf(resource, response.getEntryFirstRep());
+        recordAudited("create", resourceType, recorded);
+        log.info("Created {} {} with audit in one transaction", resourceType, result.getIdElement().getIdPart());
+        return new CreateResult<>(result, true);
+    }
+
+    /**
+     * Creates every resource, each with its audit event, in one transaction: either all are
+     * created or none are.
+     */
+    public <T extends Resource> List<T> createAllWithAudit(List<T> resources, String description) {
+        Date recorded = new Date();
+        
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.TRANSACTION);
+        List<String> fullUrls = new ArrayList<>();
+        for (T resource : resources) {
+            String fullUrl = "urn:uuid:" + UUID.randomUUID();
+            fullUrls.add(fullUrl);
+            bundle.addEntry()
+                    .setFullUrl(fullUrl)
+                    .setResource(resource)
+                    .getRequest()
+                    .setMethod(Bundle.HTTPVerb.POST)
+                    .setUrl(resource.fhirType());
+        }
+        for (int i = 0; i < resources.size(); i++) {
+            addAuditEntry(bundle, "create", resources.get(i).fhirType(), fullUrls.get(i), description, recorded);
+        }
+        
+        Bundle response = fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+        
+        List<T> created = new ArrayList<>();
+        for (int i = 0; i < resources.size(); i++) {
+            created.add(resultOf(resources.get(i), response.getEntry().get(i)));
+            recordAudited("create", resources.get(i).fhirType(), recorded);
+        }
+        log.info("Created {} resources with audit in one transaction", created.size());
+        return created;
+    }
+
+    public <T extends Resource> T updateWithAudit(T resource, String description) {
+        return updateWithAudit(resource, null, description);
+    }
+
+    /**
+     * Updates the resource only if it is still at ifMatchVersion; a concurrent change fails
+     * with PreconditionFailedException (412) instead of being overwritten.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> T updateWithAudit(T resource, String ifMatchVersion, String description) {
+        String resourceType = resource.fhirType();
+        String id = resource.getIdElement().getIdPart();
+        
+        if (!transactionalWrites) {
+            IUpdateExecutable update = fhirClient.update()
+                    .resource(resource);
+            if (ifMatchVersion != null) {
+                update = update.withAdditionalHeader(Constants.HEADER_IF_MATCH, etag(ifMatchVersion));
+            }
+            MethodOutcome outcome = update.execute();
+            
+            T updated = (T) outcome.getResource();
+            createAuditEvent("update", resourceType, id, description);
+            return updated;
+        }
+        
+        Date recorded = new Date();
+        
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.TRANSACTION);
+        bundle.addEntry()
+                .setResource(resource)
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.PUT)
+                .setUrl(resourceType + "/" + id)
+                .setIfMatch(ifMatchVersion != null ? etag(ifMatchVersion) : null);
+        addAuditEntry(bundle, "update", resourceType, resourceType + "/" + id, description, recorded);
+        
+        Bundle response = fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+        
+        T updated = resultOf(resource, response.getEntryFirstRep());
+        recordAudited("update", resourceType, recorded);
+        log.info("Updated {} {} with audit in one transaction", resourceType, id);
+        return updated;
+    }
+
+    /**
+     * Applies a JSON Patch to the resource, so only the changed elements go over the wire and
+     * there is no read before the write. ifMatchVersion, when given, guards it like a versioned update.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> T patchWithAudit(Class<T> resourceClass, String id, String jsonPatch,
+                                                 String ifMatchVersion, String description) {
+        String resourceType = resourceClass.getSimpleName();
+        
+        if (!transactionalWrites) {
+            IPatchExecutable patch = fhirClient.patch()
+                    .withBody(jsonPatch)
+                    .withId(new IdType(resourceType, id))
+                    .prefer(PreferReturnEnum.REPRESENTATION);
+            if (ifMatchVersion != null) {
+                patch = patch.withAdditionalHeader(Constants.HEADER_IF_MATCH, etag(ifMatchVersion));
+            }
+            MethodOutcome outcome = patch.execute();
+            
+            T patched = outcome.getResource() != null
+                    ? (T) outcome.getResource()
+                    : fhirClient.read().resource(resourceClass).withId(id).execute();
+            createAuditEvent("update", resourceType, id, description);
+            return patched;
+        }
+        
+        Date recorded = new Date();
+        
+        // Inside a Bundle a JSON Patch travels as a Binary entry
+        Binary body = new Binary();
+        body.setContentType(Constants.CT_JSON_PATCH);
+        body.setData(jsonPatch.getBytes(StandardCharsets.UTF_8));
+        
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.TRANSACTION);
+        bundle.addEntry()
+                .setResource(body)
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.PATCH)
+                .setUrl(resourceType + "/" + id)
+                .setIfMatch(ifMatchVersion != null ? etag(ifMatchVersion) : null);
+        addAuditEntry(bundle, "update", resourceType, resourceType + "/" + id, description, recorded);
+        
+        Bundle response = fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+        
+        Bundle.BundleEntryComponent entry = response.getEntryFirstRep();
+        T patched = resourceClass.isInstance(entry.getResource())
+                ? (T) entry.getResource()
+                : fhirClient.read().resource(resourceClass).withId(id).execute();
+        recordAudited("update", resourceType, recorded);
+        log.info("Patched {} {} with audit in one transaction", resourceType, id);
+        return patched;
+    }
+
+    public void deleteWithAudit(String resourceType, String id, String description) {
+        if (!transactionalWrites) {
+            fhirClient.delete()
+                    .resourceById(resourceType, id)
+                    .execute();
+            
+            createAuditEvent("delete", resourceType, id, description);
+            return;
+        }
+        
+        Date recorded = new Date();
+        
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.TRANSACTION);
+        bundle.addEntry()
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.DELETE)
+                .setUrl(resourceType + "/" + id);
+        addAuditEntry(bundle, "delete", resourceType, resourceType + "/" + id, description, recorded);
+        
+        fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+        
+        recordAudited("delete", resourceType, recorded);
+        log.info("Deleted {} {} with audit in one transaction", resourceType, id);
+    }
+
+    private void addAuditEntry(Bundle bundle, String action, String resourceType, String reference,
+                               String description, Date recorded) {
+        bundle.addEntry()
+                .setResource(buildAuditEvent(action, resourceType, reference, description, recorded))
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.POST)
+                .setUrl("AuditEvent");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Resource> T resultOf(T submitted, Bundle.BundleEntryComponent entry) {
+        if (entry.hasResource()) {
+            return (T) entry.getResource();
+        }
+        // Server returned only the location (Prefer: return=minimal); keep what we sent with the assigned id
+        submitted.setId(new IdType(entry.getResponse().getLocation()));
+        return submitted;
+    }
+
+    private String etag(String version) {
+        return "W/\"" + version + "\"";
+    }
+
+    private void recordAudited(String action, String resourceType, Date recorded) {
+        searchCache.invalidate(resourceType);
+        searchCache.invalidate("AuditEvent");
+        dashboardStatsService.recordCreated("AuditEvent");
+        auditAnalyticsService.record(action, resourceType, SYSTEM_AGENT, recorded.toInstant());
+    }
+
+    private AuditEvent buildAuditEvent(String action, String resourceType, String reference,
+                                       String description, Date recorded) {
+        AuditEvent auditEvent = new AuditEvent();
+        
+        // Type - what was done
+        auditEvent.setType(new Coding()
+                .setSystem("http://terminology.hl7.org/CodeSystem/audit-event-type")
+                .setCode("rest")
+                .setDisplay("RESTful Operation"));
+        
+        // Subtype - specific action
+        auditEvent.addSubtype(new Coding()
+                .setSystem("http://hl7.org/fhir/restful-interaction")
+                .setCode(action)
+                .setDisplay(capitalize(action)));
+        
+        // Action
+        auditEvent.setAction(getAuditEventAction(action));
+        
+        // Recorded time
+        auditEvent.setRecorded(recorded);
+        
+        // Outcome
+        auditEvent.setOutcome(AuditEvent.AuditEventOutcome._0); // Success
+        auditEvent.setOutcomeDesc(description);
+        
+        // Agent (who performed the action)
+        AuditEvent.AuditEventAgentComponent agent = new AuditEvent.AuditEventAgentComponent();
+        agent.setRequestor(true);
+        
+        CodeableConcept agentType = new CodeableConcept();
+        agentType.addCoding()
+                .setSystem("http://terminology.hl7.org/CodeSystem/extra-security-role-type")
+                .setCode("humanuser")
+                .setDisplay("Human User");
+        agent.setType(agentType);
+        
+        // Who (can be enhanced with actual user from security context)
+        Reference whoRef = new Reference();
+        whoRef.setDisplay(SYSTEM_AGENT);
+        agent.setWho(whoRef);
+        
+        auditEvent.addAgent(agent);
+        
+        // Source (system that recorded the event)
+        AuditEvent.AuditEventSourceComponent source = new AuditEvent.AuditEventSourceComponent();
+        Reference observerRef = new Reference();
+        observerRef.setDisplay("Patient Management System");
+        source.setObserver(observerRef);
+        
+        
+        Coding sourceType = new Coding();
+        sourceType.setSystem("http://terminology.hl7.org/CodeSystem/security-source-type")
+                .setCode("4")
+                .setDisplay("Application Server");
+        source.addType(sourceType);
+        
+        auditEvent.setSource(source);
+        
+        // Entity (what was affected); a whole resource type has no reference
+        AuditEvent.AuditEventEntityComponent entity = new AuditEvent.AuditEventEntityComponent();
+        
+        if (reference != null) {
+            Reference whatRef = new Reference();
+            whatRef.setReference(reference);
+            entity.setWhat(whatRef);
+        }
+        
+        Coding entityType = new Coding();
+        entityType.setSystem("http://hl7.org/fhir/resource-types");
+        entityType.setCode(resourceType);
+        entityType.setDisplay(resourceType);
+        entity.setType(entityType);
+        
+        auditEvent.addEntity(entity);
+        
+        return auditEvent;
+    }
+
+    private AuditEvent.AuditEventAction getAuditEventAction(String action) {
+        return switch (action.toLowerCase()) {
+            case "create" -> AuditEvent.AuditEventAction.C;
+            case "update" -> AuditEvent.AuditEventAction.U;
+            case "delete" -> AuditEvent.AuditEventAction.D;
+            case "read", "search" -> AuditEvent.AuditEventAction.R;
+            default -> AuditEvent.AuditEventAction.E; // Execute
+        };
+    }
+
+    private String capitalize(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    }
+    
+    public List<AuditEventDTO> getAllAuditEvents() {
+        log.info("Fetching all audit events");
+        
+        try {
+            return searchCache.get("AuditEvent", Map.of("_sort", "-date", "_count", 100), Set.of(), auditEventsTtlSeconds,
+                    () -> extractAuditEventsFromBundle(fhirClient.search()
+                            .forResource(AuditEvent.class)
+                            .sort().descending("date")
+                            .count(100)
+                            .returnBundle(Bundle.class)
+                            .execute()));
+        } catch (Exception e) {
+            log.error("Error fetching audit events", e);
+            return new ArrayList<>();
+        }
+    }
+    
+    public AuditEventDTO getAuditEventById(String id) {
+        log.info("Fetching audit event ID: {}", id);
+        
+        try {
+            AuditEvent auditEvent = fhirClient.read()
+                    .resource(AuditEvent.class)
+                    .withId(id)
+                    .execute();
+            
+            return convertToDTO(auditEvent);
+        } catch (Exception e) {
+            log.error("Error fetching audit event", e);
+            throw new RuntimeException("Audit event not found");
+        }
+    }
+    
+    public List<AuditEventDTO> searchByResourceType(String resourceType) {
+        log.info("Searching audit events by resource type: {}", resourceType);
+        
+        try {
+            Bundle bundle = fhirClient.search()
+                    .forResource(AuditEvent.class)
+                    .sort().descending("date")
+                    .count(100)
+                    .returnBundle(Bundle.class)
+                    .execute();
+            
+            List<AuditEventDTO> allEvents = extractAuditEventsFromBundle(bundle);
+            
+            return allEvents.stream()
+                    .filter(e -> e.getResourceType() != null && 
+                               e.getResourceType().equalsIgnoreCase(resourceType))
+                    .toList();
+        } catch (Exception e) {
+            log.error("Error searching audit events", e);
+            return new ArrayList<>();
+        }
+    }
+    
+    public List<AuditEventDTO> searchByAction(String action) {
+        log.info("Searching audit events by action: {}", action);
+        
+        try {
+            Bundle bundle = fhirClient.search()
+                    .forResource(AuditEvent.class)
+                    .where(AuditEvent.SUBTYPE.exactly().code(action.toLowerCase()))
+                    .sort().descending("date")
+                    .count(100)
+                    .returnBundle(Bundle.class)
+                    .execute();
+            
+            return extractAuditEventsFromBundle(bundle);
+        } catch (Exception e) {
+            log.error("Error searching audit events", e);
+            return new ArrayList<>();
+        }
+    }
+    
+    public List<AuditEventDTO> searchByEntity(String resourceType, String resourceId, int count) {
+        log.info("Searching audit events for {}/{}", resourceType, resourceId);
+        
+        try {
+            Bundle bundle = fhirClient.search()
+                    .forResource(AuditEvent.class)
+                    .where(AuditEvent.ENTITY.hasId(resourceType + "/" + resourceId))
+                    .sort().descending("date")
+                    .count(count)
+                    .returnBundle(Bundle.class)
+                    .execute();
+            
+            return extractAuditEventsFromBundle(bundle);
+        } catch (Exception e) {
+            log.error("Error searching audit events", e);
+            return new ArrayList<>();
+        }
+    }
+    
+    public CompletableFuture<List<AuditEventDTO>> searchByEntityAsync(String resourceType, String resourceId, int count) {
+        return asyncExecutor.submit("AuditEvent search for " + resourceType + "/" + resourceId,
+                () -> searchByEntity(resourceType, resourceId, count));
+    }
+    
+    private List<AuditEventDTO> extractAuditEventsFromBundle(Bundle bundle) {
+        List<AuditEventDTO> events = new ArrayList<>();
+        
+        if (bundle.hasEntry()) {
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof AuditEvent) {
+                    AuditEvent auditEvent = (AuditEvent) entry.getResource();
+                    events.add(convertToDTO(auditEvent));
+                }
+            }
+        }
+        
+        log.info("Found {} audit events", events.size());
+        return events;
+    }
+    
+    private AuditEventDTO convertToDTO(AuditEvent auditEvent) {
+        AuditEventDTO dto = new AuditEventDTO();
+        
+        dto.setId(auditEvent.getIdElement().getIdPart());
+        
+        if (auditEvent.hasAction()) {
+            dto.setAction(auditEvent.getAction().toCode());
+        }
+        
+        if (auditEvent.hasRecorded()) {
+            dto.setRecorded(auditEvent.getRecorded().toInstant()
+                    .atZone(ZoneId.systemDefault()).toLocalDateTime());
+        }
+        
+        if (auditEvent.hasOutcome()) {
+            dto.setOutcome(auditEvent.getOutcome().toCode());
+        }
+        
+        if (auditEvent.hasOutcomeDesc()) {
+            dto.setDescription(auditEvent.getOutcomeDesc());
+        }
+        
+        if (auditEvent.hasAgent()) {
+            AuditEvent.AuditEventAgentComponent agent = auditEvent.getAgentFirstRep();
+            if (agent.hasWho() && agent.getWho().hasDisplay()) {
+                dto.setAgentName(agent.getWho().getDisplay());
+            }
+        }
+        
+        if (auditEvent.hasSource() && auditEvent.getSource().hasObserver()) {
+            dto.setSystemName(auditEvent.getSource().getObserver().getDisplay());
+        }
+        
+        if (auditEvent.hasEntity()) {
+            AuditEvent.AuditEventEntityComponent entity = auditEvent.getEntityFirstRep();
+            if (entity.hasWhat() && entity.getWhat().hasReference()) {
+                String reference = entity.getWhat().getReference();
+                if (reference.contains("/")) {
+                    String[] parts = reference.split("/");
+                    dto.setResourceType(parts[0]);
+                    dto.setResourceId(parts[1]);
+                }
+            }
+        }
+        
+        return dto;
+    }
+}
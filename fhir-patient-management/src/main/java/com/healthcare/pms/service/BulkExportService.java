@@ -0,0 +1,358 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.healthcare.pms.dto.BulkExportStatusDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Bundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every managed resource type as gzip-compressed NDJSON by walking search pages.
+ *
+ * Each page is appended to the type's file as its own gzip member, and the byte offset
+ * and next-page link are checkpointed after every page. An interrupted job is resumed by
+ * truncating the file back to the last checkpoint and continuing from the saved link, so
+ * only one page is ever held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkExportService {
+
+    public static final List<String> EXPORT_TYPES = List.of("Patient", "Practitioner", "Organization", "Appointment", "AuditEvent");
+
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+    private final IGenericClient fhirClient;
+    private final FhirContext fhirContext;
+
+    @Value("${export.directory:${user.home}/.pms/export}")
+    private String exportDirectory;
+
+    @Value("${export.page-size:500}")
+    private int pageSize;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void loadExistingJobs() throws IOException {
+        Path root = PrivateFiles.createDirectories(Paths.get(exportDirectory));
+
+        try (Stream<Path> dirs = Files.list(root)) {
+            dirs.filter(dir -> Files.exists(dir.resolve(CHECKPOINT_FILE))).forEach(dir -> {
+                try {
+                    ExportJob job = new ExportJob(dir.getFileName().toString(), dir);
+                    job.load();
+                    // Whatever was running when the application stopped can be resumed
+                    if ("RUNNING".equals(job.get("status")) || "QUEUED".equals(job.get("status"))) {
+                        job.set("status", "INTERRUPTED");
+                        job.save();
+                    }
+                    jobs.put(job.id, job);
+                } catch (IOException e) {
+                    log.warn("Could not load export checkpoint in {}", dir, e);
+                }
+            });
+        }
+
+        log.info("Loaded {} export jobs from {}", jobs.size(), root);
+    }
+
+    public String startExport() throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path dir = PrivateFiles.createDirectories(Paths.get(exportDirectory, jobId));
+
+        ExportJob job = new ExportJob(jobId, dir);
+        job.set("status", "QUEUED");
+        for (String type : EXPORT_TYPES) {
+            job.set(type + ".state", "PENDING");
+        }
+        job.save();
+        jobs.put(jobId, job);
+
+        executor.submit(() -> run(job));
+        log.info("Queued bulk export {}", jobId);
+        return jobId;
+    }
+
+    public void resumeExport(String jobId) throws IOException {
+        ExportJob job = findJob(jobId);
+        if (!toStatus(job).isResumable()) {
+            throw new IllegalStateException("Export job " + jobId + " is not resumable");
+        }
+
+        job.set("status", "QUEUED");
+        job.save();
+        executor.submit(() -> run(job));
+        log.info("Resuming bulk export {}", jobId);
+    }
+
+    public List<BulkExportStatusDTO> getJobs() {
+        return jobs.values().stream()
+                .map(this::toStatus)
+                .sorted(Comparator.comparing(BulkExportStatusDTO::getStartedAt,
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed())
+                .toList();
+    }
+
+    public BulkExportStatusDTO getStatus(String jobId) {
+        return toStatus(findJob(jobId));
+    }
+
+    /**
+     * The finished export file; NoSuchElementException for an unknown job or type, and
+     * IllegalStateException while the type is still being exported.
+     */
+    public Path getExportFile(String jobId, String resourceType) {
+        ExportJob job = findJob(jobId);
+        if (!EXPORT_TYPES.contains(resourceType)) {
+            throw new NoSuchElementException(resourceType + " is not an exported resource type");
+        }
+        if (!"DONE".equals(job.get(resourceType + ".state"))) {
+            throw new IllegalStateException(resourceType + " export is not finished for job " + jobId);
+        }
+        return job.dir.resolve(resourceType + ".ndjson.gz");
+    }
+
+    private void run(ExportJob job) {
+        try {
+            job.set("status", "RUNNING");
+            if (job.get("startedAt") == null) {
+                job.set("startedAt", LocalDateTime.now().toString());
+            }
+            job.remove("message");
+            job.save();
+
+            for (String type : EXPORT_TYPES) {
+                if (!"DONE".equals(job.get(type + ".state"))) {
+                    exportType(job, type);
+                }
+            }
+
+            job.set("status", "COMPLETED");
+            job.set("finishedAt", LocalDateTime.now().toString());
+            job.remove("currentType");
+            job.save();
+            log.info("Bulk export {} completed", job.id);
+        } catch (Exception e) {
+            log.error("Bulk export {} failed", job.id, e);
+            job.set("status", "FAILED");
+            job.set("message", String.valueOf(e.getMessage()));
+            try {
+                job.save();
+            } catch (IOException ex) {
+                log.warn("Could not save export checkpoint for {}", job.id, ex);
+            }
+        }
+    }
+
+    private void exportType(ExportJob job, String type) throws IOException {
+        Path file = job.dir.resolve(type + ".ndjson.gz");
+        long committedBytes = Long.parseLong(job.getOrDefault(type + ".bytes", "0"));
+        long count = Long.parseLong(job.getOrDefault(type + ".count", "0"));
+        String nextUrl = job.get(type + ".next");
+
+        Bundle page = null;
+        if (nextUrl != null) {
+            try {
+                page = fhirClient.loadPage()
+                        .byUrl(nextUrl)
+                        .andReturnBundle(Bundle.class)
+                        .execute();
+            } catch (Exception e) {
+                // Paging links expire on the server; start this type again from the first page
+                log.warn("Export {} could not resume {} from saved page, restarting type: {}", job.id, type, e.getMessage());
+            }
+        }
+        if (page == null) {
+            committedBytes = 0;
+            count = 0;
+            page = fhirClient.search()
+                    .forResource(type)
+                    .count(pageSize)
+                    .returnBundle(Bundle.class)
+                    .execute();
+        }
+
+        job.set("currentType", type);
+        job.set(type + ".state", "RUNNING");
+        job.save();
+
+        IParser parser = fhirContext.newJsonParser().setPrettyPrint(false);
+
+        try (FileChannel channel = PrivateFiles.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop anything written after the last checkpoint
+            channel.truncate(committedBytes);
+            channel.position(committedBytes);
+
+            while (page != null) {
+                count += writePage(channel, parser, page);
+                channel.force(false);
+
+                Bundle.BundleLinkComponent next = page.getLink(IBaseBundle.LINK_NEXT);
+                job.set(type + ".bytes", String.valueOf(channel.position()));
+                job.set(type + ".count", String.valueOf(count));
+                if (next != null) {
+                    job.set(type + ".next", next.getUrl());
+                } else {
+                    job.remove(type + ".next");
+                    job.set(type + ".state", "DONE");
+                }
+                job.save();
+
+                page = next != null ? fhirClient.loadPage().next(page).execute() : null;
+            }
+        }
+
+        log.info("Export {}: {} {} resources written", job.id, count, type);
+    }
+
+    private int writePage(FileChannel channel, IParser parser, Bundle page) throws IOException {
+        int written = 0;
+
+        // Closing the gzip stream ends this member without closing the channel
+        OutputStream target = new FilterOutputStream(Channels.newOutputStream(channel)) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(target, 64 * 1024), StandardCharsets.UTF_8)) {
+            for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                if (entry.hasResource()) {
+                    writer.write(parser.encodeResourceToString(entry.getResource()));
+                    writer.write('\n');
+                    written++;
+                }
+            }
+        }
+
+        return written;
+    }
+
+    private ExportJob findJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("Export job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private BulkExportStatusDTO toStatus(ExportJob job) {
+        Map<String, String> states = new LinkedHashMap<>();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String type : EXPORT_TYPES) {
+            states.put(type, job.getOrDefault(type + ".state", "PENDING"));
+            counts.put(type, Long.parseLong(job.getOrDefault(type + ".count", "0")));
+        }
+
+        return new BulkExportStatusDTO(
+                job.id,
+                job.get("status"),
+                job.get("currentType"),
+                states,
+                counts,
+                parseTime(job.get("startedAt")),
+                parseTime(job.get("finishedAt")),
+                job.get("message"));
+    }
+
+    private LocalDateTime parseTime(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ExportJob {
+
+        private final String id;
+        private final Path dir;
+        private final Properties checkpoint = new Properties();
+
+        ExportJob(String id, Path dir) {
+            this.id = id;
+            this.dir = dir;
+        }
+
+        String get(String key) {
+            return checkpoint.getProperty(key);
+        }
+
+        String getOrDefault(String key, String defaultValue) {
+            return checkpoint.getProperty(key, defaultValue);
+        }
+
+        void set(String key, String value) {
+            checkpoint.setProperty(key, value);
+        }
+
+        void remove(String key) {
+            checkpoint.remove(key);
+        }
+
+        void load() throws IOException {
+            try (InputStream in = Files.newInputStream(dir.resolve(CHECKPOINT_FILE))) {
+                checkpoint.load(in);
+            }
+        }
+
+        void save() throws IOException {
+            // Write then rename, so a crash never leaves a half-written checkpoint
+            Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+            try (OutputStream out = Channels.newOutputStream(PrivateFiles.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+                checkpoint.store(out, "Bulk export " + id);
+            }
+            Files.move(temp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
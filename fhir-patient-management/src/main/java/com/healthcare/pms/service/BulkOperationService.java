@@ -0,0 +1,369 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.pms.dto.BulkItemResultDTO;
+import com.healthcare.pms.dto.BulkOperationResultDTO;
+import com.healthcare.pms.dto.PractitionerSummaryDTO;
+import com.healthcare.pms.mapper.AppointmentMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.Binary;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the same write against many resources as chunked batch Bundles.
+ *
+ * At most maxInFlight chunks are on the wire at once. Each chunk's successes are audited with one
+ * batched AuditEvent request, and every id gets its own outcome in the result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOperationService {
+
+    public static final List<String> DELETABLE_TYPES = List.of("Patient", "Practitioner", "Organization", "Appointment");
+
+    private final IGenericClient fhirClient;
+    private final AuditService auditService;
+    private final AppointmentService appointmentService;
+    private final PractitionerService practitionerService;
+    private final AppointmentMapper appointmentMapper;
+    private final AppointmentUtilisationService utilisationService;
+    private final DashboardStatsService dashboardStatsService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${bulk.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${bulk.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${bulk.max-items:1000}")
+    private int maxItems;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-operation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static List<String> parseIds(String ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split("[\\s,;]+"))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Ids of the practitioner's appointments in the date range that can still be cancelled.
+     */
+    public List<String> findActiveAppointmentIds(String practitionerId, LocalDate from, LocalDate to) {
+        Date start = Date.from(from.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date end = Date.from(to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        List<String> ids = new ArrayList<>();
+        Bundle page = fhirClient.search()
+                .forResource(Appointment.class)
+                .where(Appointment.PRACTITIONER.hasId(practitionerId))
+                .where(Appointment.DATE.afterOrEquals().day(start))
+                .where(Appointment.DATE.before().day(end))
+                .elementsSubset("status")
+                .count(chunkSize * maxInFlight)
+                .returnBundle(Bundle.class)
+                .execute();
+
+        while (page != null) {
+            for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                if (entry.getResource() instanceof Appointment appointment
+                        && !AppointmentService.FINAL_STATUSES.contains(appointment.hasStatus() ? appointment.getStatus().toCode() : null)) {
+                    ids.add(appointment.getIdElement().getIdPart());
+                }
+            }
+            page = page.getLink(IBaseBundle.LINK_NEXT) != null
+                    ? fhirClient.loadPage().next(page).execute()
+                    : null;
+        }
+
+        log.info("Found {} active appointments for practitioner {} between {} and {}", ids.size(), practitionerId, from, to);
+        return ids;
+    }
+
+    public List<String> findPractitionerIdsBySpecialization(String specialization) {
+        return practitionerService.searchBySpecialization(specialization).stream()
+                .filter(practitioner -> !Boolean.FALSE.equals(practitioner.getActive()))
+                .map(PractitionerSummaryDTO::getId)
+                .toList();
+    }
+
+    /**
+     * Cancels the appointments that are not already in a final status. Each patch tests for the
+     * status read just before it, so one completed or cancelled in between fails instead of
+     * being overwritten.
+     */
+    public BulkOperationResultDTO cancelAppointments(List<String> requestedIds, String reason) {
+        List<String> ids = distinct("Appointment", requestedIds);
+        Map<String, String> statuses = currentStatuses(ids);
+
+        Map<String, String> rejected = new HashMap<>();
+        for (String id : ids) {
+            if (!statuses.containsKey(id)) {
+                rejected.put(id, "Appointment not found");
+            } else if (AppointmentService.FINAL_STATUSES.contains(statuses.get(id))) {
+                rejected.put(id, "Already " + statuses.get(id));
+            }
+        }
+
+        return execute("Cancel appointments", "Appointment", ids, rejected,
+                id -> patchEntry("Appointment", id, appointmentService.statusPatch("cancelled", reason, statuses.get(id))),
+                "update", "Appointment cancelled (bulk): " + reason,
+                entry -> {
+                    if (entry.getResource() instanceof Appointment appointment) {
+                        utilisationService.recordAppointment(appointmentMapper.toDTO(appointment));
+                    } else {
+                        utilisationService.recordCancellation(idOf(entry));
+                    }
+                });
+    }
+
+    public BulkOperationResultDTO deactivatePractitioners(List<String> ids) {
+        String patch = objectMapper.createArrayNode()
+                .add(objectMapper.createObjectNode()
+                        .put("op", "add")
+                        .put("path", "/active")
+                        .put("value", false))
+                .toString();
+
+        return execute("Deactivate practitioners", "Practitioner", ids, Map.of(),
+                id -> patchEntry("Practitioner", id, patch),
+                "update", "Practitioner deactivated (bulk)",
+                entry -> {
+                });
+    }
+
+    public BulkOperationResultDTO deleteResources(String resourceType, List<String> ids) {
+        if (!DELETABLE_TYPES.contains(resourceType)) {
+            throw new RuntimeException("Bulk delete is not supported for " + resourceType);
+        }
+
+        return execute("Delete " + resourceType, resourceType, ids, Map.of(),
+                id -> {
+                    Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+                    entry.getRequest()
+                            .setMethod(Bundle.HTTPVerb.DELETE)
+                            .setUrl(resourceType + "/" + id);
+                    return entry;
+                },
+                "delete", resourceType + " deleted (bulk)",
+                entry -> {
+                    dashboardStatsService.recordDeleted(resourceType);
+                    if ("Appointment".equals(resourceType)) {
+                        utilisationService.removeAppointment(idOf(entry));
+                    }
+                });
+    }
+
+    // Ids in rejected are reported as failed with the given message and never sent
+    private BulkOperationResultDTO execute(String operation, String resourceType, List<String> requestedIds,
+                                           Map<String, String> rejected,
+                                           Function<String, Bundle.BundleEntryComponent> entryFor,
+                                           String auditAction, String auditDescription,
+                                           Consumer<Bundle.BundleEntryComponent> onSuccess) {
+        List<String> ids = distinct(resourceType, requestedIds);
+
+        log.info("{}: {} items in chunks of {}", operation, ids.size(), chunkSize);
+        long started = System.currentTimeMillis();
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        Semaphore permits = new Semaphore(maxInFlight);
+        List<Future<?>> chunks = new ArrayList<>();
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                int start = from;
+                List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+
+                permits.acquire();
+                chunks.add(executor.submit(() -> {
+                    try {
+                        sendChunk(resourceType, chunk, start, results, rejected, entryFor, auditAction, auditDescription,
+                                onSuccess);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(operation + " interrupted");
+        } catch (Exception e) {
+            throw new RuntimeException(operation + " failed: " + e.getMessage(), e);
+        }
+
+        BulkOperationResultDTO result = new BulkOperationResultDTO(operation, resourceType, Arrays.asList(results),
+                System.currentTimeMillis() - started);
+        log.info("{} finished: {} succeeded, {} failed in {} ms", operation, result.getSucceeded(), result.getFailed(),
+                result.getDurationMillis());
+        return result;
+    }
+
+    private List<String> distinct(String resourceType, List<String> requestedIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+        if (ids.isEmpty()) {
+            throw new RuntimeException("No " + resourceType + " ids selected");
+        }
+        if (ids.size() > maxItems) {
+            throw new RuntimeException("At most " + maxItems + " items can be processed at once, got " + ids.size());
+        }
+        return ids;
+    }
+
+    // id -> status code for the appointments that exist, one _elements=status search per chunk
+    private Map<String, String> currentStatuses(List<String> ids) {
+        Map<String, String> statuses = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Bundle page = fhirClient.search()
+                    .forResource(Appointment.class)
+                    .where(Appointment.RES_ID.exactly().codes(chunk))
+                    .elementsSubset("status")
+                    .count(chunk.size())
+                    .returnBundle(Bundle.class)
+                    .execute();
+            for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                if (entry.getResource() instanceof Appointment appointment) {
+                    statuses.put(appointment.getIdElement().getIdPart(),
+                            appointment.hasStatus() ? appointment.getStatus().toCode() : null);
+                }
+            }
+        }
+        return statuses;
+    }
+
+    private void sendChunk(String resourceType, List<String> chunk, int offset, BulkItemResultDTO[] results,
+                           Map<String, String> rejected,
+                           Function<String, Bundle.BundleEntryComponent> entryFor,
+                           String auditAction, String auditDescription,
+                           Consumer<Bundle.BundleEntryComponent> onSuccess) {
+        // Positions in the chunk of the ids actually sent, in bundle order
+        List<Integer> sent = new ArrayList<>();
+        Bundle bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.BATCH);
+        for (int i = 0; i < chunk.size(); i++) {
+            String rejection = rejected.get(chunk.get(i));
+            if (rejection != null) {
+                results[offset + i] = new BulkItemResultDTO(chunk.get(i), false, rejection);
+            } else {
+                sent.add(i);
+                bundle.addEntry(entryFor.apply(chunk.get(i)));
+            }
+        }
+        if (sent.isEmpty()) {
+            return;
+        }
+
+        Bundle response;
+        try {
+            response = fhirClient.transaction()
+                    .withBundle(bundle)
+                    .withAdditionalHeader(Constants.HEADER_PREFER, "return=" + Constants.HEADER_PREFER_RETURN_REPRESENTATION)
+                    .execute();
+        } catch (Exception e) {
+            log.warn("Bulk {} chunk of {} failed: {}", resourceType, sent.size(), e.getMessage());
+            for (int i : sent) {
+                results[offset + i] = new BulkItemResultDTO(chunk.get(i), false, "Batch request failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        List<String> succeeded = new ArrayList<>();
+        List<Bundle.BundleEntryComponent> entries = response.getEntry();
+        for (int n = 0; n < sent.size(); n++) {
+            int i = sent.get(n);
+            Bundle.BundleEntryComponent entry = n < entries.size() ? entries.get(n) : null;
+            Bundle.BundleEntryResponseComponent entryResponse = entry != null ? entry.getResponse() : null;
+            boolean success = entryResponse != null && entryResponse.hasStatus() && entryResponse.getStatus().startsWith("2");
+
+            results[offset + i] = new BulkItemResultDTO(chunk.get(i), success, describe(entryResponse));
+            if (success) {
+                succeeded.add(chunk.get(i));
+                if (!entryResponse.hasLocation()) {
+                    entryResponse.setLocation(resourceType + "/" + chunk.get(i));
+                }
+                onSuccess.accept(entry);
+            }
+        }
+
+        // One batched audit request per chunk
+        auditService.createAuditEvents(auditAction, resourceType, succeeded, auditDescription);
+    }
+
+    private Bundle.BundleEntryComponent patchEntry(String resourceType, String id, String jsonPatch) {
+        Binary body = new Binary();
+        body.setContentType(Constants.CT_JSON_PATCH);
+        body.setData(jsonPatch.getBytes(StandardCharsets.UTF_8));
+
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        entry.setResource(body)
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.PATCH)
+                .setUrl(resourceType + "/" + id);
+        return entry;
+    }
+
+    private String idOf(Bundle.BundleEntryComponent entry) {
+        return new IdType(entry.getResponse().getLocation()).getIdPart();
+    }
+
+    private String describe(Bundle.BundleEntryResponseComponent entryResponse) {
+        if (entryResponse == null) {
+            return "no response entry";
+        }
+        if (entryResponse.getOutcome() instanceof OperationOutcome outcome && outcome.hasIssue()) {
+            return entryResponse.getStatus() + " " + outcome.getIssueFirstRep().getDiagnostics();
+        }
+        return entryResponse.getStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
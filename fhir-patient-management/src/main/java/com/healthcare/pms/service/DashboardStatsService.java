@@ -0,0 +1,120 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.healthcare.pms.dto.DashboardStatsDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Bundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsService {
+
+    private static final List<String> COUNTED_TYPES = List.of("Patient", "Practitioner", "Organization", "AuditEvent");
+
+    private final IGenericClient fhirClient;
+
+    @Value("${dashboard.stats.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final ExecutorService executor = Executors.newFixedThreadPool(COUNTED_TYPES.size(), runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long lastAttemptMillis;
+    private volatile long lastRefreshedMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshAsync();
+    }
+
+    public DashboardStatsDTO getStats() {
+        // Never blocks the request: serve the cached counters and refresh in the background once the TTL has passed
+        if (System.currentTimeMillis() - lastAttemptMillis > ttlSeconds * 1000) {
+            refreshAsync();
+        }
+
+        LocalDateTime refreshed = lastRefreshedMillis == 0 ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(lastRefreshedMillis), ZoneId.systemDefault());
+
+        return new DashboardStatsDTO(
+                counter("Patient").get(),
+                counter("Practitioner").get(),
+                counter("Organization").get(),
+                counter("AuditEvent").get(),
+                refreshed);
+    }
+
+    public void recordCreated(String resourceType) {
+        counter(resourceType).incrementAndGet();
+    }
+
+    public void recordDeleted(String resourceType) {
+        counter(resourceType).updateAndGet(value -> Math.max(0, value - 1));
+    }
+
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        lastAttemptMillis = System.currentTimeMillis();
+
+        CompletableFuture<?>[] lookups = COUNTED_TYPES.stream()
+                .map(type -> CompletableFuture.supplyAsync(() -> countResources(type), executor)
+                        .thenAccept(total -> counter(type).set(total)))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(lookups).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("Could not refresh dashboard statistics: {}", error.getMessage());
+            } else {
+                lastRefreshedMillis = System.currentTimeMillis();
+                log.debug("Dashboard statistics refreshed: {}", counts);
+            }
+            refreshing.set(false);
+        });
+    }
+
+    private long countResources(String resourceType) {
+        Bundle bundle = fhirClient.search()
+                .forResource(resourceType)
+                .summaryMode(SummaryEnum.COUNT)
+                .returnBundle(Bundle.class)
+                .execute();
+
+        return bundle.getTotal();
+    }
+
+    private AtomicLong counter(String resourceType) {
+        return counts.computeIfAbsent(resourceType, type -> new AtomicLong());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,174 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.AppointmentDTO;
+import com.healthcare.pms.dto.AuditEventDTO;
+import com.healthcare.pms.dto.OrganizationDTO;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PractitionerDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads a detail page and its related sections in one go.
+ *
+ * Every sub-query starts at once on the async executor. The main resource is required: it is
+ * submitted with the FHIR client timeout instead of the executor's shorter default, and waited for
+ * that long. The other sections keep the executor default and share a single deadline from the
+ * start of the page; any still running at it is cancelled and rendered empty, with its name
+ * listed in the "unavailableSections" attribute.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DetailPageLoader {
+
+    private final PatientService patientService;
+    private final PractitionerService practitionerService;
+    private final OrganizationService organizationService;
+    private final AppointmentService appointmentService;
+    private final AuditService auditService;
+
+    @Value("${pages.detail.deadline-ms:2000}")
+    private long deadlineMs;
+
+    @Value("${pages.detail.max-rows:10}")
+    private int maxRows;
+
+    @Value("${fhir.server.timeout:60000}")
+    private long clientTimeoutMs;
+
+    public Map<String, Object> loadPatientPage(String patientId) {
+        Page page = new Page("Patient " + patientId);
+        CompletableFuture<PatientDTO> patient =
+                page.start(patientService.getPatientByIdAsync(patientId, clientTimeoutMs));
+        CompletableFuture<List<AppointmentDTO>> appointments =
+                page.start(appointmentService.getAppointmentsByPatientAsync(patientId));
+        CompletableFuture<List<AuditEventDTO>> auditEvents =
+                page.start(auditService.searchByEntityAsync("Patient", patientId, maxRows));
+
+        page.put("patient", page.require(patient));
+        page.put("upcomingAppointments", upcoming(page.get("Upcoming appointments", appointments, List.of())));
+        page.put("recentAuditEvents", page.get("Recent activity", auditEvents, List.of()));
+        return page.finish();
+    }
+
+    public Map<String, Object> loadPractitionerPage(String practitionerId) {
+        Page page = new Page("Practitioner " + practitionerId);
+        CompletableFuture<PractitionerDTO> practitioner =
+                page.start(practitionerService.getPractitionerByIdAsync(practitionerId, clientTimeoutMs));
+        CompletableFuture<List<AppointmentDTO>> schedule =
+                page.start(appointmentService.getAppointmentsByPractitionerAsync(practitionerId));
+        // The organization id is only known once the practitioner is back; the schedule doesn't wait for it
+        CompletableFuture<OrganizationDTO> organization = page.start(practitioner.thenCompose(p ->
+                p.getOrganizationId() == null || p.getOrganizationId().isBlank()
+                        ? CompletableFuture.completedFuture(null)
+                        : page.start(organizationService.getOrganizationByIdAsync(p.getOrganizationId()))));
+
+        page.put("practitioner", page.require(practitioner));
+        page.put("schedule", upcoming(page.get("Schedule", schedule, List.of())));
+        page.put("organization", page.get("Organization", organization, null));
+        return page.finish();
+    }
+
+    // Booked or pending appointments from today on, soonest first
+    private List<AppointmentDTO> upcoming(List<AppointmentDTO> appointments) {
+        LocalDate today = LocalDate.now();
+        return appointments.stream()
+                .filter(a -> a.getAppointmentDate() != null && !a.getAppointmentDate().isBefore(today))
+                .filter(a -> a.getStatus() == null || !AppointmentService.FINAL_STATUSES.contains(a.getStatus()))
+                .sorted(Comparator.comparing(AppointmentDTO::getAppointmentDate)
+                        .thenComparing(AppointmentDTO::getAppointmentTime, Comparator.nullsLast(LocalTime::compareTo)))
+                .limit(maxRows)
+                .toList();
+    }
+
+    private final class Page {
+
+        private final String name;
+        private final long started = System.nanoTime();
+        private final long deadline = started + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        private final List<CompletableFuture<?>> inFlight = new CopyOnWriteArrayList<>();
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private final List<String> unavailable = new ArrayList<>();
+
+        private Page(String name) {
+            this.name = name;
+        }
+
+        private <T> CompletableFuture<T> start(CompletableFuture<T> future) {
+            inFlight.add(future);
+            return future;
+        }
+
+        private void put(String attribute, Object value) {
+            attributes.put(attribute, value);
+        }
+
+        // The page can't render without this one, so it gets as long as the client would give it
+        // (the future itself must be submitted with that timeout) and its failure fails the page
+        private <T> T require(CompletableFuture<T> future) {
+            try {
+                return future.get(clientTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                finish();
+                throw new RuntimeException(name + " did not load within " + clientTimeoutMs + " ms");
+            } catch (ExecutionException e) {
+                finish();
+                if (e.getCause() instanceof TimeoutException) {
+                    throw new RuntimeException(name + " did not load within " + clientTimeoutMs + " ms");
+                }
+                throw new RuntimeException(name + " could not be loaded", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish();
+                throw new RuntimeException(name + " loading interrupted");
+            }
+        }
+
+        private <T> T get(String section, CompletableFuture<T> future, T fallback) {
+            try {
+                return future.get(remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                unavailable.add(section);
+            } catch (ExecutionException e) {
+                log.warn("{}: {} failed: {}", name, section, e.getCause().getMessage());
+                unavailable.add(section);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unavailable.add(section);
+            }
+            return fallback;
+        }
+
+        // Cancels whatever is still pending; cancelling a finished future is a no-op. Running calls
+        // are not interrupted, as another page may have joined them through the request coalescer
+        private Map<String, Object> finish() {
+            inFlight.forEach(future -> future.cancel(false));
+            attributes.put("unavailableSections", unavailable);
+            if (!unavailable.isEmpty()) {
+                log.warn("{} rendered without: {}", name, unavailable);
+            }
+            log.debug("{} loaded in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return attributes;
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadline - System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.healthcare.pms.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the result of create-style requests by idempotency key, so a resubmitted form
+ * or a retried request returns the original result instead of writing to the FHIR server again.
+ *
+ * A request that arrives while the original is still running waits for its result. Failed
+ * requests are forgotten so the same key can be retried.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    // Rough heap cost of one entry: key, future and the DTO it holds
+    private static final long ESTIMATED_ENTRY_BYTES = 2 * 1024;
+
+    private final MemoryBudgetService memoryBudget;
+
+    @Value("${idempotency.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(CompletableFuture<Object> result, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    @PostConstruct
+    public void registerWithBudget() {
+        memoryBudget.register("idempotency keys", new MemoryBudgetService.BudgetedCache() {
+            @Override
+            public long estimatedBytes() {
+                return entries.size() * ESTIMATED_ENTRY_BYTES;
+            }
+
+            @Override
+            public void shrink(long bytes) {
+                dropClosestToExpiry((int) Math.min(entries.size(), (bytes + ESTIMATED_ENTRY_BYTES - 1) / ESTIMATED_ENTRY_BYTES));
+            }
+        });
+    }
+
+    public String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * The header wins over the hidden form field when both are sent.
+     */
+    public static String resolveKey(String headerKey, String formKey) {
+        if (headerKey != null && !headerKey.isBlank()) {
+            return headerKey.trim();
+        }
+        return formKey != null && !formKey.isBlank() ? formKey.trim() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Callable<T> action) throws Exception {
+        if (key == null) {
+            return action.call();
+        }
+
+        String entryKey = scope + ":" + key;
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(new CompletableFuture<>(), now + ttlMinutes * 60_000);
+
+        Entry existing = entries.putIfAbsent(entryKey, entry);
+        while (existing != null) {
+            if (!existing.isExpired(now)) {
+                log.info("Replaying result for idempotency key {} ({})", key, scope);
+                return (T) awaitResult(existing);
+            }
+            existing = entries.replace(entryKey, existing, entry) ? null : entries.putIfAbsent(entryKey, entry);
+        }
+
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+
+        try {
+            T result = action.call();
+            entry.result().complete(result);
+            return result;
+        } catch (Exception e) {
+            // Let the client retry the same key after a failure
+            entries.remove(entryKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object awaitResult(Entry entry) throws Exception {
+        try {
+            return entry.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+
+        // Still over the bound: drop the entries closest to expiry
+        dropClosestToExpiry(entries.size() - maxEntries);
+    }
+
+    private void dropClosestToExpiry(int count) {
+        if (count > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(count)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+}
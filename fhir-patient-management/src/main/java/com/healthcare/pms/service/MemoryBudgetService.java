@@ -0,0 +1,141 @@
+package com.healthcare.pms.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One heap budget shared by every in-memory cache.
+ *
+ * Caches register with an estimate of their retained size and a way to shrink. When their total
+ * goes over the budget, each gives back its share of the excess in proportion to its size. When
+ * the heap is still nearly full right after a collection, they are all cut back further.
+ */
+@Service
+@Slf4j
+public class MemoryBudgetService {
+
+    public interface BudgetedCache {
+
+        long estimatedBytes();
+
+        /**
+         * Drops roughly this many bytes' worth of entries, least valuable first.
+         */
+        void shrink(long bytes);
+    }
+
+    @Value("${memory.budget.max-mb:256}")
+    private long maxMb;
+
+    @Value("${memory.budget.check-interval-seconds:10}")
+    private int checkIntervalSeconds;
+
+    @Value("${memory.budget.heap-pressure-threshold:0.85}")
+    private double heapPressureThreshold;
+
+    @Value("${memory.budget.heap-pressure-release:0.5}")
+    private double heapPressureRelease;
+
+    private final Map<String, BudgetedCache> caches = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "memory-budget");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private NotificationListener heapListener;
+
+    @PostConstruct
+    public void init() {
+        executor.scheduleWithFixedDelay(this::enforce, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+
+        // Old-generation pools report their usage right after each collection
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+                    && pool.getUsage().getMax() > 0) {
+                pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * heapPressureThreshold));
+            }
+        }
+        heapListener = (notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                executor.execute(this::relieveHeapPressure);
+            }
+        };
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(heapListener, null, null);
+    }
+
+    public void register(String name, BudgetedCache cache) {
+        caches.put(name, cache);
+        log.info("Cache '{}' registered with the memory budget", name);
+    }
+
+    public Map<String, Long> getUsage() {
+        Map<String, Long> usage = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> usage.put(name, cache.estimatedBytes()));
+        return usage;
+    }
+
+    private void enforce() {
+        try {
+            long total = totalBytes();
+            long budget = maxMb * 1024 * 1024;
+            if (total > budget) {
+                log.info("Caches hold ~{} MB against a budget of {} MB, shrinking", total / (1024 * 1024), maxMb);
+                shrink(total - budget, total);
+            }
+        } catch (Exception e) {
+            log.warn("Memory budget check failed: {}", e.getMessage());
+        }
+    }
+
+    private void relieveHeapPressure() {
+        long total = totalBytes();
+        log.warn("Heap above {}% after collection, releasing {}% of ~{} MB cached",
+                Math.round(heapPressureThreshold * 100), Math.round(heapPressureRelease * 100), total / (1024 * 1024));
+        shrink((long) (total * heapPressureRelease), total);
+    }
+
+    private void shrink(long bytesToFree, long total) {
+        if (total <= 0) {
+            return;
+        }
+        caches.forEach((name, cache) -> {
+            long share = (long) ((double) bytesToFree * cache.estimatedBytes() / total);
+            if (share > 0) {
+                cache.shrink(share);
+                log.debug("Cache '{}' asked to free ~{} KB", name, share / 1024);
+            }
+        });
+    }
+
+    private long totalBytes() {
+        return caches.values().stream().mapToLong(BudgetedCache::estimatedBytes).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(heapListener);
+        } catch (Exception e) {
+            log.debug("Heap listener already removed: {}", e.getMessage());
+        }
+    }
+}
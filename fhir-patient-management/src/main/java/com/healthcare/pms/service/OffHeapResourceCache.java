@@ -0,0 +1,352 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.healthcare.pms.dto.ResourceCacheStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second-tier resource cache holding compact JSON outside the heap.
+ *
+ * Resources are appended to one direct buffer used as a ring; only the id-to-slot index lives
+ * on the heap. When the write position wraps, the oldest entries in the way are evicted. A hit
+ * is decoded back into a resource only when it is read.
+ *
+ * When enabled, the cache is snapshotted to an owner-only local file periodically and on
+ * shutdown, and reloaded through a memory-mapped read at startup. Reloaded entries keep their
+ * version, so callers that check the version (or revalidate with If-None-Match) never serve a
+ * stale one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OffHeapResourceCache {
+
+    private static final int SNAPSHOT_MAGIC = 0x504D5343; // "PMSC"
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int SNAPSHOT_BATCH_BYTES = 1024 * 1024;
+
+    private record Slot(int offset, int length, String version) {
+    }
+
+    private final FhirContext fhirContext;
+
+    @Value("${cache.offheap.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.offheap.capacity-mb:64}")
+    private int capacityMb;
+
+    @Value("${cache.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${cache.snapshot.file:${user.home}/.pms/cache/resources.snapshot}")
+    private String snapshotFile;
+
+    @Value("${cache.snapshot.interval-seconds:300}")
+    private int snapshotIntervalSeconds;
+
+    private final ScheduledExecutorService snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ByteBuffer buffer;
+    private int writePosition;
+
+    // Keeps the scheduled and the shutdown snapshot from writing the same temporary file at once
+    private final Object snapshotLock = new Object();
+
+    // Insertion order is also ring order, so the eldest entry is always the next to be overwritten
+    private final Map<String, Slot> index = new LinkedHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            buffer = ByteBuffer.allocateDirect(capacityMb * 1024 * 1024);
+            log.info("Off-heap resource cache: {} MB", capacityMb);
+
+            if (snapshotEnabled) {
+                loadSnapshot(Paths.get(snapshotFile));
+                snapshotExecutor.scheduleWithFixedDelay(() -> writeSnapshot(Paths.get(snapshotFile)),
+                        snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(Resource resource) {
+        if (!enabled) {
+            return;
+        }
+
+        byte[] bytes = fhirContext.newJsonParser().setPrettyPrint(false)
+                .encodeResourceToString(resource).getBytes(StandardCharsets.UTF_8);
+        store(key(resource.getClass(), resource.getIdElement().getIdPart()),
+                resource.getIdElement().getVersionIdPart(), ByteBuffer.wrap(bytes));
+    }
+
+    private synchronized void store(String key, String version, ByteBuffer bytes) {
+        int length = bytes.remaining();
+        index.remove(key);
+        if (length > buffer.capacity()) {
+            return;
+        }
+
+        int wrappedFrom = -1;
+        if (writePosition + length > buffer.capacity()) {
+            wrappedFrom = writePosition;
+            writePosition = 0;
+        }
+        evictOverlapping(writePosition, length, wrappedFrom);
+
+        buffer.put(writePosition, bytes, bytes.position(), length);
+        index.put(key, new Slot(writePosition, length, version));
+        writePosition += length;
+    }
+
+    /**
+     * Cached copy of the resource, or null when absent or when a version is given and differs.
+     */
+    public <T extends Resource> T get(Class<T> resourceClass, String id, String version) {
+        if (!enabled) {
+            return null;
+        }
+
+        byte[] bytes;
+        String cachedVersion;
+        synchronized (this) {
+            Slot slot = index.get(key(resourceClass, id));
+            if (slot == null || (version != null && !version.equals(slot.version()))) {
+                misses.incrementAndGet();
+                logPeriodically();
+                return null;
+            }
+            cachedVersion = slot.version();
+            bytes = new byte[slot.length()];
+            buffer.get(slot.offset(), bytes);
+        }
+
+        long started = System.nanoTime();
+        T resource = fhirContext.newJsonParser().parseResource(resourceClass, new String(bytes, StandardCharsets.UTF_8));
+        resource.setIdElement(new IdType(resourceClass.getSimpleName(), id, cachedVersion));
+        decodeNanos.addAndGet(System.nanoTime() - started);
+        hits.incrementAndGet();
+        logPeriodically();
+        return resource;
+    }
+
+    /**
+     * Version of the cached copy, read from the index without decoding it; null when absent.
+     */
+    public synchronized String version(Class<? extends Resource> resourceClass, String id) {
+        if (!enabled) {
+            return null;
+        }
+        Slot slot = index.get(key(resourceClass, id));
+        return slot != null ? slot.version() : null;
+    }
+
+    public synchronized ResourceCacheStatsDTO getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        long usedBytes = index.values().stream().mapToLong(Slot::length).sum();
+        return new ResourceCacheStatsDTO(index.size(), usedBytes, enabled ? buffer.capacity() : 0,
+                hitCount, misses.get(), evictions.get(),
+                lookups == 0 ? 0 : (double) hitCount / lookups,
+                hitCount == 0 ? 0 : decodeNanos.get() / hitCount / 1000);
+    }
+
+    /**
+     * Writes every entry, eldest first, to a temporary file that then replaces the snapshot.
+     * Layout: magic, format version, entry count, then per entry the key, version and JSON bytes.
+     *
+     * Entries are copied out a batch at a time under the lock and written after releasing it, so
+     * puts and gets wait for a memory copy but never for the disk. An entry overwritten since the
+     * write started is left out.
+     */
+    public void writeSnapshot(Path file) {
+        synchronized (snapshotLock) {
+            long started = System.currentTimeMillis();
+            List<Map.Entry<String, Slot>> entries;
+            synchronized (this) {
+                entries = index.entrySet().stream()
+                        .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                        .toList();
+            }
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            int written = 0;
+            try {
+                PrivateFiles.createDirectories(file.toAbsolutePath().getParent());
+                try (FileChannel channel = PrivateFiles.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    // The count is filled in at the end, once the skipped entries are known
+                    writeFully(channel, ByteBuffer.allocate(12)
+                            .putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT).putInt(0).flip());
+
+                    ByteBuffer batch = ByteBuffer.allocate(SNAPSHOT_BATCH_BYTES);
+                    int next = 0;
+                    while (next < entries.size()) {
+                        batch.clear();
+                        synchronized (this) {
+                            while (next < entries.size()) {
+                                String key = entries.get(next).getKey();
+                                Slot slot = entries.get(next).getValue();
+                                byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                                byte[] version = slot.version() != null
+                                        ? slot.version().getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+                                int size = 12 + keyBytes.length + version.length + slot.length();
+                                if (size > batch.remaining()) {
+                                    if (batch.position() > 0) {
+                                        break;
+                                    }
+                                    // A single entry bigger than a batch gets a buffer of its own
+                                    batch = ByteBuffer.allocate(size);
+                                }
+                                next++;
+                                if (!slot.equals(index.get(key))) {
+                                    continue;
+                                }
+
+                                batch.putInt(keyBytes.length).put(keyBytes)
+                                        .putInt(version.length).put(version)
+                                        .putInt(slot.length())
+                                        .put(buffer.slice(slot.offset(), slot.length()));
+                                written++;
+                            }
+                        }
+                        writeFully(channel, batch.flip());
+                    }
+
+                    ByteBuffer count = ByteBuffer.allocate(4).putInt(written).flip();
+                    while (count.hasRemaining()) {
+                        channel.write(count, 8 + count.position());
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Cache snapshot written: {} entries in {} ms", written, System.currentTimeMillis() - started);
+            } catch (IOException e) {
+                log.warn("Could not write cache snapshot {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Refills the cache from a snapshot, mapping the file rather than reading it through the heap.
+     */
+    public void loadSnapshot(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        int loaded = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (snapshot.getInt() != SNAPSHOT_MAGIC || snapshot.getInt() != SNAPSHOT_FORMAT) {
+                log.warn("Ignoring cache snapshot {} with an unknown format", file);
+                return;
+            }
+
+            int count = snapshot.getInt();
+            for (int i = 0; i < count; i++) {
+                String key = readString(snapshot);
+                String version = readString(snapshot);
+                int length = snapshot.getInt();
+                store(key, version.isEmpty() ? null : version, snapshot.slice(snapshot.position(), length));
+                snapshot.position(snapshot.position() + length);
+                loaded++;
+            }
+            log.info("Cache snapshot loaded: {} entries in {} ms", loaded, System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupt snapshot only costs the entries after the damage
+            log.warn("Cache snapshot {} stopped loading after {} entries: {}", file, loaded, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotExecutor.shutdownNow();
+        if (enabled && snapshotEnabled) {
+            writeSnapshot(Paths.get(snapshotFile));
+        }
+    }
+
+    private static String readString(ByteBuffer source) {
+        byte[] bytes = new byte[source.getInt()];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    // Drops every entry the write at [offset, offset + length) would overwrite, plus, after a wrap,
+    // everything left in the unused tail from wrappedFrom onwards
+    private void evictOverlapping(int offset, int length, int wrappedFrom) {
+        Iterator<Slot> eldest = index.values().iterator();
+        while (eldest.hasNext()) {
+            Slot slot = eldest.next();
+            boolean inTail = wrappedFrom >= 0 && slot.offset() >= wrappedFrom;
+            boolean overlaps = slot.offset() < offset + length && slot.offset() + slot.length() > offset;
+            if (!inTail && !overlaps) {
+                break;
+            }
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void logPeriodically() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        if (lookups % 1000 == 0) {
+            log.debug("Off-heap cache: {} lookups, hit rate {}%, {} evictions, average decode {} us",
+                    lookups, hitCount * 100 / lookups, evictions.get(),
+                    hitCount == 0 ? 0 : decodeNanos.get() / hitCount / 1000);
+        }
+    }
+
+    private String key(Class<?> resourceClass, String id) {
+        return resourceClass.getSimpleName() + "/" + id;
+    }
+}
@@ -0,0 +1,166 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import com.healthcare.pms.dto.OrganizationDTO;
+import com.healthcare.pms.dto.OrganizationSummaryDTO;
+import com.healthcare.pms.mapper.OrganizationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Organization;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizationService {
+
+    private final IGenericClient fhirClient;
+    private final OrganizationMapper organizationMapper;
+    private final AuditService auditService;
+    private final DashboardStatsService dashboardStatsService;
+    private final StreamingSearchService streamingSearch;
+    private final AsyncFhirExecutor asyncExecutor;
+    private final RequestCoalescer coalescer;
+
+    public OrganizationDTO createOrganization(OrganizationDTO organizationDTO) {
+        log.info("Creating organization/department: {}", organizationDTO.getName());
+        
+        Organization organization = organizationMapper.toFhirResource(organizationDTO);
+        
+        Organization createdOrganization = auditService.createWithAudit(organization, "Organization/Department created successfully");
+        OrganizationDTO result = organizationMapper.toDTO(createdOrganization);
+        
+        dashboardStatsService.recordCreated("Organization");
+        
+        log.info("Organization created with ID: {}", result.getId());
+        return result;
+    }
+
+    public OrganizationDTO updateOrganization(String id, OrganizationDTO organizationDTO) {
+        log.info("Updating organization ID: {}", id);
+        
+        organizationDTO.setId(id);
+        Organization organization = organizationMapper.toFhirResource(organizationDTO);
+        
+        Organization updatedOrganization = auditService.updateWithAudit(organization, "Organization/Department updated successfully");
+        OrganizationDTO result = organizationMapper.toDTO(updatedOrganization);
+        
+        log.info("Organization updated successfully: {}", id);
+        return result;
+    }
+
+    public OrganizationDTO getOrganizationById(String id) {
+        return coalescer.read("Organization", id, () -> readOrganization(id));
+    }
+
+    private OrganizationDTO readOrganization(String id) {
+        log.info("Fetching organization ID: {}", id);
+        
+        try {
+            Organization organization = fhirClient.read()
+                    .resource(Organization.class)
+                    .withId(id)
+                    .execute();
+            
+            return organizationMapper.toDTO(organization);
+        } catch (ResourceNotFoundException e) {
+            log.error("Organization not found with ID: {}", id);
+            throw new RuntimeException("Organization not found with ID: " + id);
+        }
+    }
+
+    public List<OrganizationSummaryDTO> getAllOrganizations() {
+        log.info("Fetching all organizations/departments");
+        
+        return searchSummaries(Map.of(), fhirClient.search()
+                .forResource(Organization.class));
+    }
+
+    public List<OrganizationSummaryDTO> searchOrganizationsByName(String name) {
+        log.info("Searching organizations by name: {}", name);
+        
+        return searchSummaries(Map.of(Organization.SP_NAME, name), fhirClient.search()
+                .forResource(Organization.class)
+                .where(Organization.NAME.matches().value(name)));
+    }
+
+    public List<OrganizationSummaryDTO> searchByType(String type) {
+        log.info("Searching organizations by type: {}", type);
+        
+        // Get all and filter by type in Java since type is in CodeableConcept
+        List<OrganizationSummaryDTO> allOrganizations = searchSummaries(Map.of(), fhirClient.search()
+                .forResource(Organization.class));
+        
+        return allOrganizations.stream()
+                .filter(o -> o.getType() != null && 
+                           o.getType().toLowerCase().contains(type.toLowerCase()))
+                .toList();
+    }
+
+    // Async counterparts on the bounded FHIR executor, for callers that overlap round trips
+
+    public CompletableFuture<OrganizationDTO> getOrganizationByIdAsync(String id) {
+        return asyncExecutor.submit("Organization read " + id, () -> getOrganizationById(id));
+    }
+
+    public CompletableFuture<List<OrganizationSummaryDTO>> getAllOrganizationsAsync() {
+        return asyncExecutor.submit("Organization search", this::getAllOrganizations);
+    }
+
+    public CompletableFuture<List<OrganizationSummaryDTO>> searchOrganizationsByNameAsync(String name) {
+        return asyncExecutor.submit("Organization search by name", () -> searchOrganizationsByName(name));
+    }
+
+    public CompletableFuture<List<OrganizationSummaryDTO>> searchByTypeAsync(String type) {
+        return asyncExecutor.submit("Organization search by type", () -> searchByType(type));
+    }
+
+    public void deleteOrganization(String id) {
+        log.info("Deleting organization ID: {}", id);
+        
+        auditService.deleteWithAudit("Organization", id, "Organization/Department deleted");
+        dashboardStatsService.recordDeleted("Organization");
+        
+        log.info("Organization deleted successfully: {}", id);
+    }
+
+    // Streams the search when the fast path is on, otherwise runs the client query;
+    // identical searches already in flight are joined rather than repeated
+    private List<OrganizationSummaryDTO> searchSummaries(Map<String, String> params, IQuery<IBaseBundle> query) {
+        return coalescer.search("Organization", params, () -> {
+            if (streamingSearch.isEnabled()) {
+                return streamingSearch.search("Organization", params, OrganizationMapper.SUMMARY_ELEMENTS,
+                        organizationMapper::toSummary);
+            }
+            return streamingSearch.measure("Organization", () -> extractOrganizationsFromBundle(query
+                    .elementsSubset(OrganizationMapper.SUMMARY_ELEMENTS)
+                    .returnBundle(Bundle.class)
+                    .execute()));
+        });
+    }
+
+    private List<OrganizationSummaryDTO> extractOrganizationsFromBundle(Bundle bundle) {
+        List<OrganizationSummaryDTO> organizations = new ArrayList<>();
+        
+        if (bundle.hasEntry()) {
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof Organization) {
+                    Organization organization = (Organization) entry.getResource();
+                    organizations.add(organizationMapper.toSummary(organization));
+                }
+            }
+        }
+        
+        log.info("Found {} organizations", organizations.size());
+        return organizations;
+    }
+}
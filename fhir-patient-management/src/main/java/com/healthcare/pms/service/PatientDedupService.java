@@ -0,0 +1,250 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.mapper.FhirSystems;
+import com.healthcare.pms.mapper.PatientMapping;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decides whether a patient registration needs a conditional (If-None-Exist) create.
+ *
+ * A local Bloom filter holds every registration identifier this instance has seen, seeded
+ * at startup from the patients on the server that carry one. A definite miss means a plain
+ * create is safe, so the server skips the identifier search; a possible hit sends the create
+ * with If-None-Exist. Each identifier goes into the filter as it is checked, before its create
+ * is sent, so a second registration racing the first is always conditional. Until seeding
+ * completes, or if it gives up at the page limit, every registration is sent conditionally.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientDedupService {
+
+    private final IGenericClient fhirClient;
+    private final MemoryBudgetService memoryBudget;
+
+    // Disable on multi-instance deployments so registrations on other nodes are always caught
+    @Value("${patient.dedup.bloom-precheck:true}")
+    private boolean bloomPrecheck;
+
+    @Value("${patient.dedup.expected-patients:100000}")
+    private int expectedPatients;
+
+    @Value("${patient.dedup.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Seeding stops here rather than walk an unexpectedly large server; the filter then stays unused
+    @Value("${patient.dedup.seed-max-pages:20}")
+    private int seedMaxPages;
+
+    @Value("${patient.dedup.seed-page-size:500}")
+    private int seedPageSize;
+
+    private final ExecutorService seedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "patient-dedup-seed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Null once dropped for the memory budget; every registration is then sent conditionally
+    private volatile BloomFilter seen;
+    private volatile boolean seeded;
+
+    @PostConstruct
+    public void init() {
+        seen = new BloomFilter(expectedPatients, falsePositiveRate);
+
+        memoryBudget.register("patient registration filter", new MemoryBudgetService.BudgetedCache() {
+            @Override
+            public long estimatedBytes() {
+                BloomFilter filter = seen;
+                return filter == null ? 0 : filter.sizeBytes();
+            }
+
+            @Override
+            public void shrink(long bytes) {
+                // The filter can't lose entries without missing duplicates, so it goes whole or not at all
+                BloomFilter filter = seen;
+                if (filter != null && bytes >= filter.sizeBytes() / 2) {
+                    seen = null;
+                    seeded = false;
+                    log.warn("Patient registration filter dropped to stay within the memory budget; "
+                            + "registrations now always use a conditional create");
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAsync() {
+        if (bloomPrecheck) {
+            seedExecutor.submit(this::seed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        seedExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the If-None-Exist query for this registration, or null when a plain create is safe.
+     * The registration is recorded as seen in the same step, so call this only to send its create.
+     */
+    public String conditionalCreateQuery(PatientDTO patient) {
+        String token = tokenOf(PatientMapping.registrationIdentifier(patient));
+        if (token == null) {
+            return null;
+        }
+        BloomFilter filter = seen;
+        // A create that then fails leaves its identifier behind, which only costs a conditional create later
+        boolean firstSighting = filter != null && filter.add(token);
+        if (bloomPrecheck && seeded && firstSighting) {
+            return null;
+        }
+        return "identifier=" + token;
+    }
+
+    public void record(PatientDTO patient) {
+        String token = tokenOf(PatientMapping.registrationIdentifier(patient));
+        BloomFilter filter = seen;
+        if (token != null && filter != null) {
+            filter.put(token);
+        }
+    }
+
+    private void seed() {
+        log.info("Seeding patient registration filter");
+        BloomFilter filter = seen;
+        if (filter == null) {
+            return;
+        }
+        int identifiers = 0;
+        int pages = 0;
+
+        try {
+            // Only patients registered with one of our identifier systems, whatever the value
+            Bundle page = fhirClient.search()
+                    .forResource(Patient.class)
+                    .whereMap(Map.of("identifier", List.of(FhirSystems.PATIENT_AADHAAR + "|,"
+                            + FhirSystems.PATIENT_PHONE_DOB + "|")))
+                    .elementsSubset("identifier")
+                    .count(seedPageSize)
+                    .returnBundle(Bundle.class)
+                    .execute();
+
+            while (page != null) {
+                if (++pages > seedMaxPages) {
+                    log.warn("Patient registration filter not seeded: more than {} pages of registered patients; "
+                            + "registrations keep using a conditional create", seedMaxPages);
+                    return;
+                }
+                for (Bundle.BundleEntryComponent entry : page.getEntry()) {
+                    if (entry.getResource() instanceof Patient patient) {
+                        for (Identifier identifier : patient.getIdentifier()) {
+                            if (FhirSystems.PATIENT_AADHAAR.equals(identifier.getSystem())
+                                    || FhirSystems.PATIENT_PHONE_DOB.equals(identifier.getSystem())) {
+                                filter.put(tokenOf(identifier));
+                                identifiers++;
+                            }
+                        }
+                    }
+                }
+
+                page = page.getLink(IBaseBundle.LINK_NEXT) != null
+                        ? fhirClient.loadPage().next(page).execute()
+                        : null;
+            }
+
+            // Stays unseeded if the filter was dropped while seeding
+            seeded = seen == filter;
+            log.info("Patient registration filter seeded with {} identifiers", identifiers);
+        } catch (Exception e) {
+            // Stay unseeded: every registration keeps using a conditional create
+            log.warn("Could not seed patient registration filter: {}", e.getMessage());
+        }
+    }
+
+    private String tokenOf(Identifier identifier) {
+        return identifier == null ? null : identifier.getSystem() + "|" + identifier.getValue();
+    }
+
+    static final class BloomFilter {
+
+        private final BitSet bits;
+        private final int numBits;
+        private final int numHashes;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            this.numBits = (int) Math.max(64, Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.numHashes = (int) Math.max(1, Math.round((double) numBits / expectedInsertions * ln2));
+            this.bits = new BitSet(numBits);
+        }
+
+        synchronized void put(String value) {
+            add(value);
+        }
+
+        // True when the value was definitely not in the filter before this call
+        synchronized boolean add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean added = false;
+            for (int i = 0; i < numHashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, numBits);
+                if (!bits.get(bit)) {
+                    bits.set(bit);
+                    added = true;
+                }
+            }
+            return added;
+        }
+
+        long sizeBytes() {
+            return numBits / 8;
+        }
+
+        synchronized boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < numHashes; i++) {
+                if (!bits.get(Math.floorMod(h1 + i * h2, numBits))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a; the two halves drive double hashing
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.pms.dto.ImportRowErrorDTO;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PatientImportStatusDTO;
+import com.healthcare.pms.mapper.PatientMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientImportService {
+
+    private static final int MAX_TRACKED_JOBS = 20;
+
+    private final IGenericClient fhirClient;
+    private final PatientMapper patientMapper;
+    private final AuditService auditService;
+    private final DashboardStatsService dashboardStatsService;
+    private final PatientDedupService patientDedupService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${patient.import.batch-size:100}")
+    private int batchSize;
+
+    @Value("${patient.import.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${patient.import.bundle-type:batch}")
+    private String bundleType;
+
+    @Value("${patient.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    });
+
+    // Imports run one at a time; each import keeps at most maxInFlight bundles on the wire
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "patient-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService bundleExecutor;
+
+    private record ImportRow(long lineNumber, PatientDTO patient) {
+    }
+
+    @PostConstruct
+    public void init() {
+        bundleExecutor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "patient-import-bundle");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public String startImport(MultipartFile file, String requestedFormat) throws IOException {
+        String format = resolveFormat(file.getOriginalFilename(), requestedFormat);
+
+        // Spool the upload so the request can return while the job streams the file line by line
+        Path upload = Files.createTempFile("patient-import-", "." + format);
+        file.transferTo(upload);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), format);
+        jobs.put(job.id, job);
+        jobExecutor.submit(() -> runImport(job, upload));
+
+        log.info("Queued patient import {} for file {} ({})", job.id, job.fileName, format);
+        return job.id;
+    }
+
+    public PatientImportStatusDTO getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Import job not found: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    private void runImport(ImportJob job, Path upload) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        Semaphore permits = new Semaphore(maxInFlight);
+        boolean csv = "csv".equals(job.format);
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            String[] header = null;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+
+                job.rowsRead.incrementAndGet();
+                PatientDTO patient = readRow(job, lineNumber, line, header);
+                if (patient == null) {
+                    continue;
+                }
+
+                batch.add(new ImportRow(lineNumber, patient));
+                if (batch.size() >= batchSize) {
+                    submitBatch(job, batch, permits);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                submitBatch(job, batch, permits);
+            }
+
+            // Wait for the remaining bundles to come back
+            permits.acquire(maxInFlight);
+            permits.release(maxInFlight);
+
+            job.status = job.failed.get() > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.status = "FAILED";
+            job.message = "Import interrupted";
+        } catch (Exception e) {
+            log.error("Patient import {} failed", job.id, e);
+            job.status = "FAILED";
+            job.message = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}", upload);
+            }
+        }
+
+        log.info("Patient import {} finished: {} imported, {} already registered, {} failed",
+                job.id, job.imported.get(), job.existing.get(), job.failed.get());
+    }
+
+    private PatientDTO readRow(ImportJob job, long lineNumber, String line, String[] header) {
+        PatientDTO patient;
+        try {
+            patient = header != null
+                    ? objectMapper.convertValue(toFieldMap(header, parseCsvLine(line)), PatientDTO.class)
+                    : objectMapper.readValue(line, PatientDTO.class);
+        } catch (Exception e) {
+            job.recordError(lineNumber, "Unreadable row: " + e.getMessage());
+            return null;
+        }
+
+        patient.setId(null);
+
+        Set<ConstraintViolation<PatientDTO>> violations = validator.validate(patient);
+        if (!violations.isEmpty()) {
+            job.recordError(lineNumber, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        return patient;
+    }
+
+    private void submitBatch(ImportJob job, List<ImportRow> rows, Semaphore permits) throws InterruptedException {
+        permits.acquire();
+        job.inFlight.incrementAndGet();
+        bundleExecutor.submit(() -> {
+            try {
+                sendBundle(job, rows);
+            } catch (Exception e) {
+                log.error("Import bundle failed for job {}", job.id, e);
+                rows.forEach(row -> job.recordError(row.lineNumber(), "Bundle rejected: " + e.getMessage()));
+            } finally {
+                job.inFlight.decrementAndGet();
+                permits.release();
+            }
+        });
+    }
+
+    private void sendBundle(ImportJob job, List<ImportRow> rows) {
+        Bundle bundle = new Bundle();
+        bundle.setType("transaction".equalsIgnoreCase(bundleType) ? Bundle.BundleType.TRANSACTION : Bundle.BundleType.BATCH);
+
+        for (ImportRow row : rows) {
+            // A patient already registered under the same identifier is matched rather than duplicated
+            bundle.addEntry()
+                    .setFullUrl("urn:uuid:" + UUID.randomUUID())
+                    .setResource(patientMapper.toFhirResource(row.patient()))
+                    .getRequest()
+                    .setMethod(Bundle.HTTPVerb.POST)
+                    .setUrl("Patient")
+                    .setIfNoneExist(patientDedupService.conditionalCreateQuery(row.patient()));
+        }
+
+        Bundle response = fhirClient.transaction()
+                .withBundle(bundle)
+                .execute();
+
+        // Response entries come back in request order; a conditional create that matched answers 200, not 201
+        List<String> createdIds = new ArrayList<>();
+        List<String> matchedIds = new ArrayList<>();
+        List<Bundle.BundleEntryComponent> entries = response.getEntry();
+        for (int i = 0; i < rows.size(); i++) {
+            Bundle.BundleEntryResponseComponent entryResponse = i < entries.size() ? entries.get(i).getResponse() : null;
+            if (entryResponse != null && entryResponse.hasStatus() && entryResponse.getStatus().startsWith("2")) {
+                String id = new IdType(entryResponse.getLocation()).getIdPart();
+                (entryResponse.getStatus().startsWith("200") ? matchedIds : createdIds).add(id);
+            } else {
+                job.recordError(rows.get(i).lineNumber(), "Server rejected row: " + describe(entryResponse));
+            }
+        }
+
+        job.imported.addAndGet(createdIds.size());
+        job.existing.addAndGet(matchedIds.size());
+        createdIds.forEach(id -> dashboardStatsService.recordCreated("Patient"));
+        auditService.createAuditEvents("create", "Patient", createdIds, "Patient created by bulk import");
+        auditService.createAuditEvents("read", "Patient", matchedIds,
+                "Bulk import matched an existing Patient instead of creating a duplicate");
+    }
+
+    private String describe(Bundle.BundleEntryResponseComponent entryResponse) {
+        if (entryResponse == null) {
+            return "no response entry";
+        }
+        if (entryResponse.getOutcome() instanceof OperationOutcome outcome && outcome.hasIssue()) {
+            return entryResponse.getStatus() + " " + outcome.getIssueFirstRep().getDiagnostics();
+        }
+        return entryResponse.getStatus();
+    }
+
+    private Map<String, String> toFieldMap(String[] header, String[] values) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            // Empty cells stay null so optional @Pattern fields are not validated against ""
+            if (!values[i].isBlank()) {
+                fields.put(header[i].trim(), values[i].trim());
+            }
+        }
+        return fields;
+    }
+
+    private String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+
+        return values.toArray(new String[0]);
+    }
+
+    // Checked before the upload is spooled; the format also names the spool file
+    private String resolveFormat(String fileName, String requestedFormat) {
+        if (requestedFormat != null && !requestedFormat.isBlank()) {
+            return switch (requestedFormat.trim().toLowerCase()) {
+                case "csv" -> "csv";
+                case "ndjson", "jsonl" -> "ndjson";
+                default -> throw new IllegalArgumentException("Unsupported import format '" + requestedFormat
+                        + "'; use csv or ndjson");
+            };
+        }
+        if (fileName != null && (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl"))) {
+            return "ndjson";
+        }
+        return "csv";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        bundleExecutor.shutdownNow();
+    }
+
+    private final class ImportJob {
+
+        private final String id;
+        private final String fileName;
+        private final String format;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong existing = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final List<ImportRowErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, String fileName, String format) {
+            this.id = id;
+            this.fileName = fileName;
+            this.format = format;
+        }
+
+        void recordError(long lineNumber, String error) {
+            failed.incrementAndGet();
+            // Keep counting past the cap, but stop holding messages so a bad file cannot exhaust the heap
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowErrorDTO(lineNumber, error));
+            }
+        }
+
+        PatientImportStatusDTO toStatus() {
+            double rowsPerSecond = 0;
+            if (startedAt != null) {
+                LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+                long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+                rowsPerSecond = (imported.get() + existing.get()) * 1000.0 / millis;
+            }
+
+            List<ImportRowErrorDTO> errorSnapshot;
+            synchronized (errors) {
+                errorSnapshot = new ArrayList<>(errors);
+            }
+
+            return new PatientImportStatusDTO(id, fileName, format, status, rowsRead.get(), imported.get(),
+                    existing.get(), failed.get(), inFlight.get(), startedAt, finishedAt, rowsPerSecond, message, errorSnapshot);
+        }
+    }
+}
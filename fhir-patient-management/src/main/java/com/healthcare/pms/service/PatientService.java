@@ -0,0 +1,196 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.rest.gclient.StringClientParam;
+import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PatientSummaryDTO;
+import com.healthcare.pms.mapper.PatientMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientService {
+
+    private final IGenericClient fhirClient;
+    private final PatientMapper patientMapper;
+    private final AuditService auditService;
+    private final DashboardStatsService dashboardStatsService;
+    private final PatientDedupService patientDedupService;
+    private final ResourcePatchService resourcePatchService;
+    private final StreamingSearchService streamingSearch;
+    private final AsyncFhirExecutor asyncExecutor;
+    private final RequestCoalescer coalescer;
+    private final SearchResultCache searchCache;
+
+    @Value("${cache.search.patient-name-ttl-seconds:30}")
+    private long nameSearchTtlSeconds;
+
+    public PatientDTO createPatient(PatientDTO patientDTO) {
+        log.info("Creating patient: {} {}", patientDTO.getFirstName(), patientDTO.getLastName());
+        
+        Patient patient = patientMapper.toFhirResource(patientDTO);
+        
+        // Conditional create only when this registration may already exist; also marks it as seen
+        String ifNoneExist = patientDedupService.conditionalCreateQuery(patientDTO);
+        AuditService.CreateResult<Patient> outcome = auditService.createWithAudit(patient, ifNoneExist,
+                "Patient created successfully");
+        PatientDTO result = patientMapper.toDTO(outcome.resource());
+        
+        if (!outcome.created()) {
+            log.info("Registration matched existing patient ID: {}", result.getId());
+            result.setMatchedExisting(true);
+            return result;
+        }
+        
+        dashboardStatsService.recordCreated("Patient");
+        
+        log.info("Patient created with ID: {}", result.getId());
+        return result;
+    }
+
+    public PatientDTO updatePatient(String id, PatientDTO patientDTO) {
+        log.info("Updating patient ID: {}", id);
+        
+        patientDTO.setId(id);
+        
+        // Send only what the edit changed, relative to the version the form was loaded from
+        Patient current = resourcePatchService.getLastRead(Patient.class, id, patientDTO.getVersion());
+        String patch = resourcePatchService.diff(current,
+                patientMapper.toFhirResource(patientMapper.toDTO(current)),
+                patientMapper.toFhirResource(patientDTO));
+        
+        if ("[]".equals(patch)) {
+            log.info("No changes to patient ID: {}", id);
+            return patientMapper.toDTO(current);
+        }
+        
+        Patient updatedPatient;
+        try {
+            updatedPatient = auditService.patchWithAudit(Patient.class, id, patch,
+                    current.getIdElement().getVersionIdPart(), "Patient updated successfully");
+        } catch (PreconditionFailedException e) {
+            log.warn("Patient {} changed since version {}", id, current.getIdElement().getVersionIdPart());
+            throw new RuntimeException("Patient was modified by another user, please reload and try again");
+        }
+        resourcePatchService.remember(updatedPatient);
+        PatientDTO result = patientMapper.toDTO(updatedPatient);
+        patientDedupService.record(patientDTO);
+        
+        log.info("Patient updated successfully: {}", id);
+        return result;
+    }
+
+    public PatientDTO getPatientById(String id) {
+        return coalescer.read("Patient", id, () -> readPatient(id));
+    }
+
+    private PatientDTO readPatient(String id) {
+        log.info("Fetching patient ID: {}", id);
+        
+        try {
+            Patient patient = resourcePatchService.read(Patient.class, id);
+            return patientMapper.toDTO(patient);
+        } catch (ResourceNotFoundException e) {
+            log.error("Patient not found with ID: {}", id);
+            throw new RuntimeException("Patient not found with ID: " + id);
+        }
+    }
+
+    public List<PatientSummaryDTO> getAllPatients() {
+        log.info("Fetching all patients");
+        
+        return searchSummaries(Map.of(), fhirClient.search()
+                .forResource(Patient.class));
+    }
+
+    public List<PatientSummaryDTO> searchPatientsByName(String name) {
+        log.info("Searching patients by name: {}", name);
+        
+        Map<String, String> params = Map.of(Patient.SP_NAME, name);
+        return searchCache.get("Patient", params, Set.of(), nameSearchTtlSeconds,
+                () -> searchSummaries(params, fhirClient.search()
+                        .forResource(Patient.class)
+                        .where(Patient.NAME.matches().value(name))));
+    }
+
+    public List<PatientSummaryDTO> searchPatientsByPhone(String phone) {
+        log.info("Searching patients by phone: {}", phone);
+        
+        return searchSummaries(Map.of(Patient.SP_TELECOM, phone), fhirClient.search()
+                .forResource(Patient.class)
+                .where(Patient.TELECOM.exactly().code(phone)));
+    }
+
+    // Async counterparts on the bounded FHIR executor, for callers that overlap round trips
+
+    public CompletableFuture<PatientDTO> getPatientByIdAsync(String id) {
+        return asyncExecutor.submit("Patient read " + id, () -> getPatientById(id));
+    }
+
+    // For callers that can't do without the patient and would rather wait than fail at the default timeout
+    public CompletableFuture<PatientDTO> getPatientByIdAsync(String id, long timeoutMs) {
+        return asyncExecutor.submit("Patient read " + id, () -> getPatientById(id), timeoutMs);
+    }
+
+    public CompletableFuture<List<PatientSummaryDTO>> getAllPatientsAsync() {
+        return asyncExecutor.submit("Patient search", this::getAllPatients);
+    }
+
+    public CompletableFuture<List<PatientSummaryDTO>> searchPatientsByNameAsync(String name) {
+        return asyncExecutor.submit("Patient search by name", () -> searchPatientsByName(name));
+    }
+
+    public void deletePatient(String id) {
+        log.info("Deleting patient ID: {}", id);
+        
+        auditService.deleteWithAudit("Patient", id, "Patient deleted");
+        dashboardStatsService.recordDeleted("Patient");
+        
+        log.info("Patient deleted successfully: {}", id);
+    }
+
+    // Streams the search when the fast path is on, otherwise runs the client query;
+    // identical searches already in flight are joined rather than repeated
+    private List<PatientSummaryDTO> searchSummaries(Map<String, String> params, IQuery<IBaseBundle> query) {
+        return coalescer.search("Patient", params, () -> {
+            if (streamingSearch.isEnabled()) {
+                return streamingSearch.search("Patient", params, PatientMapper.SUMMARY_ELEMENTS, patientMapper::toSummary);
+            }
+            return streamingSearch.measure("Patient", () -> extractPatientsFromBundle(query
+                    .elementsSubset(PatientMapper.SUMMARY_ELEMENTS)
+                    .returnBundle(Bundle.class)
+                    .execute()));
+        });
+    }
+
+    private List<PatientSummaryDTO> extractPatientsFromBundle(Bundle bundle) {
+        List<PatientSummaryDTO> patients = new ArrayList<>();
+        
+        if (bundle.hasEntry()) {
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof Patient) {
+                    Patient patient = (Patient) entry.getResource();
+                    patients.add(patientMapper.toSummary(patient));
+                }
+            }
+        }
+        
+        log.info("Found {} patients", patients.size());
+        return patients;
+    }
+}
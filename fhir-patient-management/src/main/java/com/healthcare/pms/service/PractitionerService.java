@@ -0,0 +1,188 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import com.healthcare.pms.dto.PractitionerDTO;
+import com.healthcare.pms.dto.PractitionerSummaryDTO;
+import com.healthcare.pms.mapper.PractitionerMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PractitionerService {
+
+    private final IGenericClient fhirClient;
+    private final PractitionerMapper practitionerMapper;
+    private final AuditService auditService;
+    private final DashboardStatsService dashboardStatsService;
+    private final ResourcePatchService resourcePatchService;
+    private final StreamingSearchService streamingSearch;
+    private final AsyncFhirExecutor asyncExecutor;
+    private final RequestCoalescer coalescer;
+
+    public PractitionerDTO createPractitioner(PractitionerDTO practitionerDTO) {
+        log.info("Creating practitioner: {} {}", practitionerDTO.getFirstName(), practitionerDTO.getLastName());
+        
+        Practitioner practitioner = practitionerMapper.toFhirResource(practitionerDTO);
+        
+        Practitioner createdPractitioner = auditService.createWithAudit(practitioner, "Practitioner created successfully");
+        PractitionerDTO result = practitionerMapper.toDTO(createdPractitioner);
+        
+        dashboardStatsService.recordCreated("Practitioner");
+        
+        log.info("Practitioner created with ID: {}", result.getId());
+        return result;
+    }
+
+    public PractitionerDTO updatePractitioner(String id, PractitionerDTO practitionerDTO) {
+        log.info("Updating practitioner ID: {}", id);
+        
+        practitionerDTO.setId(id);
+        
+        // Send only what the edit changed, relative to the version the form was loaded from
+        Practitioner current = resourcePatchService.getLastRead(Practitioner.class, id, practitionerDTO.getVersion());
+        String patch = resourcePatchService.diff(current,
+                practitionerMapper.toFhirResource(practitionerMapper.toDTO(current)),
+                practitionerMapper.toFhirResource(practitionerDTO));
+        
+        if ("[]".equals(patch)) {
+            log.info("No changes to practitioner ID: {}", id);
+            return practitionerMapper.toDTO(current);
+        }
+        
+        Practitioner updatedPractitioner;
+        try {
+            updatedPractitioner = auditService.patchWithAudit(Practitioner.class, id, patch,
+                    current.getIdElement().getVersionIdPart(), "Practitioner updated successfully");
+        } catch (PreconditionFailedException e) {
+            log.warn("Practitioner {} changed since version {}", id, current.getIdElement().getVersionIdPart());
+            throw new RuntimeException("Practitioner was modified by another user, please reload and try again");
+        }
+        resourcePatchService.remember(updatedPractitioner);
+        PractitionerDTO result = practitionerMapper.toDTO(updatedPractitioner);
+        
+        log.info("Practitioner updated successfully: {}", id);
+        return result;
+    }
+
+    public PractitionerDTO getPractitionerById(String id) {
+        return coalescer.read("Practitioner", id, () -> readPractitioner(id));
+    }
+
+    private PractitionerDTO readPractitioner(String id) {
+        log.info("Fetching practitioner ID: {}", id);
+        
+        try {
+            Practitioner practitioner = resourcePatchService.read(Practitioner.class, id);
+            return practitionerMapper.toDTO(practitioner);
+        } catch (ResourceNotFoundException e) {
+            log.error("Practitioner not found with ID: {}", id);
+            throw new RuntimeException("Practitioner not found with ID: " + id);
+        }
+    }
+
+    public List<PractitionerSummaryDTO> getAllPractitioners() {
+        log.info("Fetching all practitioners");
+        
+        return searchSummaries(Map.of(), fhirClient.search()
+                .forResource(Practitioner.class));
+    }
+
+    public List<PractitionerSummaryDTO> searchPractitionersByName(String name) {
+        log.info("Searching practitioners by name: {}", name);
+        
+        return searchSummaries(Map.of(Practitioner.SP_NAME, name), fhirClient.search()
+                .forResource(Practitioner.class)
+                .where(Practitioner.NAME.matches().value(name)));
+    }
+
+    public List<PractitionerSummaryDTO> searchBySpecialization(String specialization) {
+        log.info("Searching practitioners by specialization: {}", specialization);
+        
+        // Note: This searches in extensions since specialization is stored there
+        List<PractitionerSummaryDTO> allPractitioners = searchSummaries(Map.of(), fhirClient.search()
+                .forResource(Practitioner.class));
+        
+        // Filter by specialization in Java since it's in extension
+        return allPractitioners.stream()
+                .filter(p -> p.getSpecialization() != null && 
+                           p.getSpecialization().toLowerCase().contains(specialization.toLowerCase()))
+                .toList();
+    }
+
+    // Async counterparts on the bounded FHIR executor, for callers that overlap round trips
+
+    public CompletableFuture<PractitionerDTO> getPractitionerByIdAsync(String id) {
+        return asyncExecutor.submit("Practitioner read " + id, () -> getPractitionerById(id));
+    }
+
+    // For callers that can't do without the practitioner and would rather wait than fail at the default timeout
+    public CompletableFuture<PractitionerDTO> getPractitionerByIdAsync(String id, long timeoutMs) {
+        return asyncExecutor.submit("Practitioner read " + id, () -> getPractitionerById(id), timeoutMs);
+    }
+
+    public CompletableFuture<List<PractitionerSummaryDTO>> getAllPractitionersAsync() {
+        return asyncExecutor.submit("Practitioner search", this::getAllPractitioners);
+    }
+
+    public CompletableFuture<List<PractitionerSummaryDTO>> searchPractitionersByNameAsync(String name) {
+        return asyncExecutor.submit("Practitioner search by name", () -> searchPractitionersByName(name));
+    }
+
+    public CompletableFuture<List<PractitionerSummaryDTO>> searchBySpecializationAsync(String specialization) {
+        return asyncExecutor.submit("Practitioner search by specialization", () -> searchBySpecialization(specialization));
+    }
+
+    public void deletePractitioner(String id) {
+        log.info("Deleting practitioner ID: {}", id);
+        
+        auditService.deleteWithAudit("Practitioner", id, "Practitioner deleted");
+        dashboardStatsService.recordDeleted("Practitioner");
+        
+        log.info("Practitioner deleted successfully: {}", id);
+    }
+
+    // Streams the search when the fast path is on, otherwise runs the client query;
+    // identical searches already in flight are joined rather than repeated
+    private List<PractitionerSummaryDTO> searchSummaries(Map<String, String> params, IQuery<IBaseBundle> query) {
+        return coalescer.search("Practitioner", params, () -> {
+            if (streamingSearch.isEnabled()) {
+                return streamingSearch.search("Practitioner", params, PractitionerMapper.SUMMARY_ELEMENTS,
+                        practitionerMapper::toSummary);
+            }
+            return streamingSearch.measure("Practitioner", () -> extractPractitionersFromBundle(query
+                    .elementsSubset(PractitionerMapper.SUMMARY_ELEMENTS)
+                    .returnBundle(Bundle.class)
+                    .execute()));
+        });
+    }
+
+    private List<PractitionerSummaryDTO> extractPractitionersFromBundle(Bundle bundle) {
+        List<PractitionerSummaryDTO> practitioners = new ArrayList<>();
+        
+        if (bundle.hasEntry()) {
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && entry.getResource() instanceof Practitioner) {
+                    Practitioner practitioner = (Practitioner) entry.getResource();
+                    practitioners.add(practitionerMapper.toSummary(practitioner));
+                }
+            }
+        }
+        
+        log.info("Found {} practitioners", practitioners.size());
+        return practitioners;
+    }
+}
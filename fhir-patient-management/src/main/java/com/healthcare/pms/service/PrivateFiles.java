@@ -0,0 +1,46 @@
+package com.healthcare.pms.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Directories and files readable only by the account the application runs as, for anything
+ * written to disk that holds patient data.
+ */
+final class PrivateFiles {
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private PrivateFiles() {
+    }
+
+    static Path createDirectories(Path directory) throws IOException {
+        if (!POSIX) {
+            return Files.createDirectories(directory);
+        }
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+        // Also tightens a directory left by an earlier version with default permissions
+        Files.setPosixFilePermissions(directory, OWNER_DIRECTORY);
+        return directory;
+    }
+
+    static FileChannel open(Path file, OpenOption... options) throws IOException {
+        if (!POSIX) {
+            return FileChannel.open(file, options);
+        }
+        FileChannel channel = FileChannel.open(file, Set.of(options), PosixFilePermissions.asFileAttribute(OWNER_FILE));
+        // The attribute only applies to a newly created file
+        Files.setPosixFilePermissions(file, OWNER_FILE);
+        return channel;
+    }
+}
@@ -0,0 +1,126 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.CoalescingStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for reads and searches.
+ *
+ * Calls are keyed by resource type, operation and their parameters, sorted and trimmed. While
+ * one call for a key is running, identical calls wait for it and get its result (or exception)
+ * instead of sending their own request. Callers that share a result get the same objects, so
+ * results must be treated as read-only.
+ */
+@Service
+@Slf4j
+public class RequestCoalescer {
+
+    private record Counters(AtomicLong executed, AtomicLong coalesced) {
+    }
+
+    @Value("${coalescing.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // One pair per resource type and operation, a few dozen at most, so left out of the memory budget
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public <T> T read(String resourceType, String id, Supplier<T> call) {
+        return execute(resourceType, "read", Map.of("_id", id), call);
+    }
+
+    public <T> T search(String resourceType, Map<String, ?> params, Supplier<T> call) {
+        return execute(resourceType, "search", params, call);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String resourceType, String operation, Map<String, ?> params, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        String key = key(resourceType, operation, params);
+        Counters operationCounters = counters.computeIfAbsent(resourceType + " " + operation,
+                name -> new Counters(new AtomicLong(), new AtomicLong()));
+
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, ours);
+        if (running != null) {
+            operationCounters.coalesced().incrementAndGet();
+            log.debug("Joined in-flight {}", key);
+            return (T) await(running, key);
+        }
+
+        operationCounters.executed().incrementAndGet();
+        try {
+            T result = call.get();
+            ours.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Later callers start a fresh request rather than reuse a finished one
+            inFlight.remove(key, ours);
+            logPeriodically(resourceType + " " + operation, operationCounters);
+        }
+    }
+
+    public List<CoalescingStatsDTO> getStats() {
+        return new TreeMap<>(counters).entrySet().stream()
+                .map(entry -> {
+                    long executed = entry.getValue().executed().get();
+                    long coalesced = entry.getValue().coalesced().get();
+                    long calls = executed + coalesced;
+                    return new CoalescingStatsDTO(entry.getKey(), executed, coalesced,
+                            calls == 0 ? 0 : (double) coalesced / calls);
+                })
+                .toList();
+    }
+
+    private Object await(CompletableFuture<Object> running, String key) {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(key + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for " + key);
+        }
+    }
+
+    // Also the search cache's key, so both see the same parameters as the same request
+    static String key(String resourceType, String operation, Map<String, ?> params) {
+        StringBuilder key = new StringBuilder(resourceType).append(' ').append(operation).append('?');
+        new TreeMap<>(params).forEach((name, value) -> {
+            if (value != null && !value.toString().isBlank()) {
+                key.append(name).append('=').append(value.toString().trim()).append('&');
+            }
+        });
+        return key.toString();
+    }
+
+    private void logPeriodically(String operation, Counters operationCounters) {
+        long executed = operationCounters.executed().get();
+        if (executed % 1000 == 0) {
+            long coalesced = operationCounters.coalesced().get();
+            log.debug("{}: {} requests sent, {} calls coalesced ({}%)", operation, executed, coalesced,
+                    coalesced * 100 / (executed + coalesced));
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds minimal JSON Patches for form edits.
+ *
+ * The mapper's view of the resource before and after the edit is diffed, and each change is
+ * addressed into the resource as last read from the server. Elements and extensions the mapper
+ * doesn't know about never appear in the patch, so they survive the edit untouched.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResourcePatchService {
+
+    // Repeating elements matched by key rather than by position. The first field pairs an element
+    // before and after the edit; all of them together find it in the resource as last read
+    private static final Map<String, List<String>> ARRAY_KEYS = Map.of(
+            "extension", List.of("url"),
+            "identifier", List.of("system", "value"),
+            "telecom", List.of("system", "value"));
+
+    private static final Set<String> IGNORED_ELEMENTS = Set.of("resourceType", "id", "meta", "text");
+
+    // Rough heap cost of one parsed resource's object graph
+    private static final long ESTIMATED_RESOURCE_BYTES = 16 * 1024;
+
+    private final IGenericClient fhirClient;
+    private final FhirContext fhirContext;
+    private final ObjectMapper objectMapper;
+    private final OffHeapResourceCache offHeapCache;
+    private final MemoryBudgetService memoryBudget;
+
+    @Value("${updates.last-read-cache-size:500}")
+    private int lastReadCacheSize;
+
+    private final Map<String, Resource> lastRead = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Resource> eldest) {
+            if (size() <= lastReadCacheSize) {
+                return false;
+            }
+            // Demoted to the off-heap tier rather than dropped
+            offHeapCache.put(eldest.getValue());
+            return true;
+        }
+    });
+
+    @PostConstruct
+    public void registerWithBudget() {
+        memoryBudget.register("last-read resources", new MemoryBudgetService.BudgetedCache() {
+            @Override
+            public long estimatedBytes() {
+                return lastRead.size() * ESTIMATED_RESOURCE_BYTES;
+            }
+
+            @Override
+            public void shrink(long bytes) {
+                // Least recently used first, demoted to the off-heap tier
+                long count = (bytes + ESTIMATED_RESOURCE_BYTES - 1) / ESTIMATED_RESOURCE_BYTES;
+                synchronized (lastRead) {
+                    Iterator<Resource> eldest = lastRead.values().iterator();
+                    for (long i = 0; i < count && eldest.hasNext(); i++) {
+                        offHeapCache.put(eldest.next());
+                        eldest.remove();
+                    }
+                }
+            }
+        });
+    }
+
+    public void remember(Resource resource) {
+        lastRead.put(resource.fhirType() + "/" + resource.getIdElement().getIdPart(), resource);
+    }
+
+    // Runs before the off-heap tier's shutdown snapshot, so the hottest entries make it into the file
+    @PreDestroy
+    public void demoteLastRead() {
+        synchronized (lastRead) {
+            lastRead.values().forEach(offHeapCache::put);
+        }
+    }
+
+    /**
+     * Returns the resource at the version the edit started from, falling back to the server.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> T getLastRead(Class<T> resourceClass, String id, String version) {
+        Resource cached = lastRead.get(resourceClass.getSimpleName() + "/" + id);
+        if (resourceClass.isInstance(cached)
+                && (version == null || version.equals(cached.getIdElement().getVersionIdPart()))) {
+            return (T) cached;
+        }
+        if (version != null) {
+            T offHeap = offHeapCache.get(resourceClass, id, version);
+            if (offHeap != null) {
+                remember(offHeap);
+                return offHeap;
+            }
+        }
+
+        T resource = version != null
+                ? fhirClient.read().resource(resourceClass).withIdAndVersion(id, version).execute()
+                : fhirClient.read().resource(resourceClass).withId(id).execute();
+        remember(resource);
+        return resource;
+    }
+
+    /**
+     * Reads the current resource. A cached copy's version is sent as If-None-Match, so an
+     * unchanged resource is neither transferred nor parsed again; an off-heap copy is only
+     * decoded once the server confirms it is current.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> T read(Class<T> resourceClass, String id) {
+        Resource cached = lastRead.get(resourceClass.getSimpleName() + "/" + id);
+        String version = resourceClass.isInstance(cached)
+                ? cached.getIdElement().getVersionIdPart()
+                : offHeapCache.version(resourceClass, id);
+        if (version == null) {
+            return readFromServer(resourceClass, id);
+        }
+
+        T current = fhirClient.read().resource(resourceClass).withId(id)
+                .ifVersionMatches(version).returnNull()
+                .execute();
+        if (current == null) {
+            log.debug("{}/{} unchanged at version {}", resourceClass.getSimpleName(), id, version);
+            current = resourceClass.isInstance(cached) ? (T) cached : offHeapCache.get(resourceClass, id, version);
+            if (current == null) {
+                // Evicted from the ring while the server was answering
+                return readFromServer(resourceClass, id);
+            }
+        }
+        remember(current);
+        return current;
+    }
+
+    private <T extends Resource> T readFromServer(Class<T> resourceClass, String id) {
+        T resource = fhirClient.read().resource(resourceClass).withId(id).execute();
+        remember(resource);
+        return resource;
+    }
+
+    /**
+     * JSON Patch turning base into base-plus-edit, where before and after are the mapper's
+     * rendering of the resource ahead of and following the edit. Returns "[]" when nothing changed.
+     */
+    public String diff(Resource base, Resource before, Resource after) {
+        ArrayNode operations = objectMapper.createArrayNode();
+        List<ObjectNode> removals = new ArrayList<>();
+
+        diffObject(operations, removals, "", toJson(base), toJson(before), toJson(after), true);
+
+        // Array element removals go last, highest index first, so no other path shifts under them
+        removals.forEach(operations::add);
+        log.debug("{} {} edit diffed to {} patch operations", base.fhirType(), base.getIdElement().getIdPart(), operations.size());
+        return operations.toString();
+    }
+
+    private void diffObject(ArrayNode operations, List<ObjectNode> removals, String path,
+                            JsonNode base, JsonNode before, JsonNode after, boolean root) {
+        Set<String> fields = new LinkedHashSet<>();
+        before.fieldNames().forEachRemaining(fields::add);
+        after.fieldNames().forEachRemaining(fields::add);
+
+        for (String field : fields) {
+            if (root && IGNORED_ELEMENTS.contains(field)) {
+                continue;
+            }
+
+            JsonNode was = before.get(field);
+            JsonNode now = after.get(field);
+            if (now != null && now.equals(was)) {
+                continue;
+            }
+
+            String fieldPath = path + "/" + escape(field);
+            JsonNode current = base.get(field);
+
+            // Something the mapper didn't render before is diffed as if it had been empty
+            if (was == null && now != null) {
+                was = now.isArray() ? objectMapper.createArrayNode() : now.isObject() ? objectMapper.createObjectNode() : null;
+            }
+
+            if (now == null && was.isArray() && current != null && current.isArray()) {
+                // Only drop the elements the mapper rendered; anything else in the array stays
+                diffArray(operations, removals, fieldPath, field, current, was, objectMapper.createArrayNode());
+            } else if (now == null) {
+                if (current != null) {
+                    operations.add(operation("remove", fieldPath, null));
+                }
+            } else if (current == null) {
+                operations.add(operation("add", fieldPath, now));
+            } else if (now.isObject() && was != null && was.isObject() && current.isObject()) {
+                diffObject(operations, removals, fieldPath, current, was, now, false);
+            } else if (now.isArray() && was != null && was.isArray() && current.isArray()) {
+                diffArray(operations, removals, fieldPath, field, current, was, now);
+            } else {
+                operations.add(operation("replace", fieldPath, now));
+            }
+        }
+    }
+
+    private void diffArray(ArrayNode operations, List<ObjectNode> removals, String path, String field,
+                           JsonNode base, JsonNode before, JsonNode after) {
+        List<String> key = ARRAY_KEYS.get(field);
+        List<String> editKey = key == null ? null : key.subList(0, 1);
+        Set<Integer> matchedBefore = new LinkedHashSet<>();
+
+        for (int i = 0; i < after.size(); i++) {
+            JsonNode now = after.get(i);
+            int wasIndex = indexOf(before, now, editKey, i, matchedBefore);
+            int currentIndex = wasIndex < 0 ? -1 : indexOf(base, before.get(wasIndex), key, wasIndex, Set.of());
+
+            if (wasIndex >= 0) {
+                matchedBefore.add(wasIndex);
+            }
+            if (wasIndex >= 0 && now.equals(before.get(wasIndex))) {
+                continue;
+            }
+
+            if (currentIndex < 0) {
+                operations.add(operation("add", path + "/-", now));
+            } else if (now.isObject() && base.get(currentIndex).isObject()) {
+                diffObject(operations, removals, path + "/" + currentIndex, base.get(currentIndex),
+                        before.get(wasIndex), now, false);
+            } else {
+                operations.add(operation("replace", path + "/" + currentIndex, now));
+            }
+        }
+
+        // Elements the edit dropped; unknown elements in base are never matched, so never removed
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < before.size(); i++) {
+            if (!matchedBefore.contains(i)) {
+                int currentIndex = indexOf(base, before.get(i), key, i, Set.of());
+                if (currentIndex >= 0) {
+                    removed.add(currentIndex);
+                }
+            }
+        }
+        removed.sort(Collections.reverseOrder());
+        removed.forEach(index -> removals.add(operation("remove", path + "/" + index, null)));
+    }
+
+    // With several candidates the last one wins, the same element the mappers show for a system
+    private int indexOf(JsonNode array, JsonNode element, List<String> key, int position, Set<Integer> taken) {
+        if (key == null) {
+            return position < array.size() ? position : -1;
+        }
+        if (element.get(key.get(0)) == null) {
+            return -1;
+        }
+
+        int found = -1;
+        Iterator<JsonNode> items = array.elements();
+        for (int i = 0; items.hasNext(); i++) {
+            JsonNode item = items.next();
+            if (!taken.contains(i) && key.stream().allMatch(name -> Objects.equals(element.get(name), item.get(name)))) {
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    private ObjectNode operation(String op, String path, JsonNode value) {
+        ObjectNode operation = objectMapper.createObjectNode()
+                .put("op", op)
+                .put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+        return operation;
+    }
+
+    private JsonNode toJson(Resource resource) {
+        IParser parser = fhirContext.newJsonParser().setPrettyPrint(false);
+        try {
+            return objectMapper.readTree(parser.encodeResourceToString(resource));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read " + resource.fhirType() + " as JSON", e);
+        }
+    }
+
+    // JSON Pointer escaping for element names
+    private String escape(String field) {
+        return field.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,183 @@
+package com.healthcare.pms.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Result rows of repeated searches, keyed like the request coalescer keys them.
+ *
+ * Each search passes its own TTL. Past it, the old rows are still served for the stale window
+ * while one background refresh replaces them; after that the search runs in the caller's thread.
+ * A write to any resource type a search depends on drops its entries at once, and a load that
+ * was already running when the write happened is not stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCache {
+
+    // Rough heap cost of one summary or appointment row
+    private static final long ESTIMATED_ROW_BYTES = 1024;
+
+    private static final class Entry {
+
+        private final Set<String> resourceTypes;
+        private final List<?> rows;
+        private final long loadedAt = System.currentTimeMillis();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Set<String> resourceTypes, List<?> rows) {
+            this.resourceTypes = resourceTypes;
+            this.rows = rows;
+        }
+    }
+
+    private final AsyncFhirExecutor asyncExecutor;
+    private final MemoryBudgetService memoryBudget;
+
+    @Value("${cache.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.search.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${cache.search.stale-seconds:60}")
+    private long staleSeconds;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    });
+
+    // Bumped on every write to the type; a load only stores its rows if none changed meanwhile
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void registerWithBudget() {
+        memoryBudget.register("search results", new MemoryBudgetService.BudgetedCache() {
+            @Override
+            public long estimatedBytes() {
+                synchronized (entries) {
+                    return entries.values().stream().mapToLong(entry -> entry.rows.size()).sum() * ESTIMATED_ROW_BYTES;
+                }
+            }
+
+            @Override
+            public void shrink(long bytes) {
+                // Least recently used first
+                long freed = 0;
+                synchronized (entries) {
+                    Iterator<Entry> eldest = entries.values().iterator();
+                    while (freed < bytes && eldest.hasNext()) {
+                        freed += Math.max(1, eldest.next().rows.size()) * ESTIMATED_ROW_BYTES;
+                        eldest.remove();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Rows of the search, from the cache when possible. dependsOn lists other resource types
+     * whose writes change the rows, such as the names shown on appointments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String resourceType, Map<String, ?> params, Set<String> dependsOn,
+                           long ttlSeconds, Supplier<List<T>> search) {
+        if (!enabled || ttlSeconds <= 0) {
+            return search.get();
+        }
+
+        String key = RequestCoalescer.key(resourceType, "search", params);
+        Set<String> resourceTypes = new HashSet<>(dependsOn);
+        resourceTypes.add(resourceType);
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long age = System.currentTimeMillis() - entry.loadedAt;
+            if (age < ttlSeconds * 1000) {
+                count(hits);
+                return (List<T>) entry.rows;
+            }
+            if (age < (ttlSeconds + staleSeconds) * 1000) {
+                count(staleHits);
+                refreshInBackground(key, entry, resourceTypes, search);
+                return (List<T>) entry.rows;
+            }
+        }
+
+        count(misses);
+        return load(key, resourceTypes, search);
+    }
+
+    /**
+     * Drops every cached search over the resource type; called by the service layer after each write.
+     */
+    public void invalidate(String resourceType) {
+        generations.computeIfAbsent(resourceType, type -> new AtomicLong()).incrementAndGet();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.resourceTypes.contains(resourceType));
+        }
+    }
+
+    private <T> List<T> load(String key, Set<String> resourceTypes, Supplier<List<T>> search) {
+        long generation = generation(resourceTypes);
+        List<T> rows = List.copyOf(search.get());
+        // A write landed while the search ran, so its rows may predate it
+        if (generation == generation(resourceTypes)) {
+            entries.put(key, new Entry(resourceTypes, rows));
+        }
+        return rows;
+    }
+
+    private <T> void refreshInBackground(String key, Entry entry, Set<String> resourceTypes, Supplier<List<T>> search) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        asyncExecutor.submit("Refresh of " + key, () -> load(key, resourceTypes, search))
+                .whenComplete((rows, error) -> {
+                    if (error != null) {
+                        // The stale rows stay until their window ends; the next stale hit tries again
+                        log.warn("Background refresh of {} failed: {}", key, error.getMessage());
+                        entry.refreshing.set(false);
+                    }
+                });
+    }
+
+    private long generation(Set<String> resourceTypes) {
+        // Generations only grow, so the sum changes whenever any one of them does
+        return resourceTypes.stream()
+                .mapToLong(type -> generations.computeIfAbsent(type, t -> new AtomicLong()).get())
+                .sum();
+    }
+
+    private void count(AtomicLong counter) {
+        counter.incrementAndGet();
+        long lookups = hits.get() + staleHits.get() + misses.get();
+        if (lookups % 1000 == 0) {
+            log.debug("Search cache: {} lookups, {} fresh hits, {} stale hits, {} entries",
+                    lookups, hits.get(), staleHits.get(), entries.size());
+        }
+    }
+}
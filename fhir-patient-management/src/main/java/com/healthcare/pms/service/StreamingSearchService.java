@@ -0,0 +1,189 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.api.Constants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Optional fast path for list searches.
+ *
+ * The search response is read with a streaming JSON parser and each entry's resource is handed to
+ * the mapper as soon as it has been read, so no Bundle or resource model is ever built. Both this
+ * path and the HAPI client path log time to first row and bytes allocated, to compare the two.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingSearchService {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${fhir.server.base-url}")
+    private String fhirServerBaseUrl;
+
+    @Value("${fhir.server.timeout:60000}")
+    private int timeout;
+
+    @Value("${search.streaming-parser.enabled:false}")
+    private boolean enabled;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the search and collects the mapped entries.
+     */
+    public <T> List<T> search(String resourceType, Map<String, String> params, String[] elements,
+                              Function<JsonNode, T> mapper) {
+        List<T> rows = new ArrayList<>();
+        stream(resourceType, params, elements, mapper, rows::add);
+        return rows;
+    }
+
+    /**
+     * Runs the search and hands each mapped entry to the sink as it is read off the wire.
+     */
+    public <T> void stream(String resourceType, Map<String, String> params, String[] elements,
+                           Function<JsonNode, T> mapper, Consumer<T> sink) {
+        HttpRequest request = HttpRequest.newBuilder(searchUri(resourceType, params, elements))
+                .timeout(Duration.ofMillis(timeout))
+                .header(Constants.HEADER_ACCEPT, Constants.CT_FHIR_JSON_NEW)
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        long firstRowNanos = -1;
+        int rows = 0;
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body(); JsonParser parser = objectMapper.createParser(body)) {
+                if (response.statusCode() != 200) {
+                    throw new RuntimeException(resourceType + " search failed with HTTP " + response.statusCode());
+                }
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new RuntimeException(resourceType + " search did not return a Bundle");
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (!"entry".equals(field) || value != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode resource = readEntryResource(parser);
+                        if (resource != null && resourceType.equals(resource.path("resourceType").asText())) {
+                            T row = mapper.apply(resource);
+                            if (rows++ == 0) {
+                                firstRowNanos = System.nanoTime() - started;
+                            }
+                            sink.accept(row);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(resourceType + " search failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(resourceType + " search interrupted");
+        }
+
+        report("streaming", resourceType, rows, firstRowNanos, System.nanoTime() - started, allocatedBefore);
+    }
+
+    /**
+     * Runs a search through the HAPI client and reports it the same way as the streaming path.
+     * Nothing is available until the whole Bundle is parsed, so the first row arrives with the last.
+     */
+    public <T> List<T> measure(String resourceType, Supplier<List<T>> search) {
+        long started = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+
+        List<T> rows = search.get();
+
+        long elapsed = System.nanoTime() - started;
+        report("hapi", resourceType, rows.size(), rows.isEmpty() ? -1 : elapsed, elapsed, allocatedBefore);
+        return rows;
+    }
+
+    // Reads one entry object, keeping only its resource; the parser ends on the entry's END_OBJECT
+    private JsonNode readEntryResource(JsonParser parser) throws IOException {
+        JsonNode resource = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("resource".equals(field)) {
+                resource = parser.readValueAsTree();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return resource;
+    }
+
+    private URI searchUri(String resourceType, Map<String, String> params, String[] elements) {
+        StringJoiner query = new StringJoiner("&");
+        params.forEach((name, value) -> query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        if (elements != null && elements.length > 0) {
+            query.add(Constants.PARAM_ELEMENTS + "=" + URLEncoder.encode(String.join(",", elements), StandardCharsets.UTF_8));
+        }
+        query.add(Constants.PARAM_FORMAT + "=json");
+
+        String base = fhirServerBaseUrl.endsWith("/")
+                ? fhirServerBaseUrl.substring(0, fhirServerBaseUrl.length() - 1)
+                : fhirServerBaseUrl;
+        return URI.create(base + "/" + resourceType + "?" + query);
+    }
+
+    private void report(String path, String resourceType, int rows, long firstRowNanos, long totalNanos,
+                        long allocatedBefore) {
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        log.debug("{} list via {} path: {} rows, first row after {} ms, total {} ms, {} KB allocated",
+                resourceType, path, rows,
+                firstRowNanos < 0 ? "-" : String.valueOf(firstRowNanos / 1_000_000),
+                totalNanos / 1_000_000,
+                allocated < 0 ? "-" : String.valueOf(allocated / 1024));
+    }
+
+    // Bytes allocated so far by the calling thread, or -1 where the JVM can't tell
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.healthcare.pms.mapper;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.healthcare.pms.dto.AppointmentDTO;
+import org.hl7.fhir.r4.model.Appointment;
+import org.hl7.fhir.r4.model.Identifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentMapperTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private final AppointmentMapper mapper = new AppointmentMapper();
+    private final LegacyAppointmentMapper legacy = new LegacyAppointmentMapper();
+
+    @Test
+    void roundTripsEveryStoredField() {
+        AppointmentDTO dto = appointment();
+
+        AppointmentDTO read = mapper.toDTO(viaJson(mapper.toFhirResource(dto)));
+
+        // The recurrence rule only drives series creation and is not stored on each appointment
+        assertThat(read).usingRecursiveComparison()
+                .ignoringFields("recurrenceFrequency", "recurrenceInterval", "recurrenceCount")
+                .isEqualTo(dto);
+    }
+
+    @Test
+    void findsTheSeriesAmongOtherIdentifiers() {
+        Appointment appointment = mapper.toFhirResource(appointment());
+        appointment.getIdentifier().add(0, new Identifier()
+                .setSystem("http://example.org/booking").setValue("B-1"));
+
+        assertThat(mapper.toDTO(viaJson(appointment)).getSeriesId()).isEqualTo("series-1");
+    }
+
+    @Test
+    void durationDrivesTheEndTime() {
+        Appointment appointment = mapper.toFhirResource(appointment());
+
+        assertThat(appointment.getEnd().getTime() - appointment.getStart().getTime()).isEqualTo(45 * 60_000L);
+    }
+
+    @Test
+    void writesWhatTheHandWrittenMapperWrote() {
+        assertThat(MapperParity.json(mapper.toFhirResource(appointment())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(appointment())));
+        assertThat(MapperParity.json(mapper.toFhirResource(sparseAppointment())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(sparseAppointment())));
+    }
+
+    @Test
+    void readsWhatTheHandWrittenMapperRead() {
+        Appointment appointment = viaJson(legacy.toFhirResource(appointment()));
+        appointment.setId("Appointment/a1/_history/5");
+
+        assertThat(mapper.toDTO(appointment)).usingRecursiveComparison().isEqualTo(legacy.toDTO(appointment));
+
+        Appointment sparse = viaJson(legacy.toFhirResource(sparseAppointment()));
+        sparse.getMeta().setVersionId("1");
+        assertThat(mapper.toDTO(sparse)).usingRecursiveComparison().isEqualTo(legacy.toDTO(sparse));
+    }
+
+    private static AppointmentDTO appointment() {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setId("a1");
+        dto.setPatientId("p1");
+        dto.setPatientName("Asha Rao");
+        dto.setPractitionerId("pr1");
+        dto.setPractitionerName("Dr. Meera Iyer");
+        dto.setAppointmentDate(LocalDate.of(2026, 3, 2));
+        dto.setAppointmentTime(LocalTime.of(10, 30));
+        dto.setAppointmentType("Follow-up");
+        dto.setStatus("booked");
+        dto.setReasonCode("Review");
+        dto.setReasonDescription("Post-operative review");
+        dto.setSpecialty("Cardiology");
+        dto.setDurationMinutes(45);
+        dto.setComment("Bring reports");
+        dto.setCancellationReason("none");
+        dto.setSeriesId("series-1");
+        return dto;
+    }
+
+    // A walk-in: no practitioner, time or series yet
+    private static AppointmentDTO sparseAppointment() {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setPatientId("p2");
+        dto.setAppointmentDate(LocalDate.of(2026, 3, 3));
+        dto.setStatus("proposed");
+        dto.setReasonCode("Fever");
+        return dto;
+    }
+
+    private static Appointment viaJson(Appointment appointment) {
+        String json = FHIR_CONTEXT.newJsonParser().encodeResourceToString(appointment);
+        return FHIR_CONTEXT.newJsonParser().parseResource(Appointment.class, json);
+    }
+}
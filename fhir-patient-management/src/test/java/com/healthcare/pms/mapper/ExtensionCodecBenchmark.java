@@ -0,0 +1,134 @@
+package com.healthcare.pms.mapper;
+
+import com.healthcare.pms.dto.PatientDTO;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patient extensions read and written with the url.contains chain the mappers used to have,
+ * against {@link ExtensionCodec}, plus the whole patient mapping for scale.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}; the gc profiler adds allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtensionCodecBenchmark {
+
+    private static final ExtensionCodec<PatientDTO> EXTENSIONS = ExtensionCodec.<PatientDTO>builder()
+            .string(FhirSystems.EXT_BLOOD_GROUP, PatientDTO::getBloodGroup, PatientDTO::setBloodGroup)
+            .string(FhirSystems.EXT_PAN_CARD, PatientDTO::getPanCard, PatientDTO::setPanCard)
+            .string(FhirSystems.EXT_AADHAAR, PatientDTO::getAadhaarNumber, PatientDTO::setAadhaarNumber)
+            .build();
+
+    private final PatientMapper mapper = new PatientMapper();
+
+    private PatientDTO dto;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        dto = new PatientDTO();
+        dto.setId("p1");
+        dto.setFirstName("Asha");
+        dto.setLastName("Rao");
+        dto.setDateOfBirth(LocalDate.of(1990, 5, 12));
+        dto.setGender("female");
+        dto.setPhone("9876543210");
+        dto.setEmail("asha@example.com");
+        dto.setAddress("12 MG Road");
+        dto.setCity("Pune");
+        dto.setState("Maharashtra");
+        dto.setPostalCode("411001");
+        dto.setMaritalStatus("married");
+        dto.setBloodGroup("O+");
+        dto.setPanCard("ABCDE1234F");
+        dto.setAadhaarNumber("123412341234");
+        dto.setEmergencyContactName("Ravi Rao");
+        dto.setEmergencyContactPhone("9123456780");
+        dto.setEmergencyContactRelation("Brother");
+        dto.setActive(true);
+
+        patient = mapper.toFhirResource(dto);
+    }
+
+    @Benchmark
+    public PatientDTO readChain() {
+        PatientDTO read = new PatientDTO();
+        for (Extension ext : patient.getExtension()) {
+            if (ext.getUrl().contains("blood-group")) {
+                read.setBloodGroup(((StringType) ext.getValue()).getValue());
+            } else if (ext.getUrl().contains("pan-card")) {
+                read.setPanCard(((StringType) ext.getValue()).getValue());
+            } else if (ext.getUrl().contains("aadhaar")) {
+                read.setAadhaarNumber(((StringType) ext.getValue()).getValue());
+            }
+        }
+        return read;
+    }
+
+    @Benchmark
+    public PatientDTO readCodec() {
+        PatientDTO read = new PatientDTO();
+        EXTENSIONS.read(patient, read);
+        return read;
+    }
+
+    @Benchmark
+    public Patient writeChain() {
+        Patient written = new Patient();
+        if (dto.getBloodGroup() != null) {
+            Extension bloodGroupExt = new Extension();
+            bloodGroupExt.setUrl(FhirSystems.EXT_BLOOD_GROUP);
+            bloodGroupExt.setValue(new StringType(dto.getBloodGroup()));
+            written.addExtension(bloodGroupExt);
+        }
+        if (dto.getPanCard() != null) {
+            Extension panExt = new Extension();
+            panExt.setUrl(FhirSystems.EXT_PAN_CARD);
+            panExt.setValue(new StringType(dto.getPanCard()));
+            written.addExtension(panExt);
+        }
+        if (dto.getAadhaarNumber() != null) {
+            Extension aadhaarExt = new Extension();
+            aadhaarExt.setUrl(FhirSystems.EXT_AADHAAR);
+            aadhaarExt.setValue(new StringType(dto.getAadhaarNumber()));
+            written.addExtension(aadhaarExt);
+        }
+        return written;
+    }
+
+    @Benchmark
+    public Patient writeCodec() {
+        Patient written = new Patient();
+        EXTENSIONS.write(dto, written);
+        return written;
+    }
+
+    @Benchmark
+    public PatientDTO toDTO() {
+        return mapper.toDTO(patient);
+    }
+
+    @Benchmark
+    public Patient toFhirResource() {
+        return mapper.toFhirResource(dto);
+    }
+}
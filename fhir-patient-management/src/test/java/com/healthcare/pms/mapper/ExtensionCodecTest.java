@@ -0,0 +1,112 @@
+package com.healthcare.pms.mapper;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtensionCodecTest {
+
+    private static final String NICKNAME_URL = "http://example.org/fhir/StructureDefinition/nickname";
+    private static final String VISITS_URL = "http://example.org/fhir/StructureDefinition/visits";
+
+    private static final ExtensionCodec<Holder> CODEC = ExtensionCodec.<Holder>builder()
+            .string(NICKNAME_URL, Holder::getNickname, Holder::setNickname)
+            .integer(VISITS_URL, Holder::getVisits, Holder::setVisits)
+            .build();
+
+    @Test
+    void roundTripsThroughTheResource() {
+        Patient patient = new Patient();
+        CODEC.write(new Holder("Sam", 4), patient);
+
+        Holder read = new Holder();
+        CODEC.read(patient, read);
+
+        assertThat(patient.getExtension()).extracting("url").containsExactly(NICKNAME_URL, VISITS_URL);
+        assertThat(read.getNickname()).isEqualTo("Sam");
+        assertThat(read.getVisits()).isEqualTo(4);
+    }
+
+    @Test
+    void roundTripsThroughJson() throws Exception {
+        Patient patient = new Patient();
+        CODEC.write(new Holder("Sam", 4), patient);
+        String json = FhirContext.forR4().newJsonParser().encodeResourceToString(patient);
+
+        Holder read = new Holder();
+        CODEC.readJson(new ObjectMapper().readTree(json), read);
+
+        assertThat(read.getNickname()).isEqualTo("Sam");
+        assertThat(read.getVisits()).isEqualTo(4);
+    }
+
+    @Test
+    void nullValuesAreNotWritten() {
+        Patient patient = new Patient();
+        CODEC.write(new Holder(null, 4), patient);
+
+        assertThat(patient.getExtension()).extracting("url").containsExactly(VISITS_URL);
+    }
+
+    @Test
+    void skipsValuesOfTheWrongTypeAndUnknownUrls() {
+        Patient patient = new Patient();
+        patient.addExtension(NICKNAME_URL, new IntegerType(7));
+        patient.addExtension("http://example.org/unknown", new StringType("ignored"));
+        patient.addExtension(VISITS_URL, new IntegerType(2));
+
+        Holder read = new Holder();
+        CODEC.read(patient, read);
+
+        assertThat(read.getNickname()).isNull();
+        assertThat(read.getVisits()).isEqualTo(2);
+    }
+
+    @Test
+    void jsonWithTheWrongValueTypeIsSkipped() throws Exception {
+        String json = "{\"resourceType\":\"Patient\",\"extension\":["
+                + "{\"url\":\"" + NICKNAME_URL + "\",\"valueInteger\":7},"
+                + "{\"url\":\"" + VISITS_URL + "\",\"valueInteger\":\"three\"}]}";
+
+        Holder read = new Holder();
+        CODEC.readJson(new ObjectMapper().readTree(json), read);
+
+        assertThat(read.getNickname()).isNull();
+        assertThat(read.getVisits()).isNull();
+    }
+
+    static final class Holder {
+
+        private String nickname;
+        private Integer visits;
+
+        Holder() {
+        }
+
+        Holder(String nickname, Integer visits) {
+            this.nickname = nickname;
+            this.visits = visits;
+        }
+
+        String getNickname() {
+            return nickname;
+        }
+
+        void setNickname(String nickname) {
+            this.nickname = nickname;
+        }
+
+        Integer getVisits() {
+            return visits;
+        }
+
+        void setVisits(Integer visits) {
+            this.visits = visits;
+        }
+    }
+}
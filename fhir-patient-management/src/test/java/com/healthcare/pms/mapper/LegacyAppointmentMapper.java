@@ -2,14 +2,16 @@ package com.healthcare.pms.mapper;
 
 import com.healthcare.pms.dto.AppointmentDTO;
 import org.hl7.fhir.r4.model.*;
-import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
 
-@Component
-public class AppointmentMapper {
+/**
+ * The hand-written AppointmentMapper the generated one replaced, kept as it was, as the reference
+ * the generated mapper's output is checked against.
+ */
+class LegacyAppointmentMapper {
+
+    public static final String SERIES_IDENTIFIER_SYSTEM = "http://healthcare.com/fhir/identifier/appointment-series";
 
     public Appointment toFhirResource(AppointmentDTO dto) {
         Appointment appointment = new Appointment();
@@ -18,6 +20,13 @@ public class AppointmentMapper {
             appointment.setId(dto.getId());
         }
 
+        // Recurring series
+        if (dto.getSeriesId() != null) {
+            appointment.addIdentifier()
+                    .setSystem(SERIES_IDENTIFIER_SYSTEM)
+                    .setValue(dto.getSeriesId());
+        }
+
         // Status
         if (dto.getStatus() != null) {
             appointment.setStatus(Appointment.AppointmentStatus.fromCode(dto.getStatus().toLowerCase()));
@@ -50,12 +59,12 @@ public class AppointmentMapper {
         // Start time
         if (dto.getAppointmentDate() != null && dto.getAppointmentTime() != null) {
             LocalDateTime startDateTime = LocalDateTime.of(dto.getAppointmentDate(), dto.getAppointmentTime());
-            appointment.setStart(Date.from(startDateTime.atZone(ZoneId.systemDefault()).toInstant()));
+            appointment.setStart(FhirElements.toDate(startDateTime));
 
             // End time
             if (dto.getDurationMinutes() != null) {
                 LocalDateTime endDateTime = startDateTime.plusMinutes(dto.getDurationMinutes());
-                appointment.setEnd(Date.from(endDateTime.atZone(ZoneId.systemDefault()).toInstant()));
+                appointment.setEnd(FhirElements.toDate(endDateTime));
             }
         }
 
@@ -66,19 +75,13 @@ public class AppointmentMapper {
 
         // Appointment Type
         if (dto.getAppointmentType() != null) {
-            CodeableConcept appointmentType = new CodeableConcept();
-            appointmentType.addCoding()
-                    .setSystem("http://terminology.hl7.org/CodeSystem/v2-0276")
-                    .setCode(dto.getAppointmentType().toUpperCase())
-                    .setDisplay(dto.getAppointmentType());
-            appointment.setAppointmentType(appointmentType);
+            appointment.setAppointmentType(FhirElements.coding(FhirSystems.APPOINTMENT_TYPE,
+                    dto.getAppointmentType().toUpperCase(), dto.getAppointmentType()));
         }
 
         // Reason
         if (dto.getReasonCode() != null) {
-            CodeableConcept reason = new CodeableConcept();
-            reason.setText(dto.getReasonCode());
-            appointment.addReasonCode(reason);
+            appointment.addReasonCode(FhirElements.text(dto.getReasonCode()));
         }
 
         if (dto.getReasonDescription() != null) {
@@ -87,9 +90,7 @@ public class AppointmentMapper {
 
         // Specialty
         if (dto.getSpecialty() != null) {
-            CodeableConcept specialty = new CodeableConcept();
-            specialty.setText(dto.getSpecialty());
-            appointment.addSpecialty(specialty);
+            appointment.addSpecialty(FhirElements.text(dto.getSpecialty()));
         }
 
         // Comment
@@ -99,9 +100,7 @@ public class AppointmentMapper {
 
         // Cancellation reason
         if (dto.getCancellationReason() != null) {
-            CodeableConcept cancelReason = new CodeableConcept();
-            cancelReason.setText(dto.getCancellationReason());
-            appointment.setCancelationReason(cancelReason);
+            appointment.setCancelationReason(FhirElements.text(dto.getCancellationReason()));
         }
 
         return appointment;
@@ -111,11 +110,20 @@ public class AppointmentMapper {
         AppointmentDTO dto = new AppointmentDTO();
 
         dto.setId(appointment.getIdElement().getIdPart());
+        dto.setVersion(appointment.getIdElement().hasVersionIdPart()
+                ? appointment.getIdElement().getVersionIdPart()
+                : appointment.getMeta().getVersionId());
 
         if (appointment.hasStatus()) {
             dto.setStatus(appointment.getStatus().toCode());
         }
 
+        for (Identifier identifier : appointment.getIdentifier()) {
+            if (SERIES_IDENTIFIER_SYSTEM.equals(identifier.getSystem())) {
+                dto.setSeriesId(identifier.getValue());
+            }
+        }
+
         // Extract patient and practitioner from participants
         for (Appointment.AppointmentParticipantComponent participant : appointment.getParticipant()) {
             if (participant.hasActor()) {
@@ -134,8 +142,7 @@ public class AppointmentMapper {
 
         // Start date/time
         if (appointment.hasStart()) {
-            LocalDateTime startDateTime = appointment.getStart().toInstant()
-                    .atZone(ZoneId.systemDefault()).toLocalDateTime();
+            LocalDateTime startDateTime = FhirElements.toLocalDateTime(appointment.getStart());
             dto.setAppointmentDate(startDateTime.toLocalDate());
             dto.setAppointmentTime(startDateTime.toLocalTime());
         }
@@ -0,0 +1,141 @@
+package com.healthcare.pms.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.healthcare.pms.dto.OrganizationDTO;
+import com.healthcare.pms.dto.OrganizationSummaryDTO;
+import org.hl7.fhir.r4.model.*;
+
+/**
+ * The hand-written OrganizationMapper the generated one replaced, kept as it was, as the reference
+ * the generated mapper's output is checked against.
+ */
+class LegacyOrganizationMapper {
+
+    private static final ExtensionCodec<OrganizationDTO> EXTENSIONS = ExtensionCodec.<OrganizationDTO>builder()
+            .string(FhirSystems.EXT_WEBSITE, OrganizationDTO::getWebsite, OrganizationDTO::setWebsite)
+            .string(FhirSystems.EXT_DESCRIPTION, OrganizationDTO::getDescription, OrganizationDTO::setDescription)
+            .build();
+
+    // Elements the department list reads; list searches ask the server for only these
+    public static final String[] SUMMARY_ELEMENTS = {"name", "type", "telecom", "address", "active"};
+
+    public Organization toFhirResource(OrganizationDTO dto) {
+        Organization organization = new Organization();
+
+        if (dto.getId() != null && !dto.getId().isEmpty()) {
+            organization.setId(dto.getId());
+        }
+
+        organization.setName(dto.getName());
+
+        // Type
+        if (dto.getType() != null) {
+            organization.addType(FhirElements.coding(FhirSystems.ORGANIZATION_TYPE,
+                    dto.getType().toLowerCase().replace(" ", "-"), dto.getType()));
+        }
+
+        // Telecom
+        if (dto.getPhone() != null) {
+            organization.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE, dto.getPhone()));
+        }
+
+        if (dto.getEmail() != null) {
+            organization.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.EMAIL, dto.getEmail()));
+        }
+
+        // Address
+        if (dto.getAddress() != null) {
+            organization.addAddress(FhirElements.address(dto.getAddress(), dto.getCity(), dto.getState(), dto.getPostalCode()));
+        }
+
+        organization.setActive(dto.getActive() != null ? dto.getActive() : true);
+
+        // Registration Number as Identifier
+        if (dto.getRegistrationNumber() != null) {
+            organization.addIdentifier()
+                    .setSystem(FhirSystems.ORGANIZATION_REGISTRATION)
+                    .setValue(dto.getRegistrationNumber());
+        }
+
+        // Extensions
+        EXTENSIONS.write(dto, organization);
+
+        return organization;
+    }
+
+    public OrganizationDTO toDTO(Organization organization) {
+        OrganizationDTO dto = new OrganizationDTO();
+
+        dto.setId(organization.getIdElement().getIdPart());
+        dto.setName(organization.getName());
+
+        if (organization.hasType()) {
+            dto.setType(organization.getTypeFirstRep().getCodingFirstRep().getDisplay());
+        }
+
+        dto.setPhone(FhirElements.telecom(organization.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+        dto.setEmail(FhirElements.telecom(organization.getTelecom(), ContactPoint.ContactPointSystem.EMAIL));
+
+        if (organization.hasAddress()) {
+            Address address = organization.getAddressFirstRep();
+            dto.setAddress(FhirElements.firstLine(address));
+            dto.setCity(address.getCity());
+            dto.setState(address.getState());
+            dto.setPostalCode(address.getPostalCode());
+        }
+
+        dto.setActive(organization.getActive());
+
+        if (organization.hasIdentifier()) {
+            dto.setRegistrationNumber(organization.getIdentifierFirstRep().getValue());
+        }
+
+        EXTENSIONS.read(organization, dto);
+
+        return dto;
+    }
+
+    public OrganizationSummaryDTO toSummary(Organization organization) {
+        OrganizationSummaryDTO summary = new OrganizationSummaryDTO();
+
+        summary.setId(organization.getIdElement().getIdPart());
+        summary.setName(organization.getName());
+
+        if (organization.hasType()) {
+            summary.setType(organization.getTypeFirstRep().getCodingFirstRep().getDisplay());
+        }
+
+        summary.setPhone(FhirElements.telecom(organization.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+
+        if (organization.hasAddress()) {
+            summary.setCity(organization.getAddressFirstRep().getCity());
+        }
+
+        summary.setActive(organization.getActive());
+
+        return summary;
+    }
+
+    /**
+     * Same as {@link #toSummary(Organization)} for a search entry read straight from the response JSON.
+     */
+    public OrganizationSummaryDTO toSummary(JsonNode organization) {
+        OrganizationSummaryDTO summary = new OrganizationSummaryDTO();
+
+        summary.setId(organization.path("id").asText(null));
+        summary.setName(organization.path("name").asText(null));
+        summary.setType(organization.path("type").path(0).path("coding").path(0).path("display").asText(null));
+
+        for (JsonNode telecom : organization.path("telecom")) {
+            if ("phone".equals(telecom.path("system").asText())) {
+                summary.setPhone(telecom.path("value").asText(null));
+            }
+        }
+
+        summary.setCity(organization.path("address").path(0).path("city").asText(null));
+
+        summary.setActive(organization.path("active").asBoolean(false));
+
+        return summary;
+    }
+}
@@ -0,0 +1,282 @@
+package com.healthcare.pms.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PatientSummaryDTO;
+import org.hl7.fhir.r4.model.*;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+/**
+ * The hand-written PatientMapper the generated one replaced, kept as it was, as the reference
+ * the generated mapper's output is checked against.
+ */
+class LegacyPatientMapper {
+
+    public static final String AADHAAR_IDENTIFIER_SYSTEM = "http://healthcare.com/fhir/identifier/aadhaar";
+    public static final String PHONE_DOB_IDENTIFIER_SYSTEM = "http://healthcare.com/fhir/identifier/phone-dob";
+
+    // Indian-specific fields carried as extensions
+    private static final ExtensionCodec<PatientDTO> EXTENSIONS = ExtensionCodec.<PatientDTO>builder()
+            .string(FhirSystems.EXT_BLOOD_GROUP, PatientDTO::getBloodGroup, PatientDTO::setBloodGroup)
+            .string(FhirSystems.EXT_PAN_CARD, PatientDTO::getPanCard, PatientDTO::setPanCard)
+            .string(FhirSystems.EXT_AADHAAR, PatientDTO::getAadhaarNumber, PatientDTO::setAadhaarNumber)
+            .build();
+
+    // Elements the patient list reads; list searches ask the server for only these
+    public static final String[] SUMMARY_ELEMENTS = {"name", "birthDate", "gender", "telecom", "extension", "active"};
+
+    private static final ExtensionCodec<PatientSummaryDTO> SUMMARY_EXTENSIONS = ExtensionCodec.<PatientSummaryDTO>builder()
+            .string(FhirSystems.EXT_BLOOD_GROUP, PatientSummaryDTO::getBloodGroup, PatientSummaryDTO::setBloodGroup)
+            .build();
+
+    public Patient toFhirResource(PatientDTO dto) {
+        Patient patient = new Patient();
+
+        if (dto.getId() != null && !dto.getId().isEmpty()) {
+            patient.setId(dto.getId());
+        }
+
+        // Registration identifier used to detect duplicate registrations
+        Identifier registration = registrationIdentifier(dto);
+        if (registration != null) {
+            patient.addIdentifier(registration);
+        }
+
+        // Name
+        HumanName name = FhirElements.name(dto.getFirstName(), dto.getLastName());
+        name.setText(dto.getFullName());
+        patient.addName(name);
+
+        // Gender
+        if (dto.getGender() != null) {
+            switch (dto.getGender().toLowerCase()) {
+                case "male":
+                    patient.setGender(Enumerations.AdministrativeGender.MALE);
+                    break;
+                case "female":
+                    patient.setGender(Enumerations.AdministrativeGender.FEMALE);
+                    break;
+                case "other":
+                    patient.setGender(Enumerations.AdministrativeGender.OTHER);
+                    break;
+                default:
+                    patient.setGender(Enumerations.AdministrativeGender.UNKNOWN);
+            }
+        }
+
+        // Birth Date
+        if (dto.getDateOfBirth() != null) {
+            patient.setBirthDate(FhirElements.toDate(dto.getDateOfBirth()));
+        }
+
+        // Phone
+        if (dto.getPhone() != null && !dto.getPhone().isEmpty()) {
+            patient.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE, dto.getPhone())
+                    .setUse(ContactPoint.ContactPointUse.MOBILE));
+        }
+
+        // Email
+        if (dto.getEmail() != null && !dto.getEmail().isEmpty()) {
+            patient.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.EMAIL, dto.getEmail()));
+        }
+
+        // Address
+        if (dto.getAddress() != null) {
+            patient.addAddress(FhirElements.address(dto.getAddress(), dto.getCity(), dto.getState(), dto.getPostalCode()));
+        }
+
+        // Marital Status
+        if (dto.getMaritalStatus() != null) {
+            patient.setMaritalStatus(FhirElements.coding(FhirSystems.MARITAL_STATUS,
+                    dto.getMaritalStatus().toUpperCase(), dto.getMaritalStatus()));
+        }
+
+        // Active
+        patient.setActive(dto.getActive() != null ? dto.getActive() : true);
+
+        // Extensions for Indian-specific fields
+        EXTENSIONS.write(dto, patient);
+
+        // Emergency Contact
+        if (dto.getEmergencyContactName() != null) {
+            Patient.ContactComponent contact = new Patient.ContactComponent();
+            
+            contact.setName(new HumanName().setText(dto.getEmergencyContactName()));
+
+            if (dto.getEmergencyContactPhone() != null) {
+                contact.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE,
+                        dto.getEmergencyContactPhone()));
+            }
+
+            if (dto.getEmergencyContactRelation() != null) {
+                contact.addRelationship(FhirElements.text(dto.getEmergencyContactRelation()));
+            }
+
+            patient.addContact(contact);
+        }
+
+        return patient;
+    }
+
+    public Identifier registrationIdentifier(PatientDTO dto) {
+        // Aadhaar is unique per person; otherwise fall back to mobile number plus date of birth
+        if (dto.getAadhaarNumber() != null && !dto.getAadhaarNumber().isBlank()) {
+            return new Identifier()
+                    .setSystem(AADHAAR_IDENTIFIER_SYSTEM)
+                    .setValue(dto.getAadhaarNumber().replaceAll("[^0-9]", ""));
+        }
+
+        if (dto.getPhone() != null && dto.getDateOfBirth() != null) {
+            String digits = dto.getPhone().replaceAll("[^0-9]", "");
+            if (digits.length() > 10) {
+                digits = digits.substring(digits.length() - 10);
+            }
+            if (!digits.isEmpty()) {
+                return new Identifier()
+                        .setSystem(PHONE_DOB_IDENTIFIER_SYSTEM)
+                        .setValue(digits + "-" + dto.getDateOfBirth());
+            }
+        }
+
+        return null;
+    }
+
+    public PatientDTO toDTO(Patient patient) {
+        PatientDTO dto = new PatientDTO();
+
+        dto.setId(patient.getIdElement().getIdPart());
+        dto.setVersion(patient.getIdElement().getVersionIdPart());
+
+        // Name
+        if (patient.hasName()) {
+            HumanName name = patient.getNameFirstRep();
+            dto.setLastName(name.getFamily());
+            if (name.hasGiven()) {
+                dto.setFirstName(name.getGivenAsSingleString());
+            }
+        }
+
+        // Gender
+        if (patient.hasGender()) {
+            dto.setGender(patient.getGender().toCode());
+        }
+
+        // Birth Date
+        if (patient.hasBirthDate()) {
+            dto.setDateOfBirth(FhirElements.toLocalDate(patient.getBirthDate()));
+        }
+
+        // Telecom
+        dto.setPhone(FhirElements.telecom(patient.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+        dto.setEmail(FhirElements.telecom(patient.getTelecom(), ContactPoint.ContactPointSystem.EMAIL));
+
+        // Address
+        if (patient.hasAddress()) {
+            Address address = patient.getAddressFirstRep();
+            dto.setAddress(FhirElements.firstLine(address));
+            dto.setCity(address.getCity());
+            dto.setState(address.getState());
+            dto.setPostalCode(address.getPostalCode());
+        }
+
+        // Marital Status
+        if (patient.hasMaritalStatus()) {
+            dto.setMaritalStatus(patient.getMaritalStatus().getCodingFirstRep().getCode());
+        }
+
+        dto.setActive(patient.getActive());
+
+        // Extensions
+        EXTENSIONS.read(patient, dto);
+
+        // Emergency Contact
+        if (patient.hasContact()) {
+            Patient.ContactComponent contact = patient.getContactFirstRep();
+            if (contact.hasName()) {
+                dto.setEmergencyContactName(contact.getName().getText());
+            }
+            dto.setEmergencyContactPhone(FhirElements.telecom(contact.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+            if (contact.hasRelationship()) {
+                dto.setEmergencyContactRelation(contact.getRelationshipFirstRep().getText());
+            }
+        }
+
+        return dto;
+    }
+
+    public PatientSummaryDTO toSummary(Patient patient) {
+        PatientSummaryDTO summary = new PatientSummaryDTO();
+
+        summary.setId(patient.getIdElement().getIdPart());
+
+        if (patient.hasName()) {
+            HumanName name = patient.getNameFirstRep();
+            summary.setLastName(name.getFamily());
+            if (name.hasGiven()) {
+                summary.setFirstName(name.getGivenAsSingleString());
+            }
+        }
+
+        if (patient.hasGender()) {
+            summary.setGender(patient.getGender().toCode());
+        }
+
+        if (patient.hasBirthDate()) {
+            summary.setDateOfBirth(FhirElements.toLocalDate(patient.getBirthDate()));
+        }
+
+        summary.setPhone(FhirElements.telecom(patient.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+
+        summary.setActive(patient.getActive());
+
+        SUMMARY_EXTENSIONS.read(patient, summary);
+
+        return summary;
+    }
+
+    /**
+     * Same as {@link #toSummary(Patient)} for a search entry read straight from the response JSON.
+     */
+    public PatientSummaryDTO toSummary(JsonNode patient) {
+        PatientSummaryDTO summary = new PatientSummaryDTO();
+
+        summary.setId(patient.path("id").asText(null));
+
+        JsonNode name = patient.path("name").path(0);
+        summary.setLastName(name.path("family").asText(null));
+        if (name.has("given")) {
+            StringJoiner given = new StringJoiner(" ");
+            name.get("given").forEach(part -> given.add(part.asText()));
+            summary.setFirstName(given.toString());
+        }
+
+        summary.setGender(patient.path("gender").asText(null));
+        summary.setDateOfBirth(parseDate(patient.path("birthDate").asText(null)));
+
+        for (JsonNode telecom : patient.path("telecom")) {
+            if ("phone".equals(telecom.path("system").asText())) {
+                summary.setPhone(telecom.path("value").asText(null));
+            }
+        }
+
+        summary.setActive(patient.path("active").asBoolean(false));
+
+        SUMMARY_EXTENSIONS.readJson(patient, summary);
+
+        return summary;
+    }
+
+    // FHIR dates may be just a year or a year and month
+    private LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        return switch (date.length()) {
+            case 4 -> LocalDate.of(Integer.parseInt(date), 1, 1);
+            case 7 -> LocalDate.parse(date + "-01");
+            default -> LocalDate.parse(date.substring(0, 10));
+        };
+    }
+}
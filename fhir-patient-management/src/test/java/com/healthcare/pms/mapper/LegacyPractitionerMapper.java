@@ -0,0 +1,183 @@
+package com.healthcare.pms.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.healthcare.pms.dto.PractitionerDTO;
+import com.healthcare.pms.dto.PractitionerSummaryDTO;
+import org.hl7.fhir.r4.model.*;
+
+import java.util.StringJoiner;
+
+/**
+ * The hand-written PractitionerMapper the generated one replaced, kept as it was, as the reference
+ * the generated mapper's output is checked against.
+ */
+class LegacyPractitionerMapper {
+
+    private static final ExtensionCodec<PractitionerDTO> EXTENSIONS = ExtensionCodec.<PractitionerDTO>builder()
+            .string(FhirSystems.EXT_SPECIALIZATION, PractitionerDTO::getSpecialization, PractitionerDTO::setSpecialization)
+            .string(FhirSystems.EXT_DEPARTMENT, PractitionerDTO::getDepartment, PractitionerDTO::setDepartment)
+            .integer(FhirSystems.EXT_YEARS_EXPERIENCE, PractitionerDTO::getYearsOfExperience, PractitionerDTO::setYearsOfExperience)
+            .build();
+
+    // Elements the practitioner list reads; list searches ask the server for only these
+    public static final String[] SUMMARY_ELEMENTS = {"name", "telecom", "qualification", "extension", "active"};
+
+    private static final ExtensionCodec<PractitionerSummaryDTO> SUMMARY_EXTENSIONS = ExtensionCodec.<PractitionerSummaryDTO>builder()
+            .string(FhirSystems.EXT_SPECIALIZATION, PractitionerSummaryDTO::getSpecialization, PractitionerSummaryDTO::setSpecialization)
+            .build();
+
+    public Practitioner toFhirResource(PractitionerDTO dto) {
+        Practitioner practitioner = new Practitioner();
+
+        if (dto.getId() != null && !dto.getId().isEmpty()) {
+            practitioner.setId(dto.getId());
+        }
+
+        // Name
+        HumanName name = FhirElements.name(dto.getFirstName(), dto.getLastName());
+        name.addPrefix("Dr.");
+        name.setText(dto.getFullName());
+        practitioner.addName(name);
+
+        // Gender
+        if (dto.getGender() != null) {
+            practitioner.setGender(Enumerations.AdministrativeGender.fromCode(dto.getGender().toLowerCase()));
+        }
+
+        // Birth Date
+        if (dto.getDateOfBirth() != null) {
+            practitioner.setBirthDate(FhirElements.toDate(dto.getDateOfBirth()));
+        }
+
+        // Telecom
+        if (dto.getPhone() != null) {
+            practitioner.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE, dto.getPhone()));
+        }
+
+        if (dto.getEmail() != null) {
+            practitioner.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.EMAIL, dto.getEmail()));
+        }
+
+        // Qualification
+        if (dto.getQualifications() != null) {
+            Practitioner.PractitionerQualificationComponent qualification = 
+                new Practitioner.PractitionerQualificationComponent();
+            qualification.setCode(FhirElements.text(dto.getQualifications()));
+            
+            if (dto.getRegistrationNumber() != null) {
+                qualification.addIdentifier()
+                        .setSystem(FhirSystems.MEDICAL_COUNCIL)
+                        .setValue(dto.getRegistrationNumber());
+            }
+            
+            practitioner.addQualification(qualification);
+        }
+
+        practitioner.setActive(dto.getActive() != null ? dto.getActive() : true);
+
+        // Extensions for additional fields
+        EXTENSIONS.write(dto, practitioner);
+
+        return practitioner;
+    }
+
+    public PractitionerDTO toDTO(Practitioner practitioner) {
+        PractitionerDTO dto = new PractitionerDTO();
+
+        dto.setId(practitioner.getIdElement().getIdPart());
+        dto.setVersion(practitioner.getIdElement().getVersionIdPart());
+
+        if (practitioner.hasName()) {
+            HumanName name = practitioner.getNameFirstRep();
+            dto.setLastName(name.getFamily());
+            if (name.hasGiven()) {
+                dto.setFirstName(name.getGivenAsSingleString());
+            }
+        }
+
+        if (practitioner.hasGender()) {
+            dto.setGender(practitioner.getGender().toCode());
+        }
+
+        if (practitioner.hasBirthDate()) {
+            dto.setDateOfBirth(FhirElements.toLocalDate(practitioner.getBirthDate()));
+        }
+
+        dto.setPhone(FhirElements.telecom(practitioner.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+        dto.setEmail(FhirElements.telecom(practitioner.getTelecom(), ContactPoint.ContactPointSystem.EMAIL));
+
+        if (practitioner.hasQualification()) {
+            Practitioner.PractitionerQualificationComponent qual = practitioner.getQualificationFirstRep();
+            if (qual.hasCode()) {
+                dto.setQualifications(qual.getCode().getText());
+            }
+            if (qual.hasIdentifier()) {
+                dto.setRegistrationNumber(qual.getIdentifierFirstRep().getValue());
+            }
+        }
+
+        dto.setActive(practitioner.getActive());
+
+        EXTENSIONS.read(practitioner, dto);
+
+        return dto;
+    }
+
+    public PractitionerSummaryDTO toSummary(Practitioner practitioner) {
+        PractitionerSummaryDTO summary = new PractitionerSummaryDTO();
+
+        summary.setId(practitioner.getIdElement().getIdPart());
+
+        if (practitioner.hasName()) {
+            HumanName name = practitioner.getNameFirstRep();
+            summary.setLastName(name.getFamily());
+            if (name.hasGiven()) {
+                summary.setFirstName(name.getGivenAsSingleString());
+            }
+        }
+
+        summary.setPhone(FhirElements.telecom(practitioner.getTelecom(), ContactPoint.ContactPointSystem.PHONE));
+
+        if (practitioner.hasQualification() && practitioner.getQualificationFirstRep().hasIdentifier()) {
+            summary.setRegistrationNumber(practitioner.getQualificationFirstRep().getIdentifierFirstRep().getValue());
+        }
+
+        summary.setActive(practitioner.getActive());
+
+        SUMMARY_EXTENSIONS.read(practitioner, summary);
+
+        return summary;
+    }
+
+    /**
+     * Same as {@link #toSummary(Practitioner)} for a search entry read straight from the response JSON.
+     */
+    public PractitionerSummaryDTO toSummary(JsonNode practitioner) {
+        PractitionerSummaryDTO summary = new PractitionerSummaryDTO();
+
+        summary.setId(practitioner.path("id").asText(null));
+
+        JsonNode name = practitioner.path("name").path(0);
+        summary.setLastName(name.path("family").asText(null));
+        if (name.has("given")) {
+            StringJoiner given = new StringJoiner(" ");
+            name.get("given").forEach(part -> given.add(part.asText()));
+            summary.setFirstName(given.toString());
+        }
+
+        for (JsonNode telecom : practitioner.path("telecom")) {
+            if ("phone".equals(telecom.path("system").asText())) {
+                summary.setPhone(telecom.path("value").asText(null));
+            }
+        }
+
+        summary.setRegistrationNumber(practitioner.path("qualification").path(0)
+                .path("identifier").path(0).path("value").asText(null));
+
+        summary.setActive(practitioner.path("active").asBoolean(false));
+
+        SUMMARY_EXTENSIONS.readJson(practitioner, summary);
+
+        return summary;
+    }
+}
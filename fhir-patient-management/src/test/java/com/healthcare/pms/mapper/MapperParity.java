@@ -0,0 +1,41 @@
+package com.healthcare.pms.mapper;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hl7.fhir.r4.model.DomainResource;
+import org.hl7.fhir.r4.model.Extension;
+
+import java.util.Comparator;
+
+/**
+ * Encodes resources for comparing a generated mapper's output with the hand-written mapper's.
+ */
+final class MapperParity {
+
+    static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private MapperParity() {
+    }
+
+    // Extensions are written in annotation order rather than the old codec order, which is not meaningful
+    static String json(DomainResource resource) {
+        DomainResource copy = (DomainResource) resource.copy();
+        copy.getExtension().sort(Comparator.comparing(Extension::getUrl));
+        return FHIR_CONTEXT.newJsonParser().encodeResourceToString(copy);
+    }
+
+    // As the server would hand it back
+    static <T extends DomainResource> T viaJson(T resource) {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) resource.getClass();
+        return FHIR_CONTEXT.newJsonParser().parseResource(type, FHIR_CONTEXT.newJsonParser().encodeResourceToString(resource));
+    }
+
+    // A search entry as the streaming search reads it
+    static JsonNode tree(DomainResource resource) throws Exception {
+        return OBJECT_MAPPER.readTree(FHIR_CONTEXT.newJsonParser().encodeResourceToString(resource));
+    }
+}
@@ -0,0 +1,112 @@
+package com.healthcare.pms.mapper;
+
+import com.healthcare.pms.dto.OrganizationDTO;
+import com.healthcare.pms.dto.OrganizationSummaryDTO;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganizationMapperTest {
+
+    private final OrganizationMapper mapper = new OrganizationMapper();
+    private final LegacyOrganizationMapper legacy = new LegacyOrganizationMapper();
+
+    @Test
+    void roundTripsEveryFormField() {
+        OrganizationDTO dto = organization();
+
+        OrganizationDTO read = mapper.toDTO(MapperParity.viaJson(mapper.toFhirResource(dto)));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(dto);
+    }
+
+    @Test
+    void writesTheTypeAsAHyphenatedLowerCaseCode() {
+        Organization organization = mapper.toFhirResource(organization());
+
+        assertThat(organization.getTypeFirstRep().getCodingFirstRep().getCode()).isEqualTo("diagnostic-centre");
+        assertThat(organization.getTypeFirstRep().getCodingFirstRep().getDisplay()).isEqualTo("Diagnostic Centre");
+    }
+
+    @Test
+    void writesWhatTheHandWrittenMapperWrote() {
+        assertThat(MapperParity.json(mapper.toFhirResource(organization())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(organization())));
+        assertThat(MapperParity.json(mapper.toFhirResource(sparseOrganization())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(sparseOrganization())));
+    }
+
+    @Test
+    void readsWhatTheHandWrittenMapperRead() {
+        Organization organization = MapperParity.viaJson(legacy.toFhirResource(organization()));
+        assertThat(mapper.toDTO(organization)).usingRecursiveComparison().isEqualTo(legacy.toDTO(organization));
+
+        Organization sparse = MapperParity.viaJson(legacy.toFhirResource(sparseOrganization()));
+        assertThat(mapper.toDTO(sparse)).usingRecursiveComparison().isEqualTo(legacy.toDTO(sparse));
+    }
+
+    @Test
+    void summarisesWhatTheHandWrittenMapperSummarised() throws Exception {
+        for (OrganizationDTO dto : new OrganizationDTO[]{organization(), sparseOrganization()}) {
+            Organization organization = MapperParity.viaJson(legacy.toFhirResource(dto));
+
+            OrganizationSummaryDTO fromResource = mapper.toSummary(organization);
+            OrganizationSummaryDTO fromJson = mapper.toSummary(MapperParity.tree(organization));
+
+            assertThat(fromResource).usingRecursiveComparison().isEqualTo(legacy.toSummary(organization));
+            assertThat(fromJson).usingRecursiveComparison().isEqualTo(legacy.toSummary(MapperParity.tree(organization)));
+        }
+        assertThat(OrganizationMapper.SUMMARY_ELEMENTS).containsExactly(LegacyOrganizationMapper.SUMMARY_ELEMENTS);
+    }
+
+    @Test
+    void readsTheRegistrationNumberByItsSystem() {
+        // The hand-written mapper took the first identifier, whatever its system
+        Organization organization = mapper.toFhirResource(organization());
+        organization.getIdentifier().add(0, new Identifier().setSystem("http://example.org/gstin").setValue("27ABCDE1234F1Z5"));
+        organization = MapperParity.viaJson(organization);
+
+        assertThat(mapper.toDTO(organization).getRegistrationNumber()).isEqualTo("MH-REG-2201");
+        assertThat(legacy.toDTO(organization).getRegistrationNumber()).isEqualTo("27ABCDE1234F1Z5");
+    }
+
+    @Test
+    void skipsABlankEmail() {
+        // The hand-written mapper wrote an email contact point with no value
+        OrganizationDTO dto = sparseOrganization();
+        dto.setEmail("");
+
+        assertThat(mapper.toFhirResource(dto).getTelecom()).hasSize(1);
+        assertThat(legacy.toFhirResource(dto).getTelecom()).hasSize(2);
+    }
+
+    private static OrganizationDTO organization() {
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setId("o1");
+        dto.setName("Sahyadri Diagnostics");
+        dto.setType("Diagnostic Centre");
+        dto.setPhone("2026001100");
+        dto.setEmail("desk@sahyadri.example.com");
+        dto.setAddress("4 FC Road");
+        dto.setCity("Pune");
+        dto.setState("Maharashtra");
+        dto.setPostalCode("411004");
+        dto.setRegistrationNumber("MH-REG-2201");
+        dto.setWebsite("https://sahyadri.example.com");
+        dto.setDescription("Pathology and imaging");
+        dto.setActive(true);
+        return dto;
+    }
+
+    // A department added from the quick form: no address, registration or extensions
+    private static OrganizationDTO sparseOrganization() {
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setName("Radiology");
+        dto.setType("Department");
+        dto.setPhone("2026001199");
+        dto.setActive(null);
+        return dto;
+    }
+}
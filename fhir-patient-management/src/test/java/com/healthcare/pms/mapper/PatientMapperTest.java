@@ -0,0 +1,178 @@
+package com.healthcare.pms.mapper;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.dto.PatientSummaryDTO;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientMapperTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private final PatientMapper mapper = new PatientMapper();
+    private final LegacyPatientMapper legacy = new LegacyPatientMapper();
+
+    @Test
+    void roundTripsEveryFormField() {
+        PatientDTO dto = patient();
+
+        PatientDTO read = mapper.toDTO(viaJson(mapper.toFhirResource(dto)));
+
+        assertThat(read).usingRecursiveComparison()
+                .ignoringFields("maritalStatus")
+                .isEqualTo(dto);
+        // The coding carries the code upper-cased
+        assertThat(read.getMaritalStatus()).isEqualToIgnoringCase(dto.getMaritalStatus());
+    }
+
+    @Test
+    void roundTripsExtensionsAndIgnoresUnknownOnes() {
+        Patient patient = mapper.toFhirResource(patient());
+        patient.addExtension("http://example.org/fhir/StructureDefinition/unknown", new StringType("kept"));
+
+        PatientDTO read = mapper.toDTO(viaJson(patient));
+
+        assertThat(read.getBloodGroup()).isEqualTo("O+");
+        assertThat(read.getPanCard()).isEqualTo("ABCDE1234F");
+        assertThat(read.getAadhaarNumber()).isEqualTo("123412341234");
+    }
+
+    @Test
+    void readsTheLastPhoneAndEmailOfSeveral() {
+        Patient patient = mapper.toFhirResource(patient());
+        patient.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE, "9000000002"));
+        patient.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.EMAIL, "second@example.com"));
+        patient.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.FAX, "9000000003"));
+
+        PatientDTO read = mapper.toDTO(viaJson(patient));
+
+        assertThat(read.getPhone()).isEqualTo("9000000002");
+        assertThat(read.getEmail()).isEqualTo("second@example.com");
+    }
+
+    @Test
+    void registrationIdentifierPrefersAadhaar() {
+        PatientDTO dto = patient();
+        assertThat(PatientMapping.registrationIdentifier(dto).getSystem()).isEqualTo(FhirSystems.PATIENT_AADHAAR);
+
+        dto.setAadhaarNumber(null);
+        assertThat(PatientMapping.registrationIdentifier(dto).getSystem()).isEqualTo(FhirSystems.PATIENT_PHONE_DOB);
+        assertThat(PatientMapping.registrationIdentifier(dto).getValue()).isEqualTo("9876543210-1990-05-12");
+    }
+
+    @Test
+    void writesWhatTheHandWrittenMapperWrote() {
+        assertThat(MapperParity.json(mapper.toFhirResource(patient())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(patient())));
+        assertThat(MapperParity.json(mapper.toFhirResource(sparsePatient())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(sparsePatient())));
+    }
+
+    @Test
+    void readsWhatTheHandWrittenMapperRead() {
+        Patient patient = MapperParity.viaJson(legacy.toFhirResource(patient()));
+        patient.setId("Patient/p1/_history/3");
+
+        assertThat(mapper.toDTO(patient)).usingRecursiveComparison().isEqualTo(legacy.toDTO(patient));
+
+        Patient sparse = MapperParity.viaJson(legacy.toFhirResource(sparsePatient()));
+        assertThat(mapper.toDTO(sparse)).usingRecursiveComparison().isEqualTo(legacy.toDTO(sparse));
+    }
+
+    @Test
+    void summarisesWhatTheHandWrittenMapperSummarised() throws Exception {
+        for (PatientDTO dto : new PatientDTO[]{patient(), sparsePatient()}) {
+            Patient patient = MapperParity.viaJson(legacy.toFhirResource(dto));
+
+            PatientSummaryDTO fromResource = mapper.toSummary(patient);
+            PatientSummaryDTO fromJson = mapper.toSummary(MapperParity.tree(patient));
+
+            assertThat(fromResource).usingRecursiveComparison().isEqualTo(legacy.toSummary(patient));
+            assertThat(fromJson).usingRecursiveComparison().isEqualTo(legacy.toSummary(MapperParity.tree(patient)));
+        }
+        assertThat(PatientMapper.SUMMARY_ELEMENTS).containsExactly(LegacyPatientMapper.SUMMARY_ELEMENTS);
+    }
+
+    @Test
+    void fallsBackToUnknownForAnUnrecognisedGender() {
+        PatientDTO dto = sparsePatient();
+        dto.setGender("not-stated");
+
+        assertThat(mapper.toFhirResource(dto).getGender()).isEqualTo(Enumerations.AdministrativeGender.UNKNOWN);
+    }
+
+    @Test
+    void writesAnEmergencyContactWithoutAName() {
+        // The hand-written mapper dropped the phone and relation when the name was missing
+        PatientDTO dto = sparsePatient();
+        dto.setEmergencyContactPhone("9123456780");
+        dto.setEmergencyContactRelation("Brother");
+
+        PatientDTO read = mapper.toDTO(MapperParity.viaJson(mapper.toFhirResource(dto)));
+
+        assertThat(read.getEmergencyContactName()).isNull();
+        assertThat(read.getEmergencyContactPhone()).isEqualTo("9123456780");
+        assertThat(read.getEmergencyContactRelation()).isEqualTo("Brother");
+        assertThat(legacy.toFhirResource(dto).hasContact()).isFalse();
+    }
+
+    @Test
+    void readsTheVersionFromMetaWhenTheIdHasNone() {
+        // The hand-written mapper read the version from the id only
+        Patient patient = mapper.toFhirResource(patient());
+        patient.getMeta().setVersionId("4");
+
+        assertThat(mapper.toDTO(patient).getVersion()).isEqualTo("4");
+        assertThat(legacy.toDTO(patient).getVersion()).isNull();
+    }
+
+    private static PatientDTO patient() {
+        PatientDTO dto = new PatientDTO();
+        dto.setId("p1");
+        dto.setFirstName("Asha");
+        dto.setLastName("Rao");
+        dto.setDateOfBirth(LocalDate.of(1990, 5, 12));
+        dto.setGender("female");
+        dto.setPhone("9876543210");
+        dto.setEmail("asha@example.com");
+        dto.setAddress("12 MG Road");
+        dto.setCity("Pune");
+        dto.setState("Maharashtra");
+        dto.setPostalCode("411001");
+        dto.setMaritalStatus("married");
+        dto.setBloodGroup("O+");
+        dto.setPanCard("ABCDE1234F");
+        dto.setAadhaarNumber("123412341234");
+        dto.setEmergencyContactName("Ravi Rao");
+        dto.setEmergencyContactPhone("9123456780");
+        dto.setEmergencyContactRelation("Brother");
+        dto.setActive(true);
+        return dto;
+    }
+
+    // What a quick registration leaves: no Aadhaar, address, contact or extensions
+    private static PatientDTO sparsePatient() {
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName("Kiran");
+        dto.setLastName("Shah");
+        dto.setDateOfBirth(LocalDate.of(2001, 11, 3));
+        dto.setGender("other");
+        dto.setPhone("9988776655");
+        dto.setActive(null);
+        return dto;
+    }
+
+    // As the server would hand it back
+    private static Patient viaJson(Patient patient) {
+        String json = FHIR_CONTEXT.newJsonParser().encodeResourceToString(patient);
+        return FHIR_CONTEXT.newJsonParser().parseResource(Patient.class, json);
+    }
+}
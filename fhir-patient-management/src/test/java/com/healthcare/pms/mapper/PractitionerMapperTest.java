@@ -0,0 +1,175 @@
+package com.healthcare.pms.mapper;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.healthcare.pms.dto.PractitionerDTO;
+import com.healthcare.pms.dto.PractitionerSummaryDTO;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PractitionerMapperTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private final PractitionerMapper mapper = new PractitionerMapper();
+    private final LegacyPractitionerMapper legacy = new LegacyPractitionerMapper();
+
+    @Test
+    void roundTripsEveryFormField() {
+        PractitionerDTO dto = practitioner();
+
+        PractitionerDTO read = mapper.toDTO(viaJson(mapper.toFhirResource(dto)));
+
+        // The organization link lives on the PractitionerRole, not the Practitioner
+        assertThat(read).usingRecursiveComparison()
+                .ignoringFields("organizationId")
+                .isEqualTo(dto);
+    }
+
+    @Test
+    void roundTripsStringAndIntegerExtensions() {
+        Practitioner practitioner = mapper.toFhirResource(practitioner());
+
+        assertThat(practitioner.getExtensionByUrl(FhirSystems.EXT_YEARS_EXPERIENCE).getValue())
+                .isInstanceOf(IntegerType.class);
+
+        PractitionerDTO read = mapper.toDTO(viaJson(practitioner));
+
+        assertThat(read.getSpecialization()).isEqualTo("Cardiology");
+        assertThat(read.getDepartment()).isEqualTo("Cardiac Sciences");
+        assertThat(read.getYearsOfExperience()).isEqualTo(12);
+    }
+
+    @Test
+    void skipsAnExtensionWithAnUnexpectedValueType() {
+        PractitionerDTO dto = practitioner();
+        dto.setYearsOfExperience(null);
+        Practitioner practitioner = mapper.toFhirResource(dto);
+        practitioner.addExtension(FhirSystems.EXT_YEARS_EXPERIENCE, new StringType("twelve"));
+
+        PractitionerDTO read = mapper.toDTO(viaJson(practitioner));
+
+        assertThat(read.getYearsOfExperience()).isNull();
+        assertThat(read.getSpecialization()).isEqualTo("Cardiology");
+    }
+
+    @Test
+    void readsTheLastPhoneOfSeveral() {
+        Practitioner practitioner = mapper.toFhirResource(practitioner());
+        practitioner.addTelecom(FhirElements.contactPoint(ContactPoint.ContactPointSystem.PHONE, "9000000002"));
+
+        PractitionerDTO read = mapper.toDTO(viaJson(practitioner));
+
+        assertThat(read.getPhone()).isEqualTo("9000000002");
+        assertThat(read.getEmail()).isEqualTo("meera@example.com");
+    }
+
+    @Test
+    void writesWhatTheHandWrittenMapperWrote() {
+        assertThat(MapperParity.json(mapper.toFhirResource(practitioner())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(practitioner())));
+        assertThat(MapperParity.json(mapper.toFhirResource(sparsePractitioner())))
+                .isEqualTo(MapperParity.json(legacy.toFhirResource(sparsePractitioner())));
+    }
+
+    @Test
+    void readsWhatTheHandWrittenMapperRead() {
+        Practitioner practitioner = viaJson(legacy.toFhirResource(practitioner()));
+        practitioner.setId("Practitioner/pr1/_history/2");
+
+        assertThat(mapper.toDTO(practitioner)).usingRecursiveComparison().isEqualTo(legacy.toDTO(practitioner));
+
+        Practitioner sparse = viaJson(legacy.toFhirResource(sparsePractitioner()));
+        assertThat(mapper.toDTO(sparse)).usingRecursiveComparison().isEqualTo(legacy.toDTO(sparse));
+    }
+
+    @Test
+    void summarisesWhatTheHandWrittenMapperSummarised() throws Exception {
+        for (PractitionerDTO dto : new PractitionerDTO[]{practitioner(), sparsePractitioner()}) {
+            Practitioner practitioner = viaJson(legacy.toFhirResource(dto));
+
+            PractitionerSummaryDTO fromResource = mapper.toSummary(practitioner);
+            PractitionerSummaryDTO fromJson = mapper.toSummary(MapperParity.tree(practitioner));
+
+            assertThat(fromResource).usingRecursiveComparison().isEqualTo(legacy.toSummary(practitioner));
+            assertThat(fromJson).usingRecursiveComparison().isEqualTo(legacy.toSummary(MapperParity.tree(practitioner)));
+        }
+        // Same elements, listed in annotation order
+        assertThat(PractitionerMapper.SUMMARY_ELEMENTS).containsExactlyInAnyOrder(LegacyPractitionerMapper.SUMMARY_ELEMENTS);
+    }
+
+    @Test
+    void writesTheRegistrationNumberWithoutQualifications() {
+        // The hand-written mapper dropped the registration number when qualifications were missing
+        PractitionerDTO dto = sparsePractitioner();
+        dto.setRegistrationNumber("MCI-67890");
+
+        Practitioner practitioner = viaJson(mapper.toFhirResource(dto));
+
+        assertThat(mapper.toDTO(practitioner).getRegistrationNumber()).isEqualTo("MCI-67890");
+        assertThat(mapper.toDTO(practitioner).getQualifications()).isNull();
+        assertThat(legacy.toFhirResource(dto).hasQualification()).isFalse();
+    }
+
+    @Test
+    void readsTheRegistrationNumberByItsSystem() throws Exception {
+        // The hand-written mapper took the qualification's first identifier, whatever its system
+        Practitioner practitioner = mapper.toFhirResource(practitioner());
+        practitioner.getQualificationFirstRep().getIdentifier()
+                .add(0, new Identifier().setSystem("http://example.org/university").setValue("U-1"));
+        practitioner = viaJson(practitioner);
+
+        assertThat(mapper.toDTO(practitioner).getRegistrationNumber()).isEqualTo("MCI-12345");
+        assertThat(mapper.toSummary(practitioner).getRegistrationNumber()).isEqualTo("MCI-12345");
+        assertThat(mapper.toSummary(MapperParity.tree(practitioner)).getRegistrationNumber()).isEqualTo("MCI-12345");
+        assertThat(legacy.toDTO(practitioner).getRegistrationNumber()).isEqualTo("U-1");
+    }
+
+    @Test
+    void skipsABlankPhone() {
+        PractitionerDTO dto = sparsePractitioner();
+        dto.setPhone("");
+
+        assertThat(mapper.toFhirResource(dto).hasTelecom()).isFalse();
+    }
+
+    private static PractitionerDTO practitioner() {
+        PractitionerDTO dto = new PractitionerDTO();
+        dto.setId("pr1");
+        dto.setFirstName("Meera");
+        dto.setLastName("Iyer");
+        dto.setGender("female");
+        dto.setDateOfBirth(LocalDate.of(1980, 1, 20));
+        dto.setSpecialization("Cardiology");
+        dto.setRegistrationNumber("MCI-12345");
+        dto.setPhone("9876500000");
+        dto.setEmail("meera@example.com");
+        dto.setQualifications("MBBS, MD");
+        dto.setYearsOfExperience(12);
+        dto.setDepartment("Cardiac Sciences");
+        dto.setActive(true);
+        return dto;
+    }
+
+    // A visiting consultant: no registration, qualifications, contact details or extensions
+    private static PractitionerDTO sparsePractitioner() {
+        PractitionerDTO dto = new PractitionerDTO();
+        dto.setFirstName("Arjun");
+        dto.setLastName("Menon");
+        dto.setGender("male");
+        dto.setActive(false);
+        return dto;
+    }
+
+    private static Practitioner viaJson(Practitioner practitioner) {
+        String json = FHIR_CONTEXT.newJsonParser().encodeResourceToString(practitioner);
+        return FHIR_CONTEXT.newJsonParser().parseResource(Practitioner.class, json);
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.AppointmentDTO;
+import org.hl7.fhir.r4.model.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppointmentServiceTest {
+
+    @Test
+    void expandsWeeklyRecurrenceWithInterval() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "weekly", 2, 3);
+
+        assertThat(AppointmentService.expandRecurrence(series))
+                .containsExactly(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 16), LocalDate.of(2026, 3, 30));
+    }
+
+    @Test
+    void monthlyRecurrenceCountsFromTheFirstDateSoShortMonthsDoNotDrift() {
+        AppointmentDTO series = series(LocalDate.of(2026, 1, 31), "Monthly", 1, 3);
+
+        assertThat(AppointmentService.expandRecurrence(series))
+                .containsExactly(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31));
+    }
+
+    @Test
+    void missingOrZeroIntervalMeansEveryPeriod() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "daily", 0, 3);
+
+        assertThat(AppointmentService.expandRecurrence(series))
+                .containsExactly(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 4));
+
+        series.setRecurrenceInterval(null);
+        assertThat(AppointmentService.expandRecurrence(series)).hasSize(3);
+    }
+
+    @Test
+    void rejectsAnUnknownFrequency() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "yearly", 1, 2);
+
+        assertThatThrownBy(() -> AppointmentService.expandRecurrence(series))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("yearly");
+    }
+
+    @Test
+    void reportsOnlyTheDatesThatOverlapABooking() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "weekly", 1, 3);
+        List<LocalDate> dates = AppointmentService.expandRecurrence(series);
+
+        List<Appointment> booked = List.of(
+                // Overlaps the 10:00-10:30 slot on the second date
+                booked(LocalDateTime.of(2026, 3, 9, 10, 15), 30),
+                // Ends exactly when the slot starts on the third date
+                booked(LocalDateTime.of(2026, 3, 16, 9, 30), 30),
+                // Same day as the first date, but in the afternoon
+                booked(LocalDateTime.of(2026, 3, 2, 14, 0), 30));
+
+        assertThat(AppointmentService.conflictingDates(series, dates, booked))
+                .containsExactly(LocalDate.of(2026, 3, 9));
+    }
+
+    @Test
+    void sameStartConflictsEvenWithZeroDuration() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "daily", 1, 2);
+        series.setDurationMinutes(0);
+
+        List<Appointment> booked = List.of(booked(LocalDateTime.of(2026, 3, 3, 10, 0), 0));
+
+        assertThat(AppointmentService.conflictingDates(series, AppointmentService.expandRecurrence(series), booked))
+                .containsExactly(LocalDate.of(2026, 3, 3));
+    }
+
+    @Test
+    void usesTheBookedEndWhenPresent() {
+        AppointmentDTO series = series(LocalDate.of(2026, 3, 2), "daily", 1, 1);
+        Appointment longBooking = booked(LocalDateTime.of(2026, 3, 2, 9, 0), 15);
+        longBooking.setEnd(toDate(LocalDateTime.of(2026, 3, 2, 11, 0)));
+
+        assertThat(AppointmentService.conflictingDates(series, List.of(LocalDate.of(2026, 3, 2)), List.of(longBooking)))
+                .containsExactly(LocalDate.of(2026, 3, 2));
+    }
+
+    private static AppointmentDTO series(LocalDate firstDate, String frequency, Integer interval, int count) {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setAppointmentDate(firstDate);
+        dto.setAppointmentTime(LocalTime.of(10, 0));
+        dto.setDurationMinutes(30);
+        dto.setRecurrenceFrequency(frequency);
+        dto.setRecurrenceInterval(interval);
+        dto.setRecurrenceCount(count);
+        return dto;
+    }
+
+    private static Appointment booked(LocalDateTime start, int minutes) {
+        Appointment appointment = new Appointment();
+        appointment.setStart(toDate(start));
+        appointment.setMinutesDuration(minutes);
+        return appointment;
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
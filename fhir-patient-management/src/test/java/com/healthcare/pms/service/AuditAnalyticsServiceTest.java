@@ -0,0 +1,162 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.AuditRollupDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AuditAnalyticsServiceTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0).minusHours(5);
+
+    private AuditAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuditAnalyticsService();
+        ReflectionTestUtils.setField(service, "retentionDays", 90);
+    }
+
+    @Test
+    void packedKeysKeepEveryDimensionApart() {
+        record("create", "Patient", "alice", NINE.plusMinutes(5));
+        record("create", "Patient", "alice", NINE.plusMinutes(10));
+        record("CREATE", "Patient", "bob", NINE.plusMinutes(15));
+        record("update", "Appointment", "alice", NINE.plusMinutes(20));
+
+        List<AuditRollupDTO> rows = service.getHourlyCounts(NINE, NINE.plusMinutes(59), null, null, "alice");
+
+        assertThat(rows).extracting(AuditRollupDTO::getAction, AuditRollupDTO::getResourceType,
+                        AuditRollupDTO::getAgentName, AuditRollupDTO::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("create", "Patient", "alice", 2L),
+                        tuple("update", "Appointment", "alice", 1L));
+    }
+
+    @Test
+    void groupingAcrossAgentsStaysInChronologicalOrder() {
+        record("create", "Patient", "alice", NINE.plusHours(2));
+        record("create", "Patient", "bob", NINE);
+        record("create", "Patient", "carol", NINE.plusHours(1));
+        record("create", "Patient", "alice", NINE);
+
+        List<AuditRollupDTO> rows = service.getHourlyCounts(NINE, NINE.plusHours(3), "create", "Patient", null);
+
+        assertThat(rows).extracting(AuditRollupDTO::getBucketStart)
+                .containsExactly(NINE, NINE.plusHours(1), NINE.plusHours(2));
+        assertThat(rows).extracting(AuditRollupDTO::getCount).containsExactly(2L, 1L, 1L);
+        assertThat(rows).extracting(AuditRollupDTO::getAgentName).containsOnlyNulls();
+    }
+
+    @Test
+    void rangeIncludesBothEndHoursOnly() {
+        record("read", "Patient", "alice", NINE.minusHours(1));
+        record("read", "Patient", "alice", NINE);
+        record("read", "Patient", "alice", NINE.plusHours(1).plusMinutes(59));
+        record("read", "Patient", "alice", NINE.plusHours(2));
+
+        Map<String, Long> totals = service.getTotals(NINE, NINE.plusHours(1), "action");
+
+        assertThat(totals).containsExactly(Map.entry("read", 2L));
+    }
+
+    @Test
+    void totalsAreSortedByCountDescending() {
+        record("read", "Patient", "alice", NINE);
+        record("read", "Appointment", "alice", NINE);
+        record("read", "Appointment", "bob", NINE);
+        record("read", "Practitioner", "bob", NINE);
+        record("read", "Appointment", "carol", NINE);
+
+        Map<String, Long> totals = service.getTotals(NINE, NINE, "resourceType");
+
+        assertThat(totals.keySet()).first().isEqualTo("Appointment");
+        assertThat(totals).containsEntry("Appointment", 3L).containsEntry("Patient", 1L).containsEntry("Practitioner", 1L);
+    }
+
+    @Test
+    void filterOnAValueNeverRecordedReturnsNothing() {
+        record("create", "Patient", "alice", NINE);
+
+        assertThat(service.getHourlyCounts(NINE, NINE, "delete", null, null)).isEmpty();
+        assertThat(service.getHourlyCounts(NINE, NINE, null, null, "mallory")).isEmpty();
+    }
+
+    @Test
+    void invertedRangeIsEmpty() {
+        record("create", "Patient", "alice", NINE);
+
+        assertThat(service.getTotals(NINE.plusHours(1), NINE, "action")).isEmpty();
+    }
+
+    @Test
+    void agentsPastTheDictionaryCapacityCountAsOther() {
+        // 12 agent bits, with id 0 reserved
+        for (int i = 1; i < 4096; i++) {
+            record("read", "Patient", "agent-" + i, NINE);
+        }
+        record("read", "Patient", "one-too-many", NINE);
+
+        Map<String, Long> totals = service.getTotals(NINE, NINE, "agent");
+
+        assertThat(totals).containsEntry("agent-4095", 1L).containsEntry("other", 1L).doesNotContainKey("one-too-many");
+    }
+
+    @Test
+    void rollupsSurviveARestartThroughTheJournal(@TempDir Path dir) {
+        Path journal = dir.resolve("audit").resolve("rollups.journal");
+        service = journaled(journal);
+        LocalDateTime coveredSince = service.getCoveredSince();
+        record("delete", "Patient", "alice", NINE);
+        record("delete", "Patient", "alice", NINE.plusMinutes(30));
+        service.shutdown();
+
+        service = journaled(journal);
+        record("delete", "Patient", "alice", NINE.plusMinutes(45));
+
+        assertThat(service.getTotals(NINE, NINE, "action")).containsExactly(Map.entry("delete", 3L));
+        assertThat(service.getCoveredSince()).isEqualTo(coveredSince);
+        service.shutdown();
+    }
+
+    @Test
+    void journalLinesOutsideTheRetentionWindowOrUnreadableAreSkipped(@TempDir Path dir) throws Exception {
+        long hour = NINE.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / 3_600_000L;
+        Path journal = dir.resolve("rollups.journal");
+        Files.writeString(journal, "since\t" + (hour - 100 * 24) + "\n"
+                + (hour - 91 * 24) + "\tdelete\tPatient\talice\t7\n"
+                + hour + "\tdelete\tPatient\t\t2\n"
+                + hour + "\tdelete\tPati");
+
+        service = journaled(journal);
+
+        assertThat(service.getTotals(NINE.minusDays(95), NINE, "agent")).containsExactly(Map.entry("other", 2L));
+        // Coverage never reaches back past the retention window
+        assertThat(service.getCoveredSince()).isAfter(NINE.minusDays(91));
+        service.shutdown();
+    }
+
+    private AuditAnalyticsService journaled(Path journal) {
+        AuditAnalyticsService journaled = new AuditAnalyticsService();
+        ReflectionTestUtils.setField(journaled, "retentionDays", 90);
+        ReflectionTestUtils.setField(journaled, "journalFile", journal.toString());
+        ReflectionTestUtils.setField(journaled, "flushSeconds", 3600);
+        journaled.init();
+        return journaled;
+    }
+
+    private void record(String action, String resourceType, String agent, LocalDateTime at) {
+        service.record(action, resourceType, agent, at.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,80 @@
+package com.healthcare.pms.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService service;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(mock(MemoryBudgetService.class));
+        ReflectionTestUtils.setField(service, "ttlMinutes", 30L);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+    }
+
+    @Test
+    void replaysTheOriginalResultWithinTheTtl() throws Exception {
+        String first = service.execute("patient", "key-1", () -> "created-" + calls.incrementAndGet());
+        String second = service.execute("patient", "key-1", () -> "created-" + calls.incrementAndGet());
+
+        assertThat(second).isEqualTo(first).isEqualTo("created-1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void runsAgainOnceTheEntryHasExpired() throws Exception {
+        // A zero TTL expires each entry the moment it is stored
+        ReflectionTestUtils.setField(service, "ttlMinutes", 0L);
+
+        service.execute("patient", "key-1", () -> "created-" + calls.incrementAndGet());
+        String second = service.execute("patient", "key-1", () -> "created-" + calls.incrementAndGet());
+
+        assertThat(second).isEqualTo("created-2");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void keysAreScoped() throws Exception {
+        service.execute("patient", "key-1", () -> "patient-" + calls.incrementAndGet());
+        String other = service.execute("appointment", "key-1", () -> "appointment-" + calls.incrementAndGet());
+
+        assertThat(other).isEqualTo("appointment-2");
+    }
+
+    @Test
+    void forgetsAFailureSoTheKeyCanBeRetried() throws Exception {
+        assertThatThrownBy(() -> service.execute("patient", "key-1", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("server down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        String retried = service.execute("patient", "key-1", () -> "created-" + calls.incrementAndGet());
+
+        assertThat(retried).isEqualTo("created-2");
+    }
+
+    @Test
+    void withoutAKeyEveryCallRuns() throws Exception {
+        service.execute("patient", null, calls::incrementAndGet);
+        service.execute("patient", null, calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void headerKeyWinsOverFormKey() {
+        assertThat(IdempotencyService.resolveKey(" header ", "form")).isEqualTo("header");
+        assertThat(IdempotencyService.resolveKey("  ", "form")).isEqualTo("form");
+        assertThat(IdempotencyService.resolveKey(null, " ")).isNull();
+    }
+}
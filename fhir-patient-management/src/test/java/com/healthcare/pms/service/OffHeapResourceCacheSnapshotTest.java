@@ -0,0 +1,111 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OffHeapResourceCacheSnapshotTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadsEveryEntryWithItsVersion() {
+        Path file = directory.resolve("cache/resources.snapshot");
+        OffHeapResourceCache original = cache();
+        for (int i = 0; i < 50; i++) {
+            original.put(OffHeapResourceCacheTest.patient("p" + i, String.valueOf(i % 3 + 1), 100));
+        }
+        original.writeSnapshot(file);
+
+        OffHeapResourceCache reloaded = cache();
+        reloaded.loadSnapshot(file);
+
+        assertThat(reloaded.getStats().getEntries()).isEqualTo(50);
+        for (int i = 0; i < 50; i++) {
+            Patient patient = reloaded.get(Patient.class, "p" + i, String.valueOf(i % 3 + 1));
+            assertThat(patient).isNotNull();
+            assertThat(patient.getNameFirstRep().getFamily()).isEqualTo("Family p" + i);
+        }
+    }
+
+    @Test
+    void entriesLargerThanOneBatchSurvive() {
+        Path file = directory.resolve("resources.snapshot");
+        OffHeapResourceCache original = cache();
+        original.put(OffHeapResourceCacheTest.patient("small", "1", 10));
+        original.put(OffHeapResourceCacheTest.patient("large", "1", 1_500_000));
+        original.writeSnapshot(file);
+
+        OffHeapResourceCache reloaded = cache();
+        reloaded.loadSnapshot(file);
+
+        assertThat(reloaded.get(Patient.class, "small", "1")).isNotNull();
+        assertThat(reloaded.get(Patient.class, "large", "1")).isNotNull();
+    }
+
+    @Test
+    void snapshotIsReadableByTheOwnerOnly() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path file = directory.resolve("cache/resources.snapshot");
+        OffHeapResourceCache original = cache();
+        original.put(OffHeapResourceCacheTest.patient("p1", "1", 10));
+        original.writeSnapshot(file);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent()))).isEqualTo("rwx------");
+    }
+
+    @Test
+    void truncatedSnapshotKeepsTheEntriesBeforeTheDamage() throws Exception {
+        Path file = directory.resolve("resources.snapshot");
+        OffHeapResourceCache original = cache();
+        for (int i = 0; i < 10; i++) {
+            original.put(OffHeapResourceCacheTest.patient("p" + i, "1", 100));
+        }
+        original.writeSnapshot(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 50));
+
+        OffHeapResourceCache reloaded = cache();
+        reloaded.loadSnapshot(file);
+
+        assertThat(reloaded.getStats().getEntries()).isEqualTo(9);
+        assertThat(reloaded.get(Patient.class, "p0", "1")).isNotNull();
+        assertThat(reloaded.get(Patient.class, "p9", "1")).isNull();
+    }
+
+    @Test
+    void missingOrForeignFileLoadsNothing() throws Exception {
+        OffHeapResourceCache cache = cache();
+        cache.loadSnapshot(directory.resolve("absent.snapshot"));
+
+        Path foreign = directory.resolve("foreign.snapshot");
+        Files.write(foreign, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 0, 0, 0, 0});
+        cache.loadSnapshot(foreign);
+
+        assertThat(cache.getStats().getEntries()).isZero();
+    }
+
+    private static OffHeapResourceCache cache() {
+        OffHeapResourceCache cache = new OffHeapResourceCache(FHIR_CONTEXT);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "capacityMb", 4);
+        ReflectionTestUtils.setField(cache, "snapshotEnabled", false);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapResourceCacheTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    // Roughly 300 KB of JSON, so a 1 MB ring holds three
+    private static final int PADDING = 300_000;
+
+    private OffHeapResourceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapResourceCache(FHIR_CONTEXT);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "capacityMb", 1);
+        ReflectionTestUtils.setField(cache, "snapshotEnabled", false);
+        cache.init();
+    }
+
+    @Test
+    void returnsADecodedCopyWithItsIdAndVersion() {
+        cache.put(patient("p1", "2", 10));
+
+        Patient hit = cache.get(Patient.class, "p1", null);
+
+        assertThat(hit.getIdElement().getIdPart()).isEqualTo("p1");
+        assertThat(hit.getIdElement().getVersionIdPart()).isEqualTo("2");
+        assertThat(hit.getNameFirstRep().getFamily()).isEqualTo("Family p1");
+    }
+
+    @Test
+    void missesOnAnotherVersionOrType() {
+        cache.put(patient("p1", "2", 10));
+
+        assertThat(cache.get(Patient.class, "p1", "1")).isNull();
+        assertThat(cache.get(Practitioner.class, "p1", null)).isNull();
+        assertThat(cache.get(Patient.class, "p1", "2")).isNotNull();
+    }
+
+    @Test
+    void versionComesFromTheIndex() {
+        cache.put(patient("p1", "7", 10));
+
+        assertThat(cache.version(Patient.class, "p1")).isEqualTo("7");
+        assertThat(cache.version(Patient.class, "p2")).isNull();
+        // Answered without decoding anything
+        assertThat(cache.getStats().getHits()).isZero();
+    }
+
+    @Test
+    void putReplacesTheEarlierCopy() {
+        cache.put(patient("p1", "1", 10));
+        cache.put(patient("p1", "2", 10));
+
+        assertThat(cache.version(Patient.class, "p1")).isEqualTo("2");
+        assertThat(cache.getStats().getEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void wrappingEvictsOnlyTheEldestEntriesInTheWay() {
+        cache.put(patient("p1", "1", PADDING));
+        cache.put(patient("p2", "1", PADDING));
+        cache.put(patient("p3", "1", PADDING));
+
+        // No room left at the end of the ring, so this write wraps over p1
+        cache.put(patient("p4", "1", PADDING));
+
+        assertThat(cache.get(Patient.class, "p1", null)).isNull();
+        assertThat(cache.get(Patient.class, "p2", null)).isNotNull();
+        assertThat(cache.get(Patient.class, "p3", null)).isNotNull();
+        assertThat(cache.get(Patient.class, "p4", null)).isNotNull();
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats().getEntries()).isEqualTo(3);
+    }
+
+    @Test
+    void aResourceLargerThanTheRingIsNotStored() {
+        cache.put(patient("p1", "1", 10));
+        cache.put(patient("big", "1", 2 * 1024 * 1024));
+
+        assertThat(cache.get(Patient.class, "big", null)).isNull();
+        assertThat(cache.get(Patient.class, "p1", null)).isNotNull();
+    }
+
+    static Patient patient(String id, String version, int padding) {
+        Patient patient = new Patient();
+        patient.setId("Patient/" + id + "/_history/" + version);
+        patient.addName().setFamily("Family " + id);
+        patient.addExtension("http://example.org/padding", new StringType("x".repeat(padding)));
+        return patient;
+    }
+}
@@ -0,0 +1,54 @@
+package com.healthcare.pms.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientDedupBloomFilterTest {
+
+    @Test
+    void neverMissesAnIdentifierItHasSeen() {
+        PatientDedupService.BloomFilter filter = new PatientDedupService.BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("urn:pms:mrn|" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("urn:pms:mrn|" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void staysNearTheConfiguredFalsePositiveRate() {
+        PatientDedupService.BloomFilter filter = new PatientDedupService.BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("urn:pms:mrn|" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (filter.mightContain("urn:pms:mrn|" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% of 10,000 lookups, with room for hash variance
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void addReportsOnlyTheFirstSighting() {
+        PatientDedupService.BloomFilter filter = new PatientDedupService.BloomFilter(100, 0.01);
+
+        assertThat(filter.add("urn:pms:mrn|1")).isTrue();
+        assertThat(filter.add("urn:pms:mrn|1")).isFalse();
+        assertThat(filter.mightContain("urn:pms:mrn|1")).isTrue();
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        PatientDedupService.BloomFilter filter = new PatientDedupService.BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("urn:pms:mrn|1")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+}
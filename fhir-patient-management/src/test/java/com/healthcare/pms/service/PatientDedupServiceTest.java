@@ -0,0 +1,55 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.healthcare.pms.dto.PatientDTO;
+import com.healthcare.pms.mapper.FhirSystems;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PatientDedupServiceTest {
+
+    private PatientDedupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PatientDedupService(mock(IGenericClient.class), mock(MemoryBudgetService.class));
+        ReflectionTestUtils.setField(service, "bloomPrecheck", true);
+        ReflectionTestUtils.setField(service, "expectedPatients", 1000);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        service.init();
+        ReflectionTestUtils.setField(service, "seeded", true);
+    }
+
+    @Test
+    void secondRegistrationOfTheSamePatientIsConditionalBeforeTheFirstCompletes() {
+        String first = service.conditionalCreateQuery(registration());
+        String second = service.conditionalCreateQuery(registration());
+
+        assertThat(first).isNull();
+        assertThat(second).isEqualTo("identifier=" + FhirSystems.PATIENT_AADHAAR + "|123412341234");
+    }
+
+    @Test
+    void everyRegistrationIsConditionalUntilSeeded() {
+        ReflectionTestUtils.setField(service, "seeded", false);
+
+        assertThat(service.conditionalCreateQuery(registration())).startsWith("identifier=");
+        assertThat(service.conditionalCreateQuery(registration())).startsWith("identifier=");
+    }
+
+    @Test
+    void registrationWithoutAnIdentifierIsAPlainCreate() {
+        // Neither an Aadhaar number nor a phone and date of birth
+        assertThat(service.conditionalCreateQuery(new PatientDTO())).isNull();
+    }
+
+    private static PatientDTO registration() {
+        PatientDTO patient = new PatientDTO();
+        patient.setAadhaarNumber("1234 1234 1234");
+        return patient;
+    }
+}
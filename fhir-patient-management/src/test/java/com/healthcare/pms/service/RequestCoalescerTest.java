@@ -0,0 +1,171 @@
+package com.healthcare.pms.service;
+
+import com.healthcare.pms.dto.CoalescingStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer coalescer;
+    private ExecutorService callers;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = callers.submit(() -> coalescer.read("Patient", "p1", () -> {
+            started.countDown();
+            await(release);
+            return "patient-" + calls.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> joined = callers.submit(() -> coalescer.read("Patient", "p1",
+                () -> "patient-" + calls.incrementAndGet()));
+        awaitCoalesced("Patient read", 1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("patient-1");
+        assertThat(joined.get(5, TimeUnit.SECONDS)).isEqualTo("patient-1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void joinedCallersGetTheLeadersException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = callers.submit(() -> coalescer.read("Patient", "p1", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("server unavailable");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> joined = callers.submit(() -> coalescer.read("Patient", "p1",
+                () -> "patient-" + calls.incrementAndGet()));
+        awaitCoalesced("Patient read", 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> joined.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(IllegalStateException.class).hasMessage("server unavailable");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void callAfterCompletionStartsAFreshRequest() {
+        coalescer.read("Patient", "p1", () -> "patient-" + calls.incrementAndGet());
+        String second = coalescer.read("Patient", "p1", () -> "patient-" + calls.incrementAndGet());
+
+        assertThat(second).isEqualTo("patient-2");
+        assertThat(coalescer.getStats()).singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getExecuted()).isEqualTo(2);
+                    assertThat(stats.getCoalesced()).isZero();
+                });
+    }
+
+    @Test
+    void failedCallIsNotReusedByTheNextCaller() {
+        assertThatThrownBy(() -> coalescer.read("Patient", "p1", () -> {
+            throw new IllegalStateException("server unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(coalescer.read("Patient", "p1", () -> "patient-" + calls.incrementAndGet()))
+                .isEqualTo("patient-1");
+    }
+
+    @Test
+    void disabledCoalescerCallsStraightThroughWithoutCounting() {
+        ReflectionTestUtils.setField(coalescer, "enabled", false);
+
+        coalescer.read("Patient", "p1", () -> "patient-" + calls.incrementAndGet());
+        coalescer.read("Patient", "p1", () -> "patient-" + calls.incrementAndGet());
+
+        assertThat(calls).hasValue(2);
+        assertThat(coalescer.getStats()).isEmpty();
+    }
+
+    @Test
+    void keySortsAndTrimsParametersAndSkipsBlankOnes() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("name", " Asha ");
+        params.put("_count", 20);
+        params.put("gender", " ");
+        params.put("birthdate", null);
+
+        assertThat(RequestCoalescer.key("Patient", "search", params))
+                .isEqualTo("Patient search?_count=20&name=Asha&")
+                .isEqualTo(RequestCoalescer.key("Patient", "search", Map.of("_count", "20", "name", "Asha")));
+        assertThat(RequestCoalescer.key("Patient", "search", Map.of("name", "Asha")))
+                .isNotEqualTo(RequestCoalescer.key("Practitioner", "search", Map.of("name", "Asha")));
+    }
+
+    @Test
+    void statsAreReportedPerResourceTypeAndOperationInNameOrder() {
+        coalescer.search("Practitioner", Map.of("name", "Rao"), () -> List.of());
+        coalescer.read("Appointment", "a1", () -> "appointment");
+
+        assertThat(coalescer.getStats())
+                .extracting(CoalescingStatsDTO::getOperation)
+                .containsExactly("Appointment read", "Practitioner search");
+        assertThat(coalescer.getStats())
+                .allSatisfy(stats -> assertThat(stats.getCoalesceRate()).isZero());
+    }
+
+    // Waits until the second caller has actually joined, so releasing the leader can't race it
+    private void awaitCoalesced(String operation, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            boolean joined = coalescer.getStats().stream()
+                    .anyMatch(stats -> stats.getOperation().equals(operation) && stats.getCoalesced() == expected);
+            if (joined) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError(operation + " never had " + expected + " coalesced calls");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
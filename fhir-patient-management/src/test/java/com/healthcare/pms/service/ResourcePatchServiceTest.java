@@ -0,0 +1,158 @@
+package com.healthcare.pms.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResourcePatchServiceTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResourcePatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ResourcePatchService(mock(IGenericClient.class), FHIR_CONTEXT, objectMapper,
+                mock(OffHeapResourceCache.class), mock(MemoryBudgetService.class));
+    }
+
+    @Test
+    void unchangedEditGivesAnEmptyPatch() throws Exception {
+        Patient base = patient(phone("111"), email("a@example.com"));
+
+        JsonNode patch = diff(base, patient(phone("111"), email("a@example.com")),
+                patient(phone("111"), email("a@example.com")));
+
+        assertThat(patch).isEmpty();
+    }
+
+    @Test
+    void reorderedElementsAreNotAChange() throws Exception {
+        Patient base = patient(phone("111"), email("a@example.com"));
+
+        JsonNode patch = diff(base, patient(phone("111"), email("a@example.com")),
+                patient(email("a@example.com"), phone("111")));
+
+        assertThat(patch).isEmpty();
+    }
+
+    @Test
+    void addedElementIsAppended() throws Exception {
+        Patient base = patient(phone("111"));
+
+        JsonNode patch = diff(base, patient(phone("111")), patient(phone("111"), email("a@example.com")));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("add");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/telecom/-");
+        assertThat(patch.get(0).get("value").get("value").asText()).isEqualTo("a@example.com");
+    }
+
+    @Test
+    void removedElementIsRemovedAtItsIndexInTheResource() throws Exception {
+        // The server copy has a contact point the mapper never renders ahead of the removed one
+        Patient base = patient(fax("999"), phone("111"), email("a@example.com"));
+
+        JsonNode patch = diff(base, patient(phone("111"), email("a@example.com")), patient(phone("111")));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("remove");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/telecom/2");
+    }
+
+    @Test
+    void removalsComeLastHighestIndexFirst() throws Exception {
+        Patient base = patient(phone("111"), email("a@example.com"), fax("999"));
+
+        JsonNode patch = diff(base, patient(phone("111"), email("a@example.com"), fax("999")),
+                patient(email("a@example.com")));
+
+        assertThat(patch).hasSize(2);
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/telecom/2");
+        assertThat(patch.get(1).get("path").asText()).isEqualTo("/telecom/0");
+    }
+
+    @Test
+    void editedValueTargetsTheElementTheMapperShowed() throws Exception {
+        // Two phones on the server; the mapper shows the last one, so that is the one edited
+        Patient base = patient(phone("111"), phone("222"));
+
+        JsonNode patch = diff(base, patient(phone("222")), patient(phone("333")));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("replace");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/telecom/1/value");
+        assertThat(patch.get(0).get("value").asText()).isEqualTo("333");
+    }
+
+    @Test
+    void unknownExtensionsSurviveAnExtensionEdit() throws Exception {
+        Patient base = patient();
+        base.addExtension("http://example.org/unknown", new StringType("kept"));
+        base.addExtension("http://example.org/known", new StringType("old"));
+
+        Patient before = patient();
+        before.addExtension("http://example.org/known", new StringType("old"));
+        Patient after = patient();
+        after.addExtension("http://example.org/known", new StringType("new"));
+
+        JsonNode patch = diff(base, before, after);
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("replace");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/extension/1/valueString");
+        assertThat(patch.get(0).get("value").asText()).isEqualTo("new");
+    }
+
+    @Test
+    void changedScalarIsReplacedAndDroppedScalarRemoved() throws Exception {
+        Patient base = patient().setActive(true);
+        base.setGender(Enumerations.AdministrativeGender.MALE);
+
+        Patient before = patient().setActive(true);
+        before.setGender(Enumerations.AdministrativeGender.MALE);
+        Patient after = patient().setActive(false);
+
+        JsonNode patch = diff(base, before, after);
+
+        assertThat(patch).hasSize(2);
+        assertThat(patch.findValuesAsText("path")).containsExactlyInAnyOrder("/active", "/gender");
+        assertThat(patch.findValuesAsText("op")).containsExactlyInAnyOrder("replace", "remove");
+    }
+
+    private JsonNode diff(Patient base, Patient before, Patient after) throws Exception {
+        return objectMapper.readTree(service.diff(base, before, after));
+    }
+
+    private static Patient patient(ContactPoint... telecoms) {
+        Patient patient = new Patient();
+        patient.setId("Patient/p1/_history/3");
+        for (ContactPoint telecom : telecoms) {
+            patient.addTelecom(telecom);
+        }
+        return patient;
+    }
+
+    private static ContactPoint phone(String value) {
+        return new ContactPoint().setSystem(ContactPoint.ContactPointSystem.PHONE).setValue(value);
+    }
+
+    private static ContactPoint email(String value) {
+        return new ContactPoint().setSystem(ContactPoint.ContactPointSystem.EMAIL).setValue(value);
+    }
+
+    private static ContactPoint fax(String value) {
+        return new ContactPoint().setSystem(ContactPoint.ContactPointSystem.FAX).setValue(value);
+    }
+}
@@ -0,0 +1,138 @@
+package com.healthcare.pms.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchResultCacheTest {
+
+    private static final Map<String, String> BY_NAME = Map.of("name", "Asha");
+    private static final long TTL_SECONDS = 60;
+
+    private AsyncFhirExecutor asyncExecutor;
+    private SearchResultCache cache;
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        asyncExecutor = mock(AsyncFhirExecutor.class);
+        cache = new SearchResultCache(asyncExecutor, mock(MemoryBudgetService.class));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 200);
+        ReflectionTestUtils.setField(cache, "staleSeconds", 60L);
+    }
+
+    @Test
+    void repeatedSearchWithinTheTtlIsServedFromTheCache() {
+        List<String> first = patients(BY_NAME);
+        List<String> second = patients(Map.of("name", " Asha "));
+
+        assertThat(second).isEqualTo(first).containsExactly("search-1");
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void disabledCacheOrZeroTtlAlwaysSearches() {
+        cache.get("Patient", BY_NAME, Set.of(), 0, this::search);
+        cache.get("Patient", BY_NAME, Set.of(), 0, this::search);
+        assertThat(searches).hasValue(2);
+
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        patients(BY_NAME);
+        patients(BY_NAME);
+        assertThat(searches).hasValue(4);
+    }
+
+    @Test
+    void writeToTheResourceTypeDropsItsSearches() {
+        patients(BY_NAME);
+        cache.get("Practitioner", BY_NAME, Set.of(), TTL_SECONDS, this::search);
+
+        cache.invalidate("Patient");
+
+        assertThat(patients(BY_NAME)).containsExactly("search-3");
+        assertThat(cache.get("Practitioner", BY_NAME, Set.of(), TTL_SECONDS, this::search))
+                .containsExactly("search-2");
+    }
+
+    @Test
+    void writeToADependencyDropsTheSearch() {
+        Map<String, String> byDate = Map.of("date", "2026-10-19");
+        cache.get("Appointment", byDate, Set.of("Patient", "Practitioner"), TTL_SECONDS, this::search);
+
+        cache.invalidate("Practitioner");
+
+        assertThat(cache.get("Appointment", byDate, Set.of("Patient", "Practitioner"), TTL_SECONDS, this::search))
+                .containsExactly("search-2");
+    }
+
+    @Test
+    void loadOverlappingAWriteIsReturnedButNotStored() {
+        List<String> rows = cache.get("Patient", BY_NAME, Set.of(), TTL_SECONDS, () -> {
+            List<String> result = search();
+            cache.invalidate("Patient");
+            return result;
+        });
+
+        assertThat(rows).containsExactly("search-1");
+        assertThat(patients(BY_NAME)).containsExactly("search-2");
+        assertThat(patients(BY_NAME)).containsExactly("search-2");
+    }
+
+    @Test
+    void leastRecentlyUsedSearchIsEvictedPastMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        patients(Map.of("name", "a"));
+        patients(Map.of("name", "b"));
+        patients(Map.of("name", "a"));
+        patients(Map.of("name", "c"));
+
+        assertThat(patients(Map.of("name", "a"))).containsExactly("search-1");
+        assertThat(patients(Map.of("name", "b"))).containsExactly("search-4");
+    }
+
+    @Test
+    void staleRowsAreServedWhileOneBackgroundRefreshRuns() throws Exception {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        when(asyncExecutor.submit(anyString(), any(Supplier.class))).thenReturn(refresh);
+
+        cache.get("Patient", BY_NAME, Set.of(), 1, this::search);
+        Thread.sleep(1100);
+
+        assertThat(cache.get("Patient", BY_NAME, Set.of(), 1, this::search)).containsExactly("search-1");
+        assertThat(cache.get("Patient", BY_NAME, Set.of(), 1, this::search)).containsExactly("search-1");
+        verify(asyncExecutor).submit(anyString(), any(Supplier.class));
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void freshEntryNeverStartsABackgroundRefresh() {
+        patients(BY_NAME);
+        patients(BY_NAME);
+
+        verify(asyncExecutor, never()).submit(anyString(), any(Supplier.class));
+    }
+
+    private List<String> patients(Map<String, String> params) {
+        return cache.get("Patient", params, Set.of(), TTL_SECONDS, this::search);
+    }
+
+    private List<String> search() {
+        return List.of("search-" + searches.incrementAndGet());
+    }
+}